@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.codehaus.groovy.runtime.GStringImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.contract.spec.internal.DslProperty;
+import org.springframework.cloud.contract.verifier.util.ContentType;
+import org.springframework.cloud.contract.verifier.util.ContentUtils;
+import org.springframework.cloud.contract.verifier.util.MapConverter;
+
+import groovy.lang.Closure;
+import groovy.lang.GString;
+
+/**
+ * Measures the extraction of the client side values from bodies that contain
+ * {@link DslProperty dynamic properties} - both from structures via
+ * {@link MapConverter#transformValues(Object, Closure)} and from GStrings via
+ * {@link ContentUtils#extractValue(GString, ContentType, Closure)}.
+ *
+ * @since 1.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class BodyTransformationBenchmark {
+
+	private static final Closure<Object> CLIENT_VALUE = new Closure<Object>(null) {
+		@SuppressWarnings("unused")
+		public Object doCall(Object value) {
+			return value instanceof DslProperty ? ((DslProperty) value).getClientValue() : value;
+		}
+	};
+
+	@Param({ "2", "8" })
+	int depth;
+
+	@Param({ "5", "50" })
+	int width;
+
+	private Map<String, Object> body;
+	private GString json;
+
+	@Setup
+	public void setup() {
+		this.body = ContractCorpus.body(0, this.depth, this.width);
+		withDynamicProperties(this.body);
+		this.json = jsonWithDynamicProperties(this.width);
+	}
+
+	@Benchmark
+	public Object transformValues() {
+		return MapConverter.transformValues(this.body, CLIENT_VALUE);
+	}
+
+	@Benchmark
+	public Object extractJsonValue() {
+		return ContentUtils.extractValue(this.json, ContentType.JSON, CLIENT_VALUE);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void withDynamicProperties(Map<String, Object> body) {
+		for (Map.Entry<String, Object> entry : body.entrySet()) {
+			if (entry.getValue() instanceof String) {
+				entry.setValue(new DslProperty(Pattern.compile("value_[0-9_]+"), entry.getValue()));
+			}
+			else if (entry.getValue() instanceof Map) {
+				withDynamicProperties((Map<String, Object>) entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * {@code {"field0":"${dynamic}", "field1":"${dynamic}", ...}}
+	 */
+	private static GString jsonWithDynamicProperties(int fields) {
+		List<String> strings = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		for (int i = 0; i < fields; i++) {
+			strings.add((i == 0 ? "{" : "\", ") + "\"field" + i + "\": \"");
+			values.add(new DslProperty(Pattern.compile("value_[0-9]+"), "value_" + i));
+		}
+		strings.add("\"}");
+		return new GStringImpl(values.toArray(), strings.toArray(new String[strings.size()]));
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.verifier.dsl.wiremock.WireMockStubStrategy;
+import org.springframework.cloud.contract.verifier.file.ContractMetadata;
+import org.springframework.cloud.contract.verifier.util.ContractVerifierDslConverter;
+
+/**
+ * Generates synthetic contracts for the benchmarks. The size of the corpus is
+ * controlled by the number of contracts, while the size of each contract's body
+ * is controlled by its nesting depth and the number of fields on each level.
+ *
+ * The same index always results in the same contract, so the corpus is
+ * deterministic between runs.
+ *
+ * @since 1.0.3
+ */
+public final class ContractCorpus {
+
+	public static final String MESSAGE_DESTINATION = "input";
+	public static final String MESSAGE_TYPE_HEADER = "type";
+
+	private ContractCorpus() {
+	}
+
+	/**
+	 * Body of a contract. Each level has {@code width} simple fields, a list of
+	 * {@code width} flat items and a nested object with the next level.
+	 */
+	public static Map<String, Object> body(int index, int depth, int width) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("id", index);
+		for (int i = 0; i < width; i++) {
+			body.put("field" + i, "value_" + index + "_" + i);
+		}
+		List<Object> items = new ArrayList<>();
+		for (int i = 0; i < width; i++) {
+			Map<String, Object> item = new LinkedHashMap<>();
+			item.put("position", i);
+			item.put("name", "item_" + index + "_" + i);
+			items.add(item);
+		}
+		body.put("items", items);
+		if (depth > 0) {
+			body.put("child", body(index, depth - 1, width));
+		}
+		return body;
+	}
+
+	public static String httpContract(int index, int depth, int width) {
+		String body = groovy(body(index, depth, width));
+		return "org.springframework.cloud.contract.spec.Contract.make {\n"
+				+ "	request {\n"
+				+ "		method 'PUT'\n"
+				+ "		url $(consumer(regex('/resources/[0-9]+')), producer('/resources/" + index + "'))\n"
+				+ "		headers {\n"
+				+ "			header('Content-Type': 'application/json')\n"
+				+ "		}\n"
+				+ "		body(" + body + ")\n"
+				+ "	}\n"
+				+ "	response {\n"
+				+ "		status 200\n"
+				+ "		headers {\n"
+				+ "			header('Content-Type': 'application/json')\n"
+				+ "		}\n"
+				+ "		body(" + body + ")\n"
+				+ "	}\n"
+				+ "}\n";
+	}
+
+	public static String messagingContract(int index, int depth, int width, int headerValues) {
+		return "org.springframework.cloud.contract.spec.Contract.make {\n"
+				+ "	label '" + label(index) + "'\n"
+				+ "	input {\n"
+				+ "		messageFrom('" + MESSAGE_DESTINATION + "')\n"
+				+ "		messageHeaders {\n"
+				+ "			header('" + MESSAGE_TYPE_HEADER + "', '" + messageType(index, headerValues) + "')\n"
+				+ "		}\n"
+				+ "		messageBody(" + groovy(body(index, depth, width)) + ")\n"
+				+ "	}\n"
+				+ "}\n";
+	}
+
+	public static String label(int index) {
+		return "contract_" + index;
+	}
+
+	public static String messageType(int index, int headerValues) {
+		return "type_" + (index % Math.max(headerValues, 1));
+	}
+
+	public static List<Contract> httpContracts(int count, int depth, int width) {
+		List<Contract> contracts = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			contracts.add(ContractVerifierDslConverter.convert(httpContract(i, depth, width)));
+		}
+		return contracts;
+	}
+
+	public static List<Contract> messagingContracts(int count, int depth, int width, int headerValues) {
+		List<Contract> contracts = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			contracts.add(ContractVerifierDslConverter.convert(messagingContract(i, depth, width, headerValues)));
+		}
+		return contracts;
+	}
+
+	/**
+	 * Writes the contracts to {@code contracts/} and their WireMock stubs to
+	 * {@code mappings/} of the given folder - the layout of a stub jar.
+	 */
+	public static List<ContractMetadata> writeStubs(File root, int count, int depth, int width)
+			throws IOException {
+		File contracts = new File(root, "contracts");
+		File mappings = new File(root, "mappings");
+		Files.createDirectories(contracts.toPath());
+		Files.createDirectories(mappings.toPath());
+		List<ContractMetadata> metadata = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String dsl = httpContract(i, depth, width);
+			File contractFile = new File(contracts, label(i) + ".groovy");
+			Files.write(contractFile.toPath(), dsl.getBytes(StandardCharsets.UTF_8));
+			ContractMetadata contract = new ContractMetadata(contractFile.toPath(), false, count, null);
+			String stub = new WireMockStubStrategy("contracts", contract,
+					ContractVerifierDslConverter.convert(dsl)).toWireMockClientStub();
+			Files.write(new File(mappings, label(i) + ".json").toPath(), stub.getBytes(StandardCharsets.UTF_8));
+			metadata.add(contract);
+		}
+		return metadata;
+	}
+
+	public static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * Renders the body as a Groovy literal
+	 */
+	static String groovy(Object value) {
+		if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			if (map.isEmpty()) {
+				return "[:]";
+			}
+			StringBuilder builder = new StringBuilder("[");
+			for (Iterator<? extends Map.Entry<?, ?>> iterator = map.entrySet().iterator(); iterator.hasNext();) {
+				Map.Entry<?, ?> entry = iterator.next();
+				builder.append(entry.getKey()).append(": ").append(groovy(entry.getValue()));
+				if (iterator.hasNext()) {
+					builder.append(", ");
+				}
+			}
+			return builder.append("]").toString();
+		}
+		if (value instanceof List) {
+			StringBuilder builder = new StringBuilder("[");
+			for (Iterator<?> iterator = ((List<?>) value).iterator(); iterator.hasNext();) {
+				builder.append(groovy(iterator.next()));
+				if (iterator.hasNext()) {
+					builder.append(", ");
+				}
+			}
+			return builder.append("]").toString();
+		}
+		if (value instanceof String) {
+			return "'" + value + "'";
+		}
+		return String.valueOf(value);
+	}
+}
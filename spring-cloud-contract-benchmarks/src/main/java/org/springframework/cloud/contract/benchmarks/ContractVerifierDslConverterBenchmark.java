@@ -0,0 +1,75 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.verifier.util.ContractVerifierDslConverter;
+
+/**
+ * Measures the conversion of a Groovy DSL to a {@link Contract}, both for a contract
+ * that is already compiled and for a contract that has to be compiled.
+ *
+ * @since 1.0.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ContractVerifierDslConverterBenchmark {
+
+	@Param({ "1", "4" })
+	int depth;
+
+	@Param({ "5", "20" })
+	int width;
+
+	private String dsl;
+	private long counter;
+
+	@Setup
+	public void setup() {
+		this.dsl = ContractCorpus.httpContract(0, this.depth, this.width);
+	}
+
+	@Benchmark
+	public Contract convertCompiledContract() {
+		return ContractVerifierDslConverter.convert(this.dsl);
+	}
+
+	/**
+	 * Each invocation converts a different text, so the contract gets compiled every time
+	 */
+	@Benchmark
+	public Contract convertNewContract() {
+		return ContractVerifierDslConverter.convert(this.dsl + "// " + this.counter++ + "\n");
+	}
+}
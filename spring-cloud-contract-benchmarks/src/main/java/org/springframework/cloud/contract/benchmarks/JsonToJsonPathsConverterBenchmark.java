@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.contract.verifier.util.JsonPaths;
+import org.springframework.cloud.contract.verifier.util.JsonToJsonPathsConverter;
+
+/**
+ * Measures the conversion of large, nested JSON bodies into JSON paths
+ *
+ * @since 1.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class JsonToJsonPathsConverterBenchmark {
+
+	@Param({ "2", "8" })
+	int depth;
+
+	@Param({ "5", "50" })
+	int width;
+
+	private Map<String, Object> body;
+	private JsonToJsonPathsConverter converter;
+
+	@Setup
+	public void setup() {
+		this.body = ContractCorpus.body(0, this.depth, this.width);
+		this.converter = new JsonToJsonPathsConverter();
+	}
+
+	@Benchmark
+	public JsonPaths testsSideValues() {
+		return this.converter.transformToJsonPathWithTestsSideValues(this.body);
+	}
+
+	@Benchmark
+	public JsonPaths stubsSideValues() {
+		return this.converter.transformToJsonPathWithStubsSideValues(this.body);
+	}
+
+	@Benchmark
+	public JsonPaths stubsSideValuesWithoutArraySizeCheck() {
+		return JsonToJsonPathsConverter.transformToJsonPathWithStubsSideValuesAndNoArraySizeCheck(this.body);
+	}
+}
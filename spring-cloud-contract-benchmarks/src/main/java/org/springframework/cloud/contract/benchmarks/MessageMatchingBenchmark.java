@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.stubrunner.messaging.ContractMessageIndex;
+import org.springframework.cloud.contract.stubrunner.messaging.ContractMessageMatcher;
+
+/**
+ * Measures how fast the contract matching an incoming message is found among all
+ * the contracts listening on a destination. Compares the {@link ContractMessageIndex}
+ * with checking each {@link ContractMessageMatcher} one by one. The message matches
+ * the last registered contract, which is the worst case for the sequential check.
+ *
+ * @since 1.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class MessageMatchingBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	int contracts;
+
+	@Param({ "10" })
+	int headerValues;
+
+	@Param({ "2" })
+	int depth;
+
+	@Param({ "5" })
+	int width;
+
+	private ContractMessageIndex<Contract> index;
+	private List<ContractMessageMatcher> matchers;
+	private Map<String, Object> headers;
+	private Map<String, Object> payload;
+
+	@Setup
+	public void setup() {
+		this.index = new ContractMessageIndex<>();
+		this.matchers = new ArrayList<>();
+		for (Contract contract : ContractCorpus.messagingContracts(this.contracts, this.depth,
+				this.width, this.headerValues)) {
+			this.index.add(contract, contract);
+			this.matchers.add(new ContractMessageMatcher(contract));
+		}
+		int last = this.contracts - 1;
+		this.headers = Collections.<String, Object>singletonMap(ContractCorpus.MESSAGE_TYPE_HEADER,
+				ContractCorpus.messageType(last, this.headerValues));
+		this.payload = ContractCorpus.body(last, this.depth, this.width);
+	}
+
+	@Benchmark
+	public Contract indexed() {
+		return this.index.match(this.headers, this.payload);
+	}
+
+	@Benchmark
+	public Contract sequential() {
+		for (ContractMessageMatcher matcher : this.matchers) {
+			if (matcher.matches(this.headers, this.payload)) {
+				return matcher.getContract();
+			}
+		}
+		return null;
+	}
+}
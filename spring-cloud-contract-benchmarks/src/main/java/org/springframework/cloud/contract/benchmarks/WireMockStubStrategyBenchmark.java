@@ -0,0 +1,76 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.verifier.dsl.wiremock.WireMockStubStrategy;
+import org.springframework.cloud.contract.verifier.file.ContractMetadata;
+
+/**
+ * Measures the conversion of a corpus of contracts to WireMock stubs
+ *
+ * @since 1.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class WireMockStubStrategyBenchmark {
+
+	@Param({ "10", "100" })
+	int contracts;
+
+	@Param({ "2" })
+	int depth;
+
+	@Param({ "5", "20" })
+	int width;
+
+	private List<Contract> corpus;
+	private ContractMetadata metadata;
+
+	@Setup
+	public void setup() {
+		this.corpus = ContractCorpus.httpContracts(this.contracts, this.depth, this.width);
+		this.metadata = new ContractMetadata(null, false, 0, null);
+	}
+
+	@Benchmark
+	public void toWireMockClientStub(Blackhole blackhole) {
+		for (Contract contract : this.corpus) {
+			blackhole.consume(new WireMockStubStrategy("contracts", this.metadata, contract)
+					.toWireMockClientStub());
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.contract.benchmarks.ContractCorpus;
+
+/**
+ * Measures loading the WireMock mappings and contracts of a stub repository from
+ * disk. Placed in the package of {@link StubRepository} since it's not public.
+ *
+ * @since 1.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class StubRepositoryBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	int contracts;
+
+	@Param({ "2" })
+	int depth;
+
+	@Param({ "5" })
+	int width;
+
+	private File root;
+
+	@Setup
+	public void setup() throws IOException {
+		this.root = Files.createTempDirectory("stub-repository").toFile();
+		ContractCorpus.writeStubs(this.root, this.contracts, this.depth, this.width);
+	}
+
+	@TearDown
+	public void tearDown() {
+		ContractCorpus.delete(this.root);
+	}
+
+	@Benchmark
+	public StubRepository load() {
+		return new StubRepository(this.root);
+	}
+}
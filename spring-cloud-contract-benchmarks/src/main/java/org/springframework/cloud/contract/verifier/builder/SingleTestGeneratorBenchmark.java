@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.contract.benchmarks.ContractCorpus;
+import org.springframework.cloud.contract.verifier.config.ContractVerifierConfigProperties;
+import org.springframework.cloud.contract.verifier.config.TestFramework;
+import org.springframework.cloud.contract.verifier.file.ContractMetadata;
+
+/**
+ * Measures the generation of a single test class from a corpus of contracts. Placed
+ * in the package of {@link SingleTestGenerator} since building a class is not a
+ * part of its public API.
+ *
+ * @since 1.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SingleTestGeneratorBenchmark {
+
+	@Param({ "10", "100" })
+	int contracts;
+
+	@Param({ "2" })
+	int depth;
+
+	@Param({ "5" })
+	int width;
+
+	@Param({ "JUNIT", "SPOCK" })
+	TestFramework testFramework;
+
+	private File root;
+	private List<ContractMetadata> corpus;
+	private SingleTestGenerator generator;
+
+	@Setup
+	public void setup() throws IOException {
+		this.root = Files.createTempDirectory("single-test-generator").toFile();
+		this.corpus = ContractCorpus.writeStubs(this.root, this.contracts, this.depth, this.width);
+		ContractVerifierConfigProperties properties = new ContractVerifierConfigProperties();
+		properties.setTargetFramework(this.testFramework);
+		this.generator = new SingleTestGenerator(properties);
+	}
+
+	@TearDown
+	public void tearDown() {
+		ContractCorpus.delete(this.root);
+	}
+
+	@Benchmark
+	public String buildClass() {
+		return this.generator.buildClass(this.corpus, "ContractsTest", "org.springframework.benchmarks", "contracts");
+	}
+}
@@ -63,6 +63,8 @@ public class AetherStubDownloader implements StubDownloader {
 	private final List<RemoteRepository> remoteRepos;
 	private final RepositorySystem repositorySystem;
 	private final RepositorySystemSession session;
+	private final UnpackedStubsCache unpackedStubsCache;
+	private final boolean unpackStubs;
 
 	public AetherStubDownloader(StubRunnerOptions stubRunnerOptions) {
 		if (log.isDebugEnabled()) {
@@ -83,6 +85,17 @@ public class AetherStubDownloader implements StubDownloader {
 		}
 		this.repositorySystem = newRepositorySystem();
 		this.session = newSession(this.repositorySystem, stubRunnerOptions.workOffline);
+		this.unpackedStubsCache = unpackedStubsCache(stubRunnerOptions);
+		this.unpackStubs = stubRunnerOptions.unpackStubs;
+	}
+
+	private UnpackedStubsCache unpackedStubsCache(StubRunnerOptions stubRunnerOptions) {
+		if (!StringUtils.hasText(stubRunnerOptions.stubsCacheDirectory)) {
+			return null;
+		}
+		log.info("Unpacked stubs will be cached in [" + stubRunnerOptions.stubsCacheDirectory + "]");
+		return new UnpackedStubsCache(new File(stubRunnerOptions.stubsCacheDirectory),
+				stubRunnerOptions.stubsCacheMaxSizeMb * 1024 * 1024);
 	}
 
 	private boolean remoteReposMissing() {
@@ -101,6 +114,8 @@ public class AetherStubDownloader implements StubDownloader {
 		this.remoteRepos = remoteRepositories;
 		this.repositorySystem = repositorySystem;
 		this.session = session;
+		this.unpackedStubsCache = null;
+		this.unpackStubs = true;
 		if (remoteReposMissing()) {
 			log.error("Remote repositories for stubs are not specified and work offline flag wasn't passed");
 		}
@@ -137,10 +152,9 @@ public class AetherStubDownloader implements StubDownloader {
 			ArtifactResult result = this.repositorySystem.resolveArtifact(this.session, request);
 			log.info("Resolved artifact [" + artifact + "] to "
 					+ result.getArtifact().getFile());
-			File temporaryFile = unpackStubJarToATemporaryFolder(
-					result.getArtifact().getFile().toURI());
-			log.info("Unpacked file to [" + temporaryFile + "]");
-			return temporaryFile;
+			File unpackedStubs = unpackStubJar(result.getArtifact().getFile(), resolvedVersion);
+			log.info("Stubs are available under [" + unpackedStubs + "]");
+			return unpackedStubs;
 		}
 		catch (Exception e) {
 			log.warn(
@@ -222,6 +236,17 @@ public class AetherStubDownloader implements StubDownloader {
 		return versionResult.getVersion() == null ? null : versionResult.getVersion();
 	}
 
+	private File unpackStubJar(File stubJar, String resolvedVersion) {
+		if (!this.unpackStubs) {
+			log.info("Stubs will be read directly from the JAR [" + stubJar + "]");
+			return stubJar;
+		}
+		if (this.unpackedStubsCache != null) {
+			return this.unpackedStubsCache.unpackedStubJar(stubJar, resolvedVersion);
+		}
+		return unpackStubJarToATemporaryFolder(stubJar.toURI());
+	}
+
 	private static File unpackStubJarToATemporaryFolder(URI stubJarUri) {
 		File tmpDirWhereStubsWillBeUnzipped;
 		try {
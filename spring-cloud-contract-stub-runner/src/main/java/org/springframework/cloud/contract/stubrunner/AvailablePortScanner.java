@@ -18,13 +18,17 @@ package org.springframework.cloud.contract.stubrunner;
 
 import java.io.IOException;
 import java.net.ServerSocket;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Tries to execute a closure with an available port from the given range
+ * Tries to execute a closure with an available port from the given range.
+ *
+ * Each picked port is leased in the {@link PortLeaseRegistry} before it gets checked,
+ * so stubs started in parallel - also by other JVMs on the same host - will not pick
+ * the same port. The lease is held until {@link #releasePort(int)} is called.
  */
 class AvailablePortScanner {
 
@@ -35,16 +39,22 @@ class AvailablePortScanner {
 	private final int minPortNumber;
 	private final int maxPortNumber;
 	private final int maxRetryCount;
+	private final PortLeaseRegistry leases;
 
 	AvailablePortScanner(int minPortNumber, int maxPortNumber) {
 		this(minPortNumber, maxPortNumber, MAX_RETRY_COUNT);
 	}
 
 	AvailablePortScanner(int minPortNumber, int maxPortNumber, int maxRetryCount) {
+		this(minPortNumber, maxPortNumber, maxRetryCount, PortLeaseRegistry.shared());
+	}
+
+	AvailablePortScanner(int minPortNumber, int maxPortNumber, int maxRetryCount, PortLeaseRegistry leases) {
 		checkPortRanges(minPortNumber, maxPortNumber);
 		this.minPortNumber = minPortNumber;
 		this.maxPortNumber = maxPortNumber;
 		this.maxRetryCount = maxRetryCount;
+		this.leases = leases;
 	}
 
 	private void checkPortRanges(int minPortNumber, int maxPortNumber) {
@@ -54,24 +64,44 @@ class AvailablePortScanner {
 	}
 
 	public <T> T tryToExecuteWithFreePort(PortCallback<T> closure) {
+		int numberOfPortsToBind = this.maxPortNumber - this.minPortNumber + 1;
 		for (int i = 0; i < this.maxRetryCount; i++) {
+			int portToScan = ThreadLocalRandom.current().nextInt(numberOfPortsToBind)
+					+ this.minPortNumber;
+			if (!this.leases.tryLease(portToScan)) {
+				if (log.isDebugEnabled()) {
+					log.debug("Port [" + portToScan + "] is leased by another stub (try: " + i + "/"
+							+ this.maxRetryCount + ")");
+				}
+				continue;
+			}
 			try {
-				int numberOfPortsToBind = this.maxPortNumber - this.minPortNumber + 1;
-				int portToScan = new Random().nextInt(numberOfPortsToBind)
-						+ this.minPortNumber;
 				checkIfPortIsAvailable(portToScan);
 				return executeLogicForAvailablePort(portToScan, closure);
 			}
 			catch (IOException exception) {
+				this.leases.release(portToScan);
 				if (log.isDebugEnabled()) {
 					log.debug("Failed to execute callback (try: " + i + "/" + this.maxRetryCount
 							+ ")", exception);
 				}
 			}
+			catch (RuntimeException exception) {
+				this.leases.release(portToScan);
+				throw exception;
+			}
 		}
 		throw new NoPortAvailableException(this.minPortNumber, this.maxPortNumber);
 	}
 
+	/**
+	 * Releases the lease of a port picked by this scanner, e.g. after the server
+	 * using it got stopped
+	 */
+	public void releasePort(int port) {
+		this.leases.release(port);
+	}
+
 	private <T> T executeLogicForAvailablePort(int portToScan, PortCallback<T> closure) throws IOException {
 		if (log.isDebugEnabled()) {
 			log.debug("Trying to execute closure with port [" + portToScan + "]");
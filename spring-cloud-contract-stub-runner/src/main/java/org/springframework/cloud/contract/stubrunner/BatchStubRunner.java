@@ -18,13 +18,22 @@ package org.springframework.cloud.contract.stubrunner;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
 
 /**
  * Manages lifecycle of multiple {@link StubRunner} instances.
@@ -33,25 +42,119 @@ import org.springframework.cloud.contract.spec.Contract;
  */
 public class BatchStubRunner implements StubRunning {
 
-	private final Iterable<StubRunner> stubRunners;
+	private final Iterable<? extends StubRunning> stubRunners;
+	private final ConcurrentStubStartup startup;
+	private volatile ListenableFuture<RunningStubs> asyncStartup;
+	private volatile MergedSnapshot<RunningStubs, RunningStubs> runningStubsSnapshot;
+	private volatile MergedSnapshot<Map<StubConfiguration, Collection<Contract>>, Map<StubConfiguration, Collection<Contract>>> contractsSnapshot;
+	private volatile MergedSnapshot<Map<String, Collection<String>>, Map<String, Collection<String>>> labelsSnapshot;
 
-	public BatchStubRunner(Iterable<StubRunner> stubRunners) {
+	public BatchStubRunner(Iterable<? extends StubRunning> stubRunners) {
+		this(stubRunners, 1);
+	}
+
+	/**
+	 * @param startupThreads - number of threads used to start the stub runners. If lower
+	 * than 2 then the stub runners are started one after another
+	 */
+	public BatchStubRunner(Iterable<? extends StubRunning> stubRunners, int startupThreads) {
 		this.stubRunners = stubRunners;
+		this.startup = new ConcurrentStubStartup(startupThreads);
 	}
 
 	@Override
 	public RunningStubs runStubs() {
+		if (this.asyncStartup != null) {
+			return awaitAsyncStartup();
+		}
+		return startStubs();
+	}
+
+	/**
+	 * Starts the stubs in a background thread and returns immediately. All the lookups
+	 * wait until the stubs got started. Subsequent calls return the same future, so it
+	 * can be used to check whether the stubs are ready.
+	 *
+	 * @return future completed with the running stubs once all of them got started
+	 */
+	public synchronized ListenableFuture<RunningStubs> runStubsAsync() {
+		if (this.asyncStartup == null) {
+			ListenableFutureTask<RunningStubs> task = new ListenableFutureTask<>(
+					new Callable<RunningStubs>() {
+						@Override
+						public RunningStubs call() throws Exception {
+							return startStubs();
+						}
+					});
+			Thread thread = new Thread(task, "stubrunner-startup");
+			thread.setDaemon(true);
+			thread.start();
+			this.asyncStartup = task;
+		}
+		return this.asyncStartup;
+	}
+
+	private RunningStubs awaitAsyncStartup() {
+		try {
+			return this.asyncStartup.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the stubs to start", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException("Failed to start the stubs", e.getCause());
+		}
+	}
+
+	private void awaitAsyncStartupIfPending() {
+		if (this.asyncStartup != null) {
+			awaitAsyncStartup();
+		}
+	}
+
+	private RunningStubs startStubs() {
 		Map<StubConfiguration, Integer> map = new LinkedHashMap<>();
-		for (StubRunner value : this.stubRunners) {
-			RunningStubs runningStubs = value.runStubs();
+		Map<StubConfiguration, String> pathPrefixes = new LinkedHashMap<>();
+		for (RunningStubs runningStubs : runAll()) {
 			map.putAll(runningStubs.validNamesAndPorts());
+			pathPrefixes.putAll(runningStubs.getPathPrefixes());
+		}
+		return new RunningStubs(map, pathPrefixes);
+	}
+
+	private List<RunningStubs> runAll() {
+		List<StubRunning> runners = new ArrayList<>();
+		for (StubRunning stubRunner : this.stubRunners) {
+			runners.add(stubRunner);
+		}
+		if (!this.startup.isParallel(runners.size())) {
+			List<RunningStubs> runningStubs = new ArrayList<>();
+			for (StubRunning stubRunner : runners) {
+				runningStubs.add(stubRunner.runStubs());
+			}
+			return runningStubs;
+		}
+		Map<String, Callable<RunningStubs>> tasks = new LinkedHashMap<>();
+		for (int i = 0; i < runners.size(); i++) {
+			final StubRunning stubRunner = runners.get(i);
+			tasks.put("#" + i + " " + stubRunner, new Callable<RunningStubs>() {
+				@Override
+				public RunningStubs call() throws Exception {
+					return stubRunner.runStubs();
+				}
+			});
 		}
-		return new RunningStubs(map);
+		return this.startup.invokeAll(tasks);
 	}
 
 	@Override
 	public URL findStubUrl(String groupId, String artifactId) {
-		for (StubRunner stubRunner : this.stubRunners) {
+		awaitAsyncStartupIfPending();
+		for (StubRunning stubRunner : this.stubRunners) {
 			try {
 				return stubRunner.findStubUrl(groupId, artifactId);
 			} catch (StubNotFoundException e) {}
@@ -61,7 +164,8 @@ public class BatchStubRunner implements StubRunning {
 
 	@Override
 	public URL findStubUrl(String ivyNotation) {
-		for (StubRunner stubRunner : this.stubRunners) {
+		awaitAsyncStartupIfPending();
+		for (StubRunning stubRunner : this.stubRunners) {
 			try {
 				return stubRunner.findStubUrl(ivyNotation);
 			} catch (StubNotFoundException e) {}
@@ -69,36 +173,108 @@ public class BatchStubRunner implements StubRunning {
 		throw new StubNotFoundException(ivyNotation);
 	}
 
+	/**
+	 * The merged snapshot is rebuilt only if the running stubs of any of the stub runners
+	 * changed (e.g. a lazily started stub got started) since the previous call
+	 */
 	@Override
 	public RunningStubs findAllRunningStubs() {
-		Collection<RunningStubs> running = new LinkedHashSet<>();
-		for (StubRunner stubRunner : this.stubRunners) {
+		awaitAsyncStartupIfPending();
+		List<RunningStubs> running = new ArrayList<>();
+		for (StubRunning stubRunner : this.stubRunners) {
 			running.add(stubRunner.findAllRunningStubs());
 		}
-		return new RunningStubs(running);
+		MergedSnapshot<RunningStubs, RunningStubs> snapshot = this.runningStubsSnapshot;
+		if (snapshot != null && snapshot.isMergedFrom(running)) {
+			return snapshot.merged;
+		}
+		snapshot = new MergedSnapshot<>(running, new RunningStubs(running));
+		this.runningStubsSnapshot = snapshot;
+		return snapshot.merged;
 	}
 
+	/**
+	 * The merged contracts are cached until the contracts of any of the stub runners
+	 * change. Contracts present in more than one stub runner are compared by identity,
+	 * so that the contracts don't get hashed
+	 */
 	@Override
 	public Map<StubConfiguration, Collection<Contract>> getContracts() {
+		awaitAsyncStartupIfPending();
+		List<Map<StubConfiguration, Collection<Contract>>> parts = new ArrayList<>();
+		for (StubRunning stubRunner : this.stubRunners) {
+			parts.add(stubRunner.getContracts());
+		}
+		MergedSnapshot<Map<StubConfiguration, Collection<Contract>>, Map<StubConfiguration, Collection<Contract>>> snapshot = this.contractsSnapshot;
+		if (snapshot != null && snapshot.isMergedFrom(parts)) {
+			return snapshot.merged;
+		}
+		snapshot = new MergedSnapshot<>(parts, mergeContracts(parts));
+		this.contractsSnapshot = snapshot;
+		return snapshot.merged;
+	}
+
+	/**
+	 * Contracts of the stubs that were started so far. Unlike {@link #getContracts()}
+	 * doesn't start the stubs whose startup is lazy - see {@link #getNotStartedStubs()}
+	 */
+	public Map<StubConfiguration, Collection<Contract>> getContractsOfStartedStubs() {
+		awaitAsyncStartupIfPending();
+		List<Map<StubConfiguration, Collection<Contract>>> parts = new ArrayList<>();
+		for (StubRunning stubRunner : this.stubRunners) {
+			if (!isNotStartedLazyStub(stubRunner)) {
+				parts.add(stubRunner.getContracts());
+			}
+		}
+		return mergeContracts(parts);
+	}
+
+	/**
+	 * @return the stubs with lazy startup that haven't been looked up yet
+	 */
+	public Collection<StubConfiguration> getNotStartedStubs() {
+		List<StubConfiguration> notStarted = new ArrayList<>();
+		for (StubRunning stubRunner : this.stubRunners) {
+			if (isNotStartedLazyStub(stubRunner)) {
+				notStarted.add(((LazyStubRunner) stubRunner).getStubConfiguration());
+			}
+		}
+		return notStarted;
+	}
+
+	private static boolean isNotStartedLazyStub(StubRunning stubRunner) {
+		return stubRunner instanceof LazyStubRunner && !((LazyStubRunner) stubRunner).isStarted();
+	}
+
+	private static Map<StubConfiguration, Collection<Contract>> mergeContracts(
+			List<Map<StubConfiguration, Collection<Contract>>> parts) {
 		Map<StubConfiguration, Collection<Contract>> map = new LinkedHashMap<>();
-		for (StubRunner stubRunner : this.stubRunners) {
-			for (Entry<StubConfiguration, Collection<Contract>> entry : stubRunner
-					.getContracts().entrySet()) {
-				if (map.containsKey(entry.getKey())) {
-					map.get(entry.getKey()).addAll(entry.getValue());
+		for (Map<StubConfiguration, Collection<Contract>> part : parts) {
+			for (Entry<StubConfiguration, Collection<Contract>> entry : part.entrySet()) {
+				Collection<Contract> contracts = map.get(entry.getKey());
+				if (contracts == null) {
+					map.put(entry.getKey(), entry.getValue());
+					continue;
 				}
-				else {
-					map.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+				Set<Contract> merged = Collections.newSetFromMap(new IdentityHashMap<Contract, Boolean>());
+				merged.addAll(contracts);
+				List<Contract> withNewOnes = new ArrayList<>(contracts);
+				for (Contract contract : entry.getValue()) {
+					if (merged.add(contract)) {
+						withNewOnes.add(contract);
+					}
 				}
+				map.put(entry.getKey(), Collections.unmodifiableList(withNewOnes));
 			}
 		}
-		return map;
+		return Collections.unmodifiableMap(map);
 	}
 
 	@Override
 	public boolean trigger(String ivyNotation, String labelName) {
+		awaitAsyncStartupIfPending();
 		boolean success = false;
-		for (StubRunner stubRunner : this.stubRunners) {
+		for (StubRunning stubRunner : this.stubRunners) {
 			if (stubRunner.trigger(ivyNotation, labelName)) {
 				success = true;
 			}
@@ -126,8 +302,9 @@ public class BatchStubRunner implements StubRunning {
 
 	@Override
 	public boolean trigger(String labelName) {
+		awaitAsyncStartupIfPending();
 		boolean success = false;
-		for (StubRunner stubRunner : this.stubRunners) {
+		for (StubRunning stubRunner : this.stubRunners) {
 			if (stubRunner.trigger(labelName)) {
 				success = true;
 			}
@@ -143,8 +320,9 @@ public class BatchStubRunner implements StubRunning {
 
 	@Override
 	public boolean trigger() {
+		awaitAsyncStartupIfPending();
 		boolean success = false;
-		for (StubRunner stubRunner : this.stubRunners) {
+		for (StubRunning stubRunner : this.stubRunners) {
 			if (stubRunner.trigger()) {
 				success = true;
 			}
@@ -154,10 +332,24 @@ public class BatchStubRunner implements StubRunning {
 
 	@Override
 	public Map<String, Collection<String>> labels() {
+		awaitAsyncStartupIfPending();
+		List<Map<String, Collection<String>>> parts = new ArrayList<>();
+		for (StubRunning stubRunner : this.stubRunners) {
+			parts.add(stubRunner.labels());
+		}
+		MergedSnapshot<Map<String, Collection<String>>, Map<String, Collection<String>>> snapshot = this.labelsSnapshot;
+		if (snapshot != null && snapshot.isMergedFrom(parts)) {
+			return snapshot.merged;
+		}
+		snapshot = new MergedSnapshot<>(parts, mergeLabels(parts));
+		this.labelsSnapshot = snapshot;
+		return snapshot.merged;
+	}
+
+	private static Map<String, Collection<String>> mergeLabels(List<Map<String, Collection<String>>> parts) {
 		Map<String, Collection<String>> map = new LinkedHashMap<>();
-		for (StubRunner stubRunner : this.stubRunners) {
-			for (Entry<String, Collection<String>> entry : stubRunner.labels()
-					.entrySet()) {
+		for (Map<String, Collection<String>> part : parts) {
+			for (Entry<String, Collection<String>> entry : part.entrySet()) {
 				if (map.containsKey(entry.getKey())) {
 					map.get(entry.getKey()).addAll(entry.getValue());
 				}
@@ -166,13 +358,51 @@ public class BatchStubRunner implements StubRunning {
 				}
 			}
 		}
-		return map;
+		for (Entry<String, Collection<String>> entry : map.entrySet()) {
+			entry.setValue(Collections.unmodifiableCollection(entry.getValue()));
+		}
+		return Collections.unmodifiableMap(map);
 	}
 
 	@Override
 	public void close() throws IOException {
-		for (StubRunner stubRunner : this.stubRunners) {
+		if (this.asyncStartup != null) {
+			try {
+				awaitAsyncStartup();
+			}
+			catch (RuntimeException e) {
+				// the stubs that did start get closed below
+			}
+		}
+		for (StubRunning stubRunner : this.stubRunners) {
 			stubRunner.close();
 		}
 	}
+
+	/**
+	 * Result of merging the given parts, one per stub runner. The parts are compared by
+	 * identity since the stub runners publish new instances whenever anything changes
+	 */
+	private static class MergedSnapshot<P, M> {
+
+		final List<P> parts;
+		final M merged;
+
+		MergedSnapshot(List<P> parts, M merged) {
+			this.parts = parts;
+			this.merged = merged;
+		}
+
+		boolean isMergedFrom(List<P> parts) {
+			if (this.parts.size() != parts.size()) {
+				return false;
+			}
+			for (int i = 0; i < parts.size(); i++) {
+				if (this.parts.get(i) != parts.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
 }
@@ -47,7 +47,12 @@ public class BatchStubRunnerFactory {
 
 	public BatchStubRunner buildBatchStubRunner() {
 		StubRunnerFactory stubRunnerFactory = new StubRunnerFactory(this.stubRunnerOptions, this.stubDownloader, this.contractVerifierMessaging);
-		return new BatchStubRunner(stubRunnerFactory.createStubsFromServiceConfiguration());
+		if (this.stubRunnerOptions.isLazyStartup()) {
+			return new BatchStubRunner(stubRunnerFactory.createLazyStubsFromServiceConfiguration(),
+					this.stubRunnerOptions.getStartupThreads());
+		}
+		return new BatchStubRunner(stubRunnerFactory.createStubsFromServiceConfiguration(),
+				this.stubRunnerOptions.getStartupThreads());
 	}
 
 }
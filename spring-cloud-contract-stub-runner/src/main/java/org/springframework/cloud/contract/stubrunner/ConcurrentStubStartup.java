@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes stub related tasks (download, unpacking, server startup) on a bounded
+ * pool of threads. Results are returned in the order in which the tasks were passed
+ * and all failures are aggregated into a single exception.
+ *
+ * @since 1.0.3
+ */
+class ConcurrentStubStartup {
+
+	private final int threads;
+
+	ConcurrentStubStartup(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * @return {@code true} if more than one thread should be used for the given number of tasks
+	 */
+	boolean isParallel(int numberOfTasks) {
+		return this.threads > 1 && numberOfTasks > 1;
+	}
+
+	/**
+	 * Executes all tasks and returns their results in the iteration order of the map.
+	 * The keys are used only to describe the failed tasks.
+	 */
+	<T> List<T> invokeAll(Map<String, Callable<T>> tasks) {
+		ExecutorService executorService = Executors.newFixedThreadPool(
+				Math.min(this.threads, tasks.size()), new StubStartupThreadFactory());
+		try {
+			Map<String, Future<T>> futures = new LinkedHashMap<>();
+			for (Map.Entry<String, Callable<T>> entry : tasks.entrySet()) {
+				futures.put(entry.getKey(), executorService.submit(entry.getValue()));
+			}
+			return results(futures);
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private <T> List<T> results(Map<String, Future<T>> futures) {
+		List<T> results = new ArrayList<>();
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+		for (Map.Entry<String, Future<T>> entry : futures.entrySet()) {
+			try {
+				results.add(entry.getValue().get());
+			}
+			catch (ExecutionException e) {
+				failures.put(entry.getKey(), e.getCause());
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the stubs to start", e);
+			}
+		}
+		if (!failures.isEmpty()) {
+			throw aggregatedException(failures);
+		}
+		return results;
+	}
+
+	private IllegalStateException aggregatedException(Map<String, Throwable> failures) {
+		IllegalStateException exception = new IllegalStateException(
+				"Failed to start the following stubs " + failures.keySet(),
+				failures.values().iterator().next());
+		boolean first = true;
+		for (Throwable throwable : failures.values()) {
+			if (!first) {
+				exception.addSuppressed(throwable);
+			}
+			first = false;
+		}
+		return exception;
+	}
+
+	private static class StubStartupThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "stub-runner-startup-" + this.counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.stubrunner.messaging.StubOutputMessage;
+
+/**
+ * Immutable view of the contracts of a single stub with the contracts grouped by their
+ * labels, so that triggering a label doesn't require iterating over all the contracts.
+ * The output messages of the contracts are rendered when the index gets built. A new
+ * index is built whenever the contracts of the stub get replaced.
+ *
+ * @since 1.0.3
+ */
+class ContractIndex {
+
+	final StubConfiguration stubConfiguration;
+	private final Collection<Contract> source;
+	private final Collection<Contract> contracts;
+	private final Map<String, List<Contract>> contractsByLabel;
+	private final Map<StubConfiguration, Collection<Contract>> contractsView;
+	private final Map<String, Collection<String>> labels;
+	private final Map<Contract, StubOutputMessage> outputMessages = new IdentityHashMap<>();
+
+	ContractIndex(StubConfiguration stubConfiguration, Collection<Contract> contracts) {
+		this.stubConfiguration = stubConfiguration;
+		this.source = contracts;
+		this.contracts = Collections.unmodifiableList(new ArrayList<>(contracts));
+		Map<String, List<Contract>> contractsByLabel = new LinkedHashMap<>();
+		List<String> labels = new ArrayList<>();
+		for (Contract contract : this.contracts) {
+			if (contract.getOutputMessage() != null) {
+				this.outputMessages.put(contract, new StubOutputMessage(contract.getOutputMessage()));
+			}
+			String label = contract.getLabel();
+			if (label == null) {
+				continue;
+			}
+			labels.add(label);
+			List<Contract> labelled = contractsByLabel.get(label);
+			if (labelled == null) {
+				labelled = new ArrayList<>();
+				contractsByLabel.put(label, labelled);
+			}
+			labelled.add(contract);
+		}
+		this.contractsByLabel = Collections.unmodifiableMap(contractsByLabel);
+		this.contractsView = Collections.singletonMap(stubConfiguration, this.contracts);
+		this.labels = Collections.singletonMap(stubConfiguration.toColonSeparatedDependencyNotation(),
+				(Collection<String>) Collections.unmodifiableList(labels));
+	}
+
+	/**
+	 * @return {@code true} if the index was built from this very collection of contracts
+	 */
+	boolean isBuiltFrom(Collection<Contract> contracts) {
+		return this.source == contracts;
+	}
+
+	Collection<Contract> getContracts() {
+		return this.contracts;
+	}
+
+	/**
+	 * @return contracts with the given label or an empty list if there are none
+	 */
+	List<Contract> forLabel(String labelName) {
+		List<Contract> contracts = this.contractsByLabel.get(labelName);
+		return contracts != null ? contracts : Collections.<Contract>emptyList();
+	}
+
+	/**
+	 * @return rendered output message of the contract or {@code null} if the contract
+	 * doesn't send any message
+	 */
+	StubOutputMessage outputMessage(Contract contract) {
+		return this.outputMessages.get(contract);
+	}
+
+	/**
+	 * @return the contracts mapped to the stub they belong to
+	 */
+	Map<StubConfiguration, Collection<Contract>> asMap() {
+		return this.contractsView;
+	}
+
+	/**
+	 * @return the labels of the contracts mapped to the colon separated notation of the stub
+	 */
+	Map<String, Collection<String>> labels() {
+		return this.labels;
+	}
+}
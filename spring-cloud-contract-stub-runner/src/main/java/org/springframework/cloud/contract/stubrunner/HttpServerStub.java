@@ -1,5 +1,7 @@
 package org.springframework.cloud.contract.stubrunner;
 
+import java.util.Collection;
+
 /**
  * Describes an HTTP Server Stub
  *
@@ -11,4 +13,25 @@ interface HttpServerStub {
 	boolean isRunning();
 	void start();
 	void stop();
+
+	/**
+	 * @return path under which the stub is reachable on the server. Empty if the
+	 * server hosts only this stub
+	 */
+	String pathPrefix();
+
+	/**
+	 * Registers the stub mappings directly in the running server, without
+	 * going through its HTTP admin API. Mappings that can't be registered
+	 * are logged and skipped.
+	 */
+	void registerMappings(Collection<WiremockMappingDescriptor> mappings);
+
+	/**
+	 * Replaces the previously registered mappings of the changed descriptors with their
+	 * current content (or registers them if they are new) and removes the mappings of
+	 * the removed descriptors. The server keeps running on the same port.
+	 */
+	void updateMappings(Collection<WiremockMappingDescriptor> changed,
+			Collection<WiremockMappingDescriptor> removed);
 }
@@ -0,0 +1,189 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import org.springframework.cloud.contract.spec.Contract;
+
+/**
+ * {@link StubRunning} that downloads the stub JAR and starts the stub server on first
+ * access instead of on startup. Looking up the stub's URL starts only this stub, while
+ * triggering by label or listing the labels and contracts starts it regardless of the
+ * passed notation, since the labels are known only after the JAR got downloaded.
+ *
+ * Concurrent first calls are safe - the stub is downloaded and started exactly once.
+ *
+ * @since 1.0.3
+ */
+class LazyStubRunner implements StubRunning {
+
+	private static final RunningStubs NO_RUNNING_STUBS = new RunningStubs(
+			Collections.<StubConfiguration, Integer>emptyMap());
+
+	private final StubConfiguration stubConfiguration;
+	private final StubRunnerFactory stubRunnerFactory;
+	private final Object monitor = new Object();
+	private volatile StubRunner stubRunner;
+	private volatile boolean resolved;
+
+	LazyStubRunner(StubConfiguration stubConfiguration, StubRunnerFactory stubRunnerFactory) {
+		this.stubConfiguration = stubConfiguration;
+		this.stubRunnerFactory = stubRunnerFactory;
+	}
+
+	@Override
+	public RunningStubs runStubs() {
+		StubRunner stubRunner = resolve();
+		return stubRunner != null ? stubRunner.findAllRunningStubs() : noRunningStubs();
+	}
+
+	@Override
+	public URL findStubUrl(String groupId, String artifactId) {
+		if (!groupIdAndArtifactIdMatch(groupId, artifactId)) {
+			throw new StubNotFoundException(groupId, artifactId);
+		}
+		StubRunner stubRunner = resolve();
+		if (stubRunner == null) {
+			throw new StubNotFoundException(groupId, artifactId);
+		}
+		return stubRunner.findStubUrl(groupId, artifactId);
+	}
+
+	@Override
+	public URL findStubUrl(String ivyNotation) {
+		String[] splitString = ivyNotation.split(":", -1);
+		if (splitString.length > 4) {
+			throw new IllegalArgumentException(
+					"[" + ivyNotation + "] is an invalid notation. Pass [groupId]:artifactId[:version][:classifier].");
+		}
+		boolean matches = splitString.length == 1 ?
+				groupIdAndArtifactIdMatch(null, splitString[0]) :
+				groupIdAndArtifactIdMatch(splitString[0], splitString[1]);
+		if (!matches) {
+			throw new StubNotFoundException(ivyNotation);
+		}
+		StubRunner stubRunner = resolve();
+		if (stubRunner == null) {
+			throw new StubNotFoundException(ivyNotation);
+		}
+		return stubRunner.findStubUrl(ivyNotation);
+	}
+
+	/**
+	 * @return the stubs that have been started so far. Doesn't start the stub.
+	 */
+	@Override
+	public RunningStubs findAllRunningStubs() {
+		StubRunner stubRunner = this.stubRunner;
+		return stubRunner != null ? stubRunner.findAllRunningStubs() : noRunningStubs();
+	}
+
+	@Override
+	public Map<StubConfiguration, Collection<Contract>> getContracts() {
+		StubRunner stubRunner = resolve();
+		return stubRunner != null ? stubRunner.getContracts() :
+				Collections.<StubConfiguration, Collection<Contract>>emptyMap();
+	}
+
+	@Override
+	public boolean trigger(String ivyNotation, String labelName) {
+		if (!this.stubConfiguration.groupIdAndArtifactMatches(ivyNotation)) {
+			return false;
+		}
+		StubRunner stubRunner = resolve();
+		return stubRunner != null && stubRunner.trigger(ivyNotation, labelName);
+	}
+
+	@Override
+	public boolean trigger(String labelName) {
+		StubRunner stubRunner = resolve();
+		return stubRunner != null && stubRunner.trigger(labelName);
+	}
+
+	@Override
+	public boolean trigger() {
+		StubRunner stubRunner = resolve();
+		return stubRunner != null && stubRunner.trigger();
+	}
+
+	@Override
+	public Map<String, Collection<String>> labels() {
+		StubRunner stubRunner = resolve();
+		return stubRunner != null ? stubRunner.labels() :
+				Collections.<String, Collection<String>>emptyMap();
+	}
+
+	boolean isStarted() {
+		return this.stubRunner != null;
+	}
+
+	StubConfiguration getStubConfiguration() {
+		return this.stubConfiguration;
+	}
+
+	/**
+	 * Downloads the stub and starts its server unless it was done before.
+	 *
+	 * @return the started stub runner or {@code null} if no stub JAR was found
+	 */
+	private StubRunner resolve() {
+		if (this.resolved) {
+			return this.stubRunner;
+		}
+		synchronized (this.monitor) {
+			if (!this.resolved) {
+				StubRunner stubRunner = this.stubRunnerFactory
+						.downloadAndCreateStubRunner(this.stubConfiguration);
+				if (stubRunner != null) {
+					stubRunner.runStubs();
+				}
+				this.stubRunner = stubRunner;
+				this.resolved = true;
+			}
+			return this.stubRunner;
+		}
+	}
+
+	private boolean groupIdAndArtifactIdMatch(String groupId, String artifactId) {
+		return this.stubConfiguration.artifactId.equals(artifactId)
+				&& (groupId == null || this.stubConfiguration.groupId.equals(groupId));
+	}
+
+	private RunningStubs noRunningStubs() {
+		return NO_RUNNING_STUBS;
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this.monitor) {
+			if (this.stubRunner != null) {
+				this.stubRunner.close();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "LazyStubRunner [" + this.stubConfiguration + "]";
+	}
+}
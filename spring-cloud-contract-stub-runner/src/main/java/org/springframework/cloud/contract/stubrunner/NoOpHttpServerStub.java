@@ -1,5 +1,7 @@
 package org.springframework.cloud.contract.stubrunner;
 
+import java.util.Collection;
+
 /**
  * @author Marcin Grzejszczak
  */
@@ -23,4 +25,20 @@ class NoOpHttpServerStub implements HttpServerStub {
 	public void stop() {
 
 	}
+
+	@Override
+	public String pathPrefix() {
+		return "";
+	}
+
+	@Override
+	public void registerMappings(Collection<WiremockMappingDescriptor> mappings) {
+
+	}
+
+	@Override
+	public void updateMappings(Collection<WiremockMappingDescriptor> changed,
+			Collection<WiremockMappingDescriptor> removed) {
+
+	}
 }
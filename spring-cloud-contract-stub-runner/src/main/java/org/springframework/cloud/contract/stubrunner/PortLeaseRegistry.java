@@ -0,0 +1,161 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of leased ports shared by all the JVMs on the same host. A port is leased
+ * by acquiring an exclusive lock on the {@code <port>.lock} file in the registry
+ * folder. The lease is held until it's released or the JVM exits, so a port
+ * picked by one process won't be picked by another one before the server binds to it.
+ *
+ * If the registry folder can't be used the leases are only tracked within this JVM.
+ *
+ * @since 1.0.3
+ */
+class PortLeaseRegistry {
+
+	private static final Logger log = LoggerFactory.getLogger(PortLeaseRegistry.class);
+
+	private static final String LOCK_FILE_EXTENSION = ".lock";
+
+	private static final PortLeaseRegistry SHARED = new PortLeaseRegistry(
+			new File(System.getProperty("java.io.tmpdir"), "spring-cloud-contract-port-leases"));
+
+	private final File directory;
+	private final Map<Integer, Lease> leases = new HashMap<>();
+
+	PortLeaseRegistry(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * @return registry in the temporary folder used by default by all the stub runners
+	 */
+	static PortLeaseRegistry shared() {
+		return SHARED;
+	}
+
+	/**
+	 * @return {@code true} if the port got leased, {@code false} if it's already leased by
+	 * this or another JVM
+	 */
+	synchronized boolean tryLease(int port) {
+		if (this.leases.containsKey(port)) {
+			return false;
+		}
+		Lease lease = acquire(port);
+		if (lease == null) {
+			return false;
+		}
+		this.leases.put(port, lease);
+		return true;
+	}
+
+	synchronized boolean isLeased(int port) {
+		return this.leases.containsKey(port);
+	}
+
+	/**
+	 * Releases the lease if this registry holds one for the given port. The lock file
+	 * is left in place since removing it would allow two processes to lock different
+	 * files for the same port.
+	 */
+	synchronized void release(int port) {
+		Lease lease = this.leases.remove(port);
+		if (lease != null) {
+			lease.release();
+		}
+	}
+
+	private Lease acquire(int port) {
+		FileChannel channel = null;
+		try {
+			Files.createDirectories(this.directory.toPath());
+			channel = FileChannel.open(new File(this.directory, port + LOCK_FILE_EXTENSION).toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			FileLock lock = channel.tryLock();
+			if (lock == null) {
+				closeQuietly(channel);
+				return null;
+			}
+			return new Lease(channel, lock);
+		}
+		catch (OverlappingFileLockException e) {
+			closeQuietly(channel);
+			return null;
+		}
+		catch (IOException e) {
+			closeQuietly(channel);
+			log.warn("Cannot lease port [" + port + "] in [" + this.directory
+					+ "]. The port will be reserved only within this JVM", e);
+			return new Lease(null, null);
+		}
+	}
+
+	private static void closeQuietly(FileChannel channel) {
+		if (channel == null) {
+			return;
+		}
+		try {
+			channel.close();
+		}
+		catch (IOException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to close the lock file", e);
+			}
+		}
+	}
+
+	private static class Lease {
+		private final FileChannel channel;
+		private final FileLock lock;
+
+		Lease(FileChannel channel, FileLock lock) {
+			this.channel = channel;
+			this.lock = lock;
+		}
+
+		void release() {
+			try {
+				if (this.lock != null) {
+					this.lock.release();
+				}
+			}
+			catch (IOException e) {
+				if (log.isDebugEnabled()) {
+					log.debug("Failed to release the lock", e);
+				}
+			}
+			finally {
+				closeQuietly(this.channel);
+			}
+		}
+	}
+}
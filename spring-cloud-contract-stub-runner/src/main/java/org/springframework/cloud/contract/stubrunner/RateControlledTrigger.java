@@ -0,0 +1,231 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Triggers messaging labels repeatedly at a target rate, so that the messaging stubs can
+ * be used to put load on a consumer. The messages are sent via the {@link StubTrigger},
+ * i.e. through the same {@code MessageVerifier} as the single triggers.
+ *
+ * Each trigger is scheduled at a fixed point in time counted from the start, so a
+ * trigger that got delayed doesn't shift the following ones and the rate stays steady.
+ * At most {@link TriggerLoad#getConcurrency()} triggers are executed at the same time -
+ * if the messages can't be sent as fast as the rate requires, the next trigger waits
+ * until one of the messages is sent and the delay is reported as the schedule lag.
+ *
+ * @since 1.0.3
+ */
+public class RateControlledTrigger {
+
+	private static final Logger log = LoggerFactory.getLogger(RateControlledTrigger.class);
+
+	private final StubTrigger stubTrigger;
+
+	public RateControlledTrigger(StubTrigger stubTrigger) {
+		this.stubTrigger = stubTrigger;
+	}
+
+	/**
+	 * Triggers the labels as described by the load and blocks until all the messages got
+	 * sent.
+	 *
+	 * @return throughput and latencies of the triggers
+	 * @throws IllegalArgumentException if the load is invalid or any of the labels is
+	 * missing
+	 */
+	public TriggerLoadReport trigger(TriggerLoad load) {
+		load.validate();
+		assertLabelsPresent(load.getLabels());
+		ExecutorService executorService = Executors.newFixedThreadPool(load.getConcurrency(),
+				new TriggerThreadFactory());
+		try {
+			return new Run(load, executorService).execute();
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private void assertLabelsPresent(List<String> labels) {
+		Collection<Collection<String>> allLabels = this.stubTrigger.labels().values();
+		for (String label : labels) {
+			boolean present = false;
+			for (Collection<String> stubLabels : allLabels) {
+				if (stubLabels.contains(label)) {
+					present = true;
+					break;
+				}
+			}
+			if (!present) {
+				throw new IllegalArgumentException("No label with name [" + label + "] was found. "
+						+ "Here you have the list of dependencies and their labels [" + this.stubTrigger.labels() + "]");
+			}
+		}
+	}
+
+	/**
+	 * State of a single execution of a {@link TriggerLoad}
+	 */
+	private class Run {
+
+		private final TriggerLoad load;
+		private final ExecutorService executorService;
+		private final Semaphore inFlight;
+		private final AtomicLong triggered = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final LatencyRecorder latencies;
+		private long maxScheduleLagNanos;
+
+		Run(TriggerLoad load, ExecutorService executorService) {
+			this.load = load;
+			this.executorService = executorService;
+			this.inFlight = new Semaphore(load.getConcurrency());
+			this.latencies = new LatencyRecorder(load.getCount());
+		}
+
+		TriggerLoadReport execute() {
+			long periodNanos = this.load.getRate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / this.load.getRate()) : 0;
+			long durationNanos = TimeUnit.MILLISECONDS.toNanos(this.load.getDurationMillis());
+			long start = System.nanoTime();
+			try {
+				for (long i = 0; this.load.getCount() <= 0 || i < this.load.getCount(); i++) {
+					long scheduled = start + i * periodNanos;
+					if (durationNanos > 0 && Math.max(scheduled, System.nanoTime()) - start >= durationNanos) {
+						break;
+					}
+					waitUntil(scheduled);
+					this.inFlight.acquire();
+					this.maxScheduleLagNanos = Math.max(this.maxScheduleLagNanos, System.nanoTime() - scheduled);
+					submit(label(i));
+				}
+				this.inFlight.acquire(this.load.getConcurrency());
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while triggering the labels " + this.load.getLabels(), e);
+			}
+			TriggerLoadReport report = new TriggerLoadReport(this.triggered.get(), this.failed.get(),
+					System.nanoTime() - start, this.load.getRate(), this.latencies.toArray(),
+					Math.max(this.maxScheduleLagNanos, 0));
+			log.info("Triggered the labels " + this.load.getLabels() + " with the result " + report);
+			return report;
+		}
+
+		private String label(long index) {
+			List<String> labels = this.load.getLabels();
+			return labels.get((int) (index % labels.size()));
+		}
+
+		private void waitUntil(long nanoTime) throws InterruptedException {
+			long remaining;
+			while ((remaining = nanoTime - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		}
+
+		private void submit(final String label) {
+			this.executorService.execute(new Runnable() {
+				@Override
+				public void run() {
+					long sendStart = System.nanoTime();
+					try {
+						if (send(label)) {
+							Run.this.triggered.incrementAndGet();
+						}
+						else {
+							Run.this.failed.incrementAndGet();
+						}
+					}
+					catch (RuntimeException e) {
+						Run.this.failed.incrementAndGet();
+						if (log.isDebugEnabled()) {
+							log.debug("Failed to trigger the label [" + label + "]", e);
+						}
+					}
+					finally {
+						Run.this.latencies.record(System.nanoTime() - sendStart);
+						Run.this.inFlight.release();
+					}
+				}
+			});
+		}
+
+		private boolean send(String label) {
+			if (this.load.getIvyNotation() != null) {
+				return RateControlledTrigger.this.stubTrigger.trigger(this.load.getIvyNotation(), label);
+			}
+			return RateControlledTrigger.this.stubTrigger.trigger(label);
+		}
+	}
+
+	/**
+	 * Collects the latencies of all the triggers
+	 */
+	private static class LatencyRecorder {
+
+		private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
+		private long[] latencies;
+		private int size;
+
+		LatencyRecorder(long expectedCount) {
+			this.latencies = new long[(int) Math.max(16, Math.min(expectedCount, MAX_INITIAL_CAPACITY))];
+		}
+
+		synchronized void record(long latencyNanos) {
+			if (this.size == this.latencies.length) {
+				this.latencies = Arrays.copyOf(this.latencies, this.size * 2);
+			}
+			this.latencies[this.size++] = latencyNanos;
+		}
+
+		synchronized long[] toArray() {
+			return Arrays.copyOf(this.latencies, this.size);
+		}
+	}
+
+	private static class TriggerThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "stubrunner-trigger-" + this.counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -17,6 +17,8 @@
 package org.springframework.cloud.contract.stubrunner;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -25,27 +27,86 @@ import java.util.Set;
 
 /**
  * Structure representing executed stubs. Contains the configuration of each stub together
- * with the port on which its executed.
+ * with the port on which its executed. If stubs share a server then each of them is
+ * reachable under its own path prefix.
+ *
+ * Instances are immutable. Every notation under which a stub can be found (artifactId,
+ * groupId:artifactId, groupId:artifactId:version and
+ * groupId:artifactId:version:classifier, with the version and classifier wildcards) is
+ * indexed on creation, so lookups don't depend on the number of stubs.
  */
 public class RunningStubs {
 
-	final private Map<StubConfiguration, Integer> namesAndPorts = new LinkedHashMap<>();
+	private static final String DEFAULT_VERSION = "+";
+
+	final private Map<StubConfiguration, Integer> namesAndPorts;
+	final private Map<StubConfiguration, String> pathPrefixes;
+	final private Map<String, Entry<StubConfiguration, Integer>> entriesByNotation;
 
 	public RunningStubs(Map<StubConfiguration, Integer> map) {
-		this.namesAndPorts.putAll(map);
+		this(map, Collections.<StubConfiguration, String>emptyMap());
+	}
+
+	public RunningStubs(Map<StubConfiguration, Integer> map, Map<StubConfiguration, String> pathPrefixes) {
+		this.namesAndPorts = Collections.unmodifiableMap(new LinkedHashMap<>(map));
+		this.pathPrefixes = Collections.unmodifiableMap(new LinkedHashMap<>(pathPrefixes));
+		this.entriesByNotation = index(this.namesAndPorts);
 	}
 
 	public RunningStubs(Collection<RunningStubs> runningStubs) {
+		Map<StubConfiguration, Integer> namesAndPorts = new LinkedHashMap<>();
+		Map<StubConfiguration, String> pathPrefixes = new LinkedHashMap<>();
 		for (RunningStubs it : runningStubs) {
-			this.namesAndPorts.putAll(it.namesAndPorts);
+			namesAndPorts.putAll(it.namesAndPorts);
+			pathPrefixes.putAll(it.pathPrefixes);
+		}
+		this.namesAndPorts = Collections.unmodifiableMap(namesAndPorts);
+		this.pathPrefixes = Collections.unmodifiableMap(pathPrefixes);
+		this.entriesByNotation = index(this.namesAndPorts);
+	}
+
+	/**
+	 * Maps each notation matched by {@link StubConfiguration#matchesIvyNotation(String)}
+	 * to the first stub that it matches
+	 */
+	private static Map<String, Entry<StubConfiguration, Integer>> index(
+			Map<StubConfiguration, Integer> namesAndPorts) {
+		Map<String, Entry<StubConfiguration, Integer>> index = new HashMap<>();
+		for (Entry<StubConfiguration, Integer> entry : namesAndPorts.entrySet()) {
+			StubConfiguration stub = entry.getKey();
+			if (stub.artifactId == null || stub.groupId == null) {
+				continue;
+			}
+			String groupAndArtifact = stub.groupId + ":" + stub.artifactId;
+			putIfAbsent(index, stub.artifactId, entry);
+			putIfAbsent(index, groupAndArtifact, entry);
+			for (String version : new String[] { stub.version, DEFAULT_VERSION }) {
+				String gav = groupAndArtifact + ":" + version;
+				putIfAbsent(index, gav, entry);
+				putIfAbsent(index, gav + ":" + stub.classifier, entry);
+				putIfAbsent(index, gav + ":" + StubConfiguration.DEFAULT_CLASSIFIER, entry);
+			}
+		}
+		return index;
+	}
+
+	private static void putIfAbsent(Map<String, Entry<StubConfiguration, Integer>> index,
+			String notation, Entry<StubConfiguration, Integer> entry) {
+		if (!index.containsKey(notation)) {
+			index.put(notation, entry);
 		}
 	}
 
 	public Integer getPort(String artifactId) {
-		return getEntry(artifactId) == null ? null : getEntry(artifactId).getValue();
+		Map.Entry<StubConfiguration, Integer> entry = getEntry(artifactId);
+		return entry == null ? null : entry.getValue();
 	}
 
 	public Map.Entry<StubConfiguration, Integer> getEntry(String artifactId) {
+		Map.Entry<StubConfiguration, Integer> entry = this.entriesByNotation.get(artifactId);
+		if (entry != null || artifactId == null || !hasMoreThanFourParts(artifactId)) {
+			return entry;
+		}
 		for (Entry<StubConfiguration, Integer> it : this.namesAndPorts.entrySet()) {
 			if (it.getKey().matchesIvyNotation(artifactId)) {
 				return it;
@@ -54,13 +115,35 @@ public class RunningStubs {
 		return null;
 	}
 
-	public Integer getPort(String groupId, String artifactId) {
-		for (Entry<StubConfiguration, Integer> it : this.namesAndPorts.entrySet()) {
-			if (it.getKey().matchesIvyNotation(groupId + ":" + artifactId)) {
-				return it.getValue();
+	private static boolean hasMoreThanFourParts(String notation) {
+		int colons = 0;
+		for (int i = 0; i < notation.length(); i++) {
+			if (notation.charAt(i) == ':' && ++colons > 3) {
+				return true;
 			}
 		}
-		return null;
+		return false;
+	}
+
+	public Integer getPort(String groupId, String artifactId) {
+		return getPort(groupId + ":" + artifactId);
+	}
+
+	/**
+	 * @return path under which the stub is reachable on its server. Empty if the stub
+	 * has a server of its own, {@code null} if the stub is not present
+	 */
+	public String getPathPrefix(String artifactId) {
+		Map.Entry<StubConfiguration, Integer> entry = getEntry(artifactId);
+		if (entry == null) {
+			return null;
+		}
+		String pathPrefix = this.pathPrefixes.get(entry.getKey());
+		return pathPrefix == null ? "" : pathPrefix;
+	}
+
+	public Map<StubConfiguration, String> getPathPrefixes() {
+		return this.pathPrefixes;
 	}
 
 	public boolean isPresent(String artifactId) {
@@ -103,7 +186,8 @@ public class RunningStubs {
 
 	@Override
 	public String toString() {
-		return "RunningStubs [namesAndPorts=" + this.namesAndPorts + "]";
+		return "RunningStubs [namesAndPorts=" + this.namesAndPorts
+				+ (this.pathPrefixes.isEmpty() ? "" : ", pathPrefixes=" + this.pathPrefixes) + "]";
 	}
 
 	@Override
@@ -112,6 +196,7 @@ public class RunningStubs {
 		int result = 1;
 		result = prime * result
 				+ ((this.namesAndPorts == null) ? 0 : this.namesAndPorts.hashCode());
+		result = prime * result + this.pathPrefixes.hashCode();
 		return result;
 	}
 
@@ -130,7 +215,7 @@ public class RunningStubs {
 		}
 		else if (!this.namesAndPorts.equals(other.namesAndPorts))
 			return false;
-		return true;
+		return this.pathPrefixes.equals(other.pathPrefixes);
 	}
 
 }
\ No newline at end of file
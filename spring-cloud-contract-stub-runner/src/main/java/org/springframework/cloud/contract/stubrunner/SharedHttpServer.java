@@ -0,0 +1,172 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.contract.stubrunner.AvailablePortScanner.PortCallback;
+
+import com.github.tomakehurst.wiremock.common.FatalStartupException;
+
+/**
+ * A single WireMock server shared by all the stubs of a batch. Each stub gets its own
+ * {@link #partition(StubConfiguration) partition} - its mappings are registered under
+ * the {@code /artifactId} path (or {@code /groupId/artifactId} if the artifact id is
+ * not unique among the stubs), so the number of servers and threads doesn't grow with
+ * the number of stubs.
+ *
+ * The server is started together with the first partition and stopped once all the
+ * partitions got stopped.
+ *
+ * @since 1.0.3
+ */
+class SharedHttpServer {
+
+	private static final Logger log = LoggerFactory.getLogger(SharedHttpServer.class);
+
+	private final StubRunnerOptions stubRunnerOptions;
+	private final Set<String> ambiguousArtifactIds = new HashSet<>();
+	private WireMockHttpServerStub server;
+	private AvailablePortScanner portScanner;
+	private int users;
+
+	SharedHttpServer(StubRunnerOptions stubRunnerOptions) {
+		this.stubRunnerOptions = stubRunnerOptions;
+		Set<String> artifactIds = new HashSet<>();
+		for (StubConfiguration stubConfiguration : stubRunnerOptions.getDependencies()) {
+			if (!artifactIds.add(stubConfiguration.getArtifactId())) {
+				this.ambiguousArtifactIds.add(stubConfiguration.getArtifactId());
+			}
+		}
+	}
+
+	HttpServerStub partition(StubConfiguration stubConfiguration) {
+		String pathPrefix = this.ambiguousArtifactIds.contains(stubConfiguration.getArtifactId()) ?
+				"/" + stubConfiguration.getGroupId() + "/" + stubConfiguration.getArtifactId() :
+				"/" + stubConfiguration.getArtifactId();
+		return new Partition(pathPrefix);
+	}
+
+	private synchronized WireMockHttpServerStub acquire() {
+		if (this.server == null) {
+			this.server = startServer();
+			log.info("Started the shared stub server on port " + this.server.port());
+		}
+		this.users++;
+		return this.server;
+	}
+
+	private synchronized void release() {
+		if (this.server == null || --this.users > 0) {
+			return;
+		}
+		int port = this.server.port();
+		this.server.stop();
+		this.server = null;
+		if (this.portScanner != null) {
+			this.portScanner.releasePort(port);
+			this.portScanner = null;
+		}
+		log.info("Stopped the shared stub server on port " + port);
+	}
+
+	private synchronized boolean isRunning() {
+		return this.server != null && this.server.isRunning();
+	}
+
+	private WireMockHttpServerStub startServer() {
+		if (this.stubRunnerOptions.isDynamicPorts()) {
+			WireMockHttpServerStub server = new WireMockHttpServerStub(0, this.stubRunnerOptions);
+			server.start();
+			return server;
+		}
+		AvailablePortScanner portScanner = new AvailablePortScanner(
+				this.stubRunnerOptions.getMinPortValue(), this.stubRunnerOptions.getMaxPortValue());
+		WireMockHttpServerStub server = portScanner
+				.tryToExecuteWithFreePort(new PortCallback<WireMockHttpServerStub>() {
+					@Override
+					public WireMockHttpServerStub call(int port) throws IOException {
+						WireMockHttpServerStub server = new WireMockHttpServerStub(port, SharedHttpServer.this.stubRunnerOptions);
+						try {
+							server.start();
+						}
+						catch (FatalStartupException e) {
+							throw new IOException("Failed to start the shared stub server on port [" + port + "]", e);
+						}
+						return server;
+					}
+				});
+		this.portScanner = portScanner;
+		return server;
+	}
+
+	private class Partition implements HttpServerStub {
+
+		private final String pathPrefix;
+		private volatile WireMockHttpServerStub server;
+
+		Partition(String pathPrefix) {
+			this.pathPrefix = pathPrefix;
+		}
+
+		@Override
+		public int port() {
+			return this.server.port();
+		}
+
+		@Override
+		public boolean isRunning() {
+			return this.server != null && SharedHttpServer.this.isRunning();
+		}
+
+		@Override
+		public void start() {
+			if (this.server == null) {
+				this.server = acquire();
+			}
+		}
+
+		@Override
+		public void stop() {
+			if (this.server != null) {
+				this.server = null;
+				release();
+			}
+		}
+
+		@Override
+		public String pathPrefix() {
+			return this.pathPrefix;
+		}
+
+		@Override
+		public void registerMappings(Collection<WiremockMappingDescriptor> mappings) {
+			this.server.registerMappings(mappings, this.pathPrefix);
+		}
+
+		@Override
+		public void updateMappings(Collection<WiremockMappingDescriptor> changed,
+				Collection<WiremockMappingDescriptor> removed) {
+			this.server.updateMappings(changed, removed, this.pathPrefix);
+		}
+	}
+}
@@ -23,7 +23,8 @@ public interface StubDownloader {
 
 	/**
 	 * Returns a mapping of updated StubConfiguration (it will contain the resolved version) and the location of the downloaded JAR.
-	 * If there was no artifact this method will return {@code null}.
+	 * The location can be either the folder with the unpacked JAR or the JAR itself - the stubs will then be read
+	 * directly from the archive. If there was no artifact this method will return {@code null}.
 	 */
 	Map.Entry<StubConfiguration,File> downloadAndUnpackStubJar(StubRunnerOptions options, StubConfiguration stubConfiguration);
 }
\ No newline at end of file
@@ -18,16 +18,20 @@ package org.springframework.cloud.contract.stubrunner;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,24 +39,34 @@ import org.springframework.cloud.contract.spec.Contract;
 import org.springframework.cloud.contract.verifier.util.ContractVerifierDslConverter;
 
 /**
- * Wraps the folder with WireMock mappings.
+ * Wraps the folder with WireMock mappings. The folder can also be a JAR with stubs - in
+ * that case the mappings and contracts are read directly from the archive without
+ * unpacking it.
  */
 class StubRepository {
 
 	private static final Logger log = LoggerFactory.getLogger(StubRepository.class);
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
 
 	private final File path;
-	final List<WiremockMappingDescriptor> projectDescriptors;
-	final Collection<Contract> contracts;
+	private final Map<String, WiremockMappingDescriptor> descriptorsByLocation = new LinkedHashMap<>();
+	private final Map<String, Contract> contractsByLocation = new LinkedHashMap<>();
+	volatile List<WiremockMappingDescriptor> projectDescriptors;
+	volatile Collection<Contract> contracts;
 
 	public StubRepository(File repository) {
-		if (!repository.isDirectory()) {
+		if (!repository.isDirectory() && !isArchive(repository)) {
 			throw new IllegalArgumentException(
 					"Missing descriptor repository under path [" + repository + "]");
 		}
 		this.path = repository;
-		this.projectDescriptors = projectDescriptors();
-		this.contracts = contracts();
+		if (repository.isDirectory()) {
+			collectDescriptors(repository.toPath(), false);
+		}
+		else {
+			collectDescriptorsFromArchive(repository);
+		}
+		publish();
 	}
 
 	public File getPath() {
@@ -68,88 +82,149 @@ class StubRepository {
 	}
 
 	/**
-	 * Returns a list of {@link Contract}
+	 * @return {@code true} if the stubs are read from a folder, so they can be watched
+	 * for changes
 	 */
-	private Collection<Contract> contracts() {
-		List<Contract> contracts = new ArrayList<>();
-		contracts.addAll(contractDescriptors());
-		return contracts;
+	boolean isDirectory() {
+		return this.path.isDirectory();
 	}
 
 	/**
-	 * Returns the list of WireMock JSON files wrapped in
-	 * {@link WiremockMappingDescriptor}
+	 * Reads the changed files of a folder repository again. Files that no longer exist
+	 * are removed from the repository. A contract that fails to compile is logged and
+	 * its previous version is kept. The lists returned by
+	 * {@link #getProjectDescriptors()} and {@link #getContracts()} are replaced, not
+	 * modified, so readers never see a partial update.
+	 *
+	 * @param changedFiles - files that were created, modified or deleted
+	 * @return the mappings that were added or modified and the ones that were removed
 	 */
-	private List<WiremockMappingDescriptor> projectDescriptors() {
-		List<WiremockMappingDescriptor> mappingDescriptors = new ArrayList<>();
-		mappingDescriptors.addAll(contextDescriptors());
-		return mappingDescriptors;
+	synchronized Update update(Collection<Path> changedFiles) {
+		List<WiremockMappingDescriptor> changed = new ArrayList<>();
+		List<WiremockMappingDescriptor> removed = new ArrayList<>();
+		for (Path file : changedFiles) {
+			String location = file.toFile().getPath();
+			boolean exists = Files.isRegularFile(file);
+			if (isMappingDescriptor(file)) {
+				if (exists) {
+					WiremockMappingDescriptor descriptor = new WiremockMappingDescriptor(file.toFile());
+					this.descriptorsByLocation.put(location, descriptor);
+					changed.add(descriptor);
+				}
+				else if (this.descriptorsByLocation.containsKey(location)) {
+					removed.add(this.descriptorsByLocation.remove(location));
+				}
+			}
+			else if (isContractDescriptor(file)) {
+				if (!exists) {
+					this.contractsByLocation.remove(location);
+					continue;
+				}
+				try {
+					this.contractsByLocation.put(location, ContractVerifierDslConverter.convert(file.toFile()));
+				}
+				catch (Exception e) {
+					log.warn("Failed to read the changed contract [" + file + "]. The previous version will be used", e);
+				}
+			}
+		}
+		publish();
+		return new Update(changed, removed);
 	}
 
-	private List<WiremockMappingDescriptor> contextDescriptors() {
-		return this.path.exists() ? collectMappingDescriptors(this.path)
-				: Collections.<WiremockMappingDescriptor>emptyList();
+	private void publish() {
+		this.projectDescriptors = Collections.unmodifiableList(
+				new ArrayList<>(this.descriptorsByLocation.values()));
+		this.contracts = Collections.unmodifiableList(
+				new ArrayList<>(this.contractsByLocation.values()));
 	}
 
-	private List<WiremockMappingDescriptor> collectMappingDescriptors(
-			File descriptorsDirectory) {
-		final List<WiremockMappingDescriptor> mappingDescriptors = new ArrayList<>();
-		try {
-			Files.walkFileTree(Paths.get(descriptorsDirectory.toURI()),
-					new SimpleFileVisitor<Path>() {
-						@Override
-						public FileVisitResult visitFile(Path path,
-								BasicFileAttributes attrs) throws IOException {
-							File file = path.toFile();
-							if (isMappingDescriptor(file)) {
-								mappingDescriptors
-										.add(new WiremockMappingDescriptor(file));
-							}
-							return super.visitFile(path, attrs);
-						}
-					});
+	private void collectDescriptorsFromArchive(File archive) {
+		if (log.isDebugEnabled()) {
+			log.debug("Reading stubs directly from the archive [" + archive + "]");
+		}
+		try (FileSystem fileSystem = FileSystems.newFileSystem(archive.toPath(), (ClassLoader) null)) {
+			for (Path root : fileSystem.getRootDirectories()) {
+				collectDescriptors(root, true);
+			}
 		}
 		catch (IOException e) {
-			log.warn("Exception occurred while trying to parse file", e);
+			throw new IllegalStateException("Cannot read the stubs archive [" + archive + "]", e);
 		}
-		return mappingDescriptors;
 	}
 
-	private Collection<Contract> contractDescriptors() {
-		return (this.path.exists() ? collectContractDescriptors(this.path)
-				: Collections.<Contract>emptySet());
-	}
-
-	private Collection<Contract> collectContractDescriptors(File descriptorsDirectory) {
-		final List<Contract> mappingDescriptors = new ArrayList<>();
+	/**
+	 * Collects the WireMock JSON files wrapped in {@link WiremockMappingDescriptor}
+	 * and the {@link Contract}s in a single walk over the tree. If the tree comes
+	 * from an archive the contents of the mappings are read eagerly since the archive
+	 * gets closed afterwards.
+	 */
+	private void collectDescriptors(final Path root, final boolean archive) {
 		try {
-			Files.walkFileTree(Paths.get(descriptorsDirectory.toURI()),
-					new SimpleFileVisitor<Path>() {
-						@Override
-						public FileVisitResult visitFile(Path path,
-								BasicFileAttributes attrs) throws IOException {
-							File file = path.toFile();
-							if (isContractDescriptor(file)) {
-								mappingDescriptors
-								.add(ContractVerifierDslConverter.convert(file));
-							}
-							return super.visitFile(path, attrs);
-						}
-					});
+			Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path path, BasicFileAttributes attrs)
+						throws IOException {
+					if (attrs.isRegularFile() && isMappingDescriptor(path)) {
+						WiremockMappingDescriptor descriptor = archive ?
+								new WiremockMappingDescriptor(location(path), read(path)) :
+								new WiremockMappingDescriptor(path.toFile());
+						StubRepository.this.descriptorsByLocation.put(descriptor.location, descriptor);
+					}
+					else if (attrs.isRegularFile() && isContractDescriptor(path)) {
+						StubRepository.this.contractsByLocation.put(
+								archive ? location(path) : path.toFile().getPath(),
+								archive ? ContractVerifierDslConverter.convert(read(path)) :
+										ContractVerifierDslConverter.convert(path.toFile()));
+					}
+					return super.visitFile(path, attrs);
+				}
+			});
 		}
 		catch (IOException e) {
 			log.warn("Exception occurred while trying to parse file", e);
 		}
-		return mappingDescriptors;
 	}
 
-	private static boolean isMappingDescriptor(File file) {
-		return file.isFile() && file.getName().endsWith(".json");
+	private String location(Path path) {
+		return this.path.getPath() + "!" + path.toString();
 	}
 
-	private static boolean isContractDescriptor(File file) {
+	private static String read(Path path) throws IOException {
+		return new String(Files.readAllBytes(path), UTF_8);
+	}
+
+	private static boolean isArchive(File file) {
+		String name = file.getName();
+		return file.isFile() && (name.endsWith(".jar") || name.endsWith(".zip"));
+	}
+
+	static boolean isMappingDescriptor(Path path) {
+		return path.getFileName().toString().endsWith(".json");
+	}
+
+	static boolean isContractDescriptor(Path path) {
 		// TODO: Consider script injections implications...
-		return file.isFile() && file.getName().endsWith(".groovy");
+		return path.getFileName().toString().endsWith(".groovy");
+	}
+
+	/**
+	 * Mappings affected by an {@link StubRepository#update(Collection) update}
+	 */
+	static class Update {
+
+		final Collection<WiremockMappingDescriptor> changed;
+		final Collection<WiremockMappingDescriptor> removed;
+
+		Update(Collection<WiremockMappingDescriptor> changed,
+				Collection<WiremockMappingDescriptor> removed) {
+			this.changed = changed;
+			this.removed = removed;
+		}
+
+		boolean isEmpty() {
+			return this.changed.isEmpty() && this.removed.isEmpty();
+		}
 	}
 
 }
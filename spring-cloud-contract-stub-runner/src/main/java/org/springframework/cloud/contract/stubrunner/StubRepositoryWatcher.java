@@ -0,0 +1,177 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches a folder with stubs (including its sub folders) for created, modified and
+ * deleted mappings and contracts. Events that arrive in a short period of time are
+ * passed to the listener as a single batch of changed files, so that saving many files
+ * at once results in a single reload.
+ *
+ * @since 1.0.3
+ */
+class StubRepositoryWatcher implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(StubRepositoryWatcher.class);
+	private static final long QUIET_PERIOD_MILLIS = 200;
+
+	private final Path root;
+	private final Listener listener;
+	private final WatchService watchService;
+	private final Thread thread;
+
+	StubRepositoryWatcher(Path root, Listener listener) throws IOException {
+		this.root = root;
+		this.listener = listener;
+		this.watchService = root.getFileSystem().newWatchService();
+		registerAll(root, null);
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				watch();
+			}
+		}, "stubrunner-watcher");
+		this.thread.setDaemon(true);
+	}
+
+	StubRepositoryWatcher start() {
+		this.thread.start();
+		log.info("Watching [" + this.root + "] for changes of the stubs");
+		return this;
+	}
+
+	private void watch() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				Set<Path> changedFiles = new LinkedHashSet<>();
+				WatchKey key = this.watchService.take();
+				while (key != null) {
+					collect(key, changedFiles);
+					key = this.watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				if (!changedFiles.isEmpty()) {
+					notifyListener(changedFiles);
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ClosedWatchServiceException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Stopped watching [" + this.root + "]");
+			}
+		}
+	}
+
+	private void collect(WatchKey key, Set<Path> changedFiles) {
+		Path directory = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				log.warn("Some changes of the stubs under [" + this.root + "] were lost. "
+						+ "Save the changed files again to reload them");
+				continue;
+			}
+			Path path = directory.resolve((Path) event.context());
+			if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+				registerAll(path, changedFiles);
+			}
+			else if (isStub(path)) {
+				changedFiles.add(path);
+			}
+		}
+		key.reset();
+	}
+
+	private void notifyListener(Collection<Path> changedFiles) {
+		try {
+			this.listener.onChange(changedFiles);
+		}
+		catch (Exception e) {
+			log.warn("Failed to reload the changed stubs " + changedFiles, e);
+		}
+	}
+
+	/**
+	 * Registers the folder and its sub folders. Stubs found in folders created after the
+	 * watch started are added to the changed files, since no event was emitted for them.
+	 */
+	private void registerAll(Path start, final Set<Path> changedFiles) {
+		try {
+			Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+						throws IOException {
+					dir.register(StubRepositoryWatcher.this.watchService,
+							StandardWatchEventKinds.ENTRY_CREATE,
+							StandardWatchEventKinds.ENTRY_MODIFY,
+							StandardWatchEventKinds.ENTRY_DELETE);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					if (changedFiles != null && isStub(file)) {
+						changedFiles.add(file);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException e) {
+			log.warn("Failed to watch [" + start + "] for changes of the stubs", e);
+		}
+	}
+
+	private static boolean isStub(Path path) {
+		return StubRepository.isMappingDescriptor(path) || StubRepository.isContractDescriptor(path);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.thread.interrupt();
+		this.watchService.close();
+	}
+
+	/**
+	 * Callback invoked with the files that were created, modified or deleted
+	 */
+	interface Listener {
+		void onChange(Collection<Path> changedFiles) throws Exception;
+	}
+}
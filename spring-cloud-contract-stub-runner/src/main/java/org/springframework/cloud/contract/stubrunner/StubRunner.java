@@ -53,12 +53,19 @@ public class StubRunner implements StubRunning {
 	public StubRunner(StubRunnerOptions stubRunnerOptions, String repositoryPath,
 			StubConfiguration stubsConfiguration,
 			MessageVerifier<?> contractVerifierMessaging) {
+		this(stubRunnerOptions, repositoryPath, stubsConfiguration, contractVerifierMessaging, null);
+	}
+
+	StubRunner(StubRunnerOptions stubRunnerOptions, String repositoryPath,
+			StubConfiguration stubsConfiguration,
+			MessageVerifier<?> contractVerifierMessaging,
+			SharedHttpServer sharedServer) {
 		this.stubsConfiguration = stubsConfiguration;
 		this.stubRunnerOptions = stubRunnerOptions;
 		this.stubRepository = new StubRepository(new File(repositoryPath));
 		AvailablePortScanner portScanner = new AvailablePortScanner(
 				stubRunnerOptions.getMinPortValue(), stubRunnerOptions.getMaxPortValue());
-		this.localStubRunner = new StubRunnerExecutor(portScanner, contractVerifierMessaging);
+		this.localStubRunner = new StubRunnerExecutor(portScanner, contractVerifierMessaging, sharedServer);
 	}
 
 	@Override
@@ -128,4 +135,9 @@ public class StubRunner implements StubRunning {
 			this.localStubRunner.shutdown();
 		}
 	}
+
+	@Override
+	public String toString() {
+		return "StubRunner [" + this.stubsConfiguration + "]";
+	}
 }
\ No newline at end of file
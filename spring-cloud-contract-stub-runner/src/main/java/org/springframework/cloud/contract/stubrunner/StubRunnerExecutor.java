@@ -16,27 +16,23 @@
 
 package org.springframework.cloud.contract.stubrunner;
 
+import java.io.IOException;
 import java.net.URL;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.contract.spec.Contract;
-import org.springframework.cloud.contract.spec.internal.DslProperty;
-import org.springframework.cloud.contract.spec.internal.Headers;
-import org.springframework.cloud.contract.spec.internal.OutputMessage;
 import org.springframework.cloud.contract.stubrunner.AvailablePortScanner.PortCallback;
+import org.springframework.cloud.contract.stubrunner.messaging.StubOutputMessage;
 import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
 import org.springframework.cloud.contract.verifier.messaging.noop.NoOpStubMessages;
-import org.springframework.cloud.contract.verifier.util.BodyExtractor;
 
-import groovy.json.JsonOutput;
+import com.github.tomakehurst.wiremock.common.FatalStartupException;
 
 /**
  * Runs stubs for a particular {@link StubServer}
@@ -46,11 +42,26 @@ class StubRunnerExecutor implements StubFinder {
 	private static final Logger log = LoggerFactory.getLogger(StubRunnerExecutor.class);
 	private final AvailablePortScanner portScanner;
 	private final MessageVerifier<?> contractVerifierMessaging;
+	private final SharedHttpServer sharedServer;
 	private StubServer stubServer;
+	private boolean portLeased;
+	private StubRepositoryWatcher watcher;
+	private volatile RunningStubs runningStubs;
+	private volatile ContractIndex contractIndex;
 
 	public StubRunnerExecutor(AvailablePortScanner portScanner, MessageVerifier<?> contractVerifierMessaging) {
+		this(portScanner, contractVerifierMessaging, null);
+	}
+
+	/**
+	 * @param sharedServer - server hosting the stubs without an explicit port. If
+	 * {@code null} each stub gets its own server
+	 */
+	StubRunnerExecutor(AvailablePortScanner portScanner, MessageVerifier<?> contractVerifierMessaging,
+			SharedHttpServer sharedServer) {
 		this.portScanner = portScanner;
 		this.contractVerifierMessaging = contractVerifierMessaging;
+		this.sharedServer = sharedServer;
 	}
 
 	protected StubRunnerExecutor(AvailablePortScanner portScanner) {
@@ -67,19 +78,70 @@ class StubRunnerExecutor implements StubFinder {
 			return runningStubs();
 		}
 		startStubServers(stubRunnerOptions, stubConfiguration, repository);
+		if (stubRunnerOptions.isWatchStubs()) {
+			watchForChanges(repository);
+		}
 		RunningStubs runningCollaborators = runningStubs();
+		this.runningStubs = runningCollaborators;
 		log.info("All stubs are now running " + runningCollaborators.toString());
 		return runningCollaborators;
 	}
 
+	/**
+	 * The port of a started stub doesn't change, so the snapshot taken after the start
+	 * is reused until the stub gets stopped
+	 */
 	private RunningStubs runningStubs() {
-		return new RunningStubs(
-				Collections.singletonMap(this.stubServer.getStubConfiguration(), this.stubServer.getPort()));
+		RunningStubs runningStubs = this.runningStubs;
+		if (runningStubs != null) {
+			return runningStubs;
+		}
+		StubConfiguration stubConfiguration = this.stubServer.getStubConfiguration();
+		String pathPrefix = this.stubServer.getPathPrefix();
+		return new RunningStubs(Collections.singletonMap(stubConfiguration, this.stubServer.getPort()),
+				pathPrefix.isEmpty() ? Collections.<StubConfiguration, String>emptyMap() :
+						Collections.singletonMap(stubConfiguration, pathPrefix));
+	}
+
+	private void watchForChanges(final StubRepository repository) {
+		if (!repository.isDirectory()) {
+			log.warn("The stubs of [" + this.stubServer.getStubConfiguration() + "] are read from the archive ["
+					+ repository.getPath() + "] and won't be watched for changes. Unpack the stubs to reload them");
+			return;
+		}
+		try {
+			this.watcher = new StubRepositoryWatcher(repository.getPath().toPath(),
+					new StubRepositoryWatcher.Listener() {
+						@Override
+						public void onChange(Collection<Path> changedFiles) {
+							StubRepository.Update update = repository.update(changedFiles);
+							StubRunnerExecutor.this.stubServer.update(repository, update);
+						}
+					}).start();
+		}
+		catch (IOException e) {
+			log.warn("Failed to watch [" + repository.getPath() + "] for changes of the stubs", e);
+		}
 	}
 
 	public void shutdown() {
+		if (this.watcher != null) {
+			try {
+				this.watcher.close();
+			}
+			catch (IOException e) {
+				log.warn("Failed to stop watching the stubs for changes", e);
+			}
+			this.watcher = null;
+		}
+		this.runningStubs = null;
+		this.contractIndex = null;
 		if (this.stubServer != null) {
+			int port = this.stubServer.getPort();
 			this.stubServer.stop();
+			if (this.portLeased) {
+				this.portScanner.releasePort(port);
+			}
 		}
 	}
 
@@ -134,88 +196,75 @@ class StubRunnerExecutor implements StubFinder {
 
 	@Override
 	public RunningStubs findAllRunningStubs() {
-		return new RunningStubs(Collections.singletonMap(this.stubServer.stubConfiguration, this.stubServer.getPort()));
+		return runningStubs();
 	}
 
 	@Override
 	public Map<StubConfiguration, Collection<Contract>> getContracts() {
-		return Collections.singletonMap(this.stubServer.stubConfiguration, this.stubServer.getContracts());
+		return contractIndex().asMap();
+	}
+
+	/**
+	 * The index is built once per set of contracts and rebuilt only if the contracts got
+	 * reloaded
+	 */
+	private ContractIndex contractIndex() {
+		Collection<Contract> contracts = this.stubServer.getContracts();
+		ContractIndex index = this.contractIndex;
+		if (index != null && index.isBuiltFrom(contracts)) {
+			return index;
+		}
+		index = new ContractIndex(this.stubServer.getStubConfiguration(), contracts);
+		this.contractIndex = index;
+		return index;
 	}
 
 	@Override
 	public boolean trigger(String ivyNotationAsString, String labelName) {
-		Collection<Contract> matchingContracts = new ArrayList<>();
-		for (Entry<StubConfiguration, Collection<Contract>> it : getContracts().entrySet()) {
-			if (it.getKey().groupIdAndArtifactMatches(ivyNotationAsString)) {
-				matchingContracts.addAll(it.getValue());
-			}
+		ContractIndex index = contractIndex();
+		if (!index.stubConfiguration.groupIdAndArtifactMatches(ivyNotationAsString)) {
+			return false;
 		}
-		return triggerForDsls(matchingContracts, labelName);
+		return triggerForDsls(index, index.forLabel(labelName));
 	}
 
 	@Override
 	public boolean trigger(String labelName) {
-		Collection<Contract> matchingContracts = new ArrayList<>();
-		for (Collection<Contract> it : getContracts().values()) {
-			matchingContracts.addAll(it);
-		}
-		return triggerForDsls(matchingContracts, labelName);
+		ContractIndex index = contractIndex();
+		return triggerForDsls(index, index.forLabel(labelName));
 	}
 
-	private boolean triggerForDsls(Collection<Contract> dsls, String labelName) {
-		Collection<Contract> matchingDsls = new ArrayList<>();
-		for (Contract contract : dsls) {
-			if (labelName.equals(contract.getLabel())) {
-				matchingDsls.add(contract);
-			}
-		}
+	private boolean triggerForDsls(ContractIndex index, Collection<Contract> matchingDsls) {
 		if (matchingDsls.isEmpty()) {
 			return false;
 		}
 		for (Contract contract : matchingDsls) {
-			sendMessageIfApplicable(contract);
+			sendMessageIfApplicable(index, contract);
 		}
 		return true;
 	}
 
 	@Override
 	public boolean trigger() {
-		Collection<Contract> matchingContracts = new ArrayList<>();
-		for (Collection<Contract> it : getContracts().values()) {
-			matchingContracts.addAll(it);
-		}
-		for (Contract contract : matchingContracts) {
-			sendMessageIfApplicable(contract);
+		ContractIndex index = contractIndex();
+		for (Contract contract : index.getContracts()) {
+			sendMessageIfApplicable(index, contract);
 		}
 		return true;
 	}
 
 	@Override
 	public Map<String, Collection<String>> labels() {
-		Map<String, Collection<String>> labels = new LinkedHashMap<>();
-		for (Entry<StubConfiguration, Collection<Contract>> it : getContracts().entrySet()) {
-			Collection<String> values = new ArrayList<>();
-			for (Contract contract : it.getValue()) {
-				if (contract.getLabel() != null) {
-					values.add(contract.getLabel());
-				}
-			}
-			labels.put(it.getKey().toColonSeparatedDependencyNotation(), values);
-		}
-		return labels;
+		return contractIndex().labels();
 	}
 
-	private void sendMessageIfApplicable(Contract groovyDsl) {
-		OutputMessage outputMessage = groovyDsl.getOutputMessage();
+	private void sendMessageIfApplicable(ContractIndex index, Contract groovyDsl) {
+		StubOutputMessage outputMessage = index.outputMessage(groovyDsl);
 		if (outputMessage == null) {
 			return;
 		}
-		DslProperty<?> body = outputMessage.getBody();
-		Headers headers = outputMessage.getHeaders();
-		this.contractVerifierMessaging.send(
-				JsonOutput
-						.toJson(BodyExtractor.extractClientValueFromBody(body == null ? null : body.getClientValue())),
-				headers == null ? null : headers.asStubSideMap(), outputMessage.getSentTo().getClientValue());
+		this.contractVerifierMessaging.send(outputMessage.getJson(), outputMessage.getHeaders(),
+				outputMessage.getSentTo());
 	}
 
 	private URL returnStubUrlIfMatches(boolean condition) {
@@ -238,19 +287,35 @@ class StubRunnerExecutor implements StubFinder {
 			log.warn("There are no contracts in the published JAR. This is an unusual situation "
 					+ "that's why will start the server - maybe you know what you're doing...");
 		}
+		StubServer stubServer;
 		if (port != null && port >= 0) {
-			this.stubServer = new StubServer(stubConfiguration, mappings, contracts, new WireMockHttpServerStub(port));
+			stubServer = new StubServer(stubConfiguration, mappings, contracts, new WireMockHttpServerStub(port, stubRunnerOptions))
+					.startHttpServer();
+		}
+		else if (this.sharedServer != null) {
+			stubServer = new StubServer(stubConfiguration, mappings, contracts,
+					this.sharedServer.partition(stubConfiguration)).startHttpServer();
+		}
+		else if (stubRunnerOptions.isDynamicPorts()) {
+			stubServer = new StubServer(stubConfiguration, mappings, contracts, new WireMockHttpServerStub(0, stubRunnerOptions))
+					.startHttpServer();
 		}
 		else {
-			this.stubServer = this.portScanner.tryToExecuteWithFreePort(new PortCallback<StubServer>() {
+			stubServer = this.portScanner.tryToExecuteWithFreePort(new PortCallback<StubServer>() {
 				@Override
-				public StubServer call(int availablePort) {
-					return new StubServer(stubConfiguration, mappings, contracts,
-							new WireMockHttpServerStub(availablePort));
+				public StubServer call(int availablePort) throws IOException {
+					try {
+						return new StubServer(stubConfiguration, mappings, contracts,
+								new WireMockHttpServerStub(availablePort, stubRunnerOptions)).startHttpServer();
+					}
+					catch (FatalStartupException e) {
+						throw new IOException("Failed to start the stub server on port [" + availablePort + "]", e);
+					}
 				}
 			});
+			this.portLeased = true;
 		}
-		this.stubServer = this.stubServer.start();
+		this.stubServer = stubServer.registerStubMappings();
 	}
 
 	private boolean hasRequest(Collection<Contract> contracts) {
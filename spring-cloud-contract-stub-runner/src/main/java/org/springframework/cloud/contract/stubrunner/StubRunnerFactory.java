@@ -20,7 +20,9 @@ import java.io.File;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,6 +39,7 @@ class StubRunnerFactory {
 	private final StubRunnerOptions stubRunnerOptions;
 	private final StubDownloader stubDownloader;
 	private final MessageVerifier<?> contractVerifierMessaging;
+	private final SharedHttpServer sharedServer;
 
 	public StubRunnerFactory(StubRunnerOptions stubRunnerOptions,
 			StubDownloader stubDownloader,
@@ -44,6 +47,8 @@ class StubRunnerFactory {
 		this.stubRunnerOptions = stubRunnerOptions;
 		this.stubDownloader = stubDownloader;
 		this.contractVerifierMessaging = contractVerifierMessaging;
+		this.sharedServer = stubRunnerOptions.isSharedServer() ?
+				new SharedHttpServer(stubRunnerOptions) : null;
 	}
 
 	public Collection<StubRunner> createStubsFromServiceConfiguration() {
@@ -54,21 +59,68 @@ class StubRunnerFactory {
 			log.warn("No stubs to download have been passed. Most likely you have forgotten to pass "
 					+ "them either via annotation or a property");
 		}
+		ConcurrentStubStartup startup = new ConcurrentStubStartup(this.stubRunnerOptions.getStartupThreads());
+		if (startup.isParallel(this.stubRunnerOptions.getDependencies().size())) {
+			return createStubsInParallel(startup);
+		}
 		Collection<StubRunner> result = new ArrayList<>();
 		for (StubConfiguration stubsConfiguration : this.stubRunnerOptions.getDependencies()) {
-			Map.Entry<StubConfiguration, File> entry = this.stubDownloader
-					.downloadAndUnpackStubJar(this.stubRunnerOptions, stubsConfiguration);
-			if (log.isDebugEnabled()) {
-				log.debug("For stub configuration [" + stubsConfiguration + "] the downloaded entry is [" + entry + "]");
-			}
-			if (entry != null) {
-				result.add(createStubRunner(entry.getKey(), entry.getValue()));
+			StubRunner stubRunner = downloadAndCreateStubRunner(stubsConfiguration);
+			if (stubRunner != null) {
+				result.add(stubRunner);
 			}
+		}
+		return result;
+	}
 
+	/**
+	 * Returns a stub runner for each configured dependency. Nothing gets downloaded or
+	 * started until the stub is accessed.
+	 *
+	 * @see LazyStubRunner
+	 */
+	public Collection<LazyStubRunner> createLazyStubsFromServiceConfiguration() {
+		Collection<LazyStubRunner> result = new ArrayList<>();
+		for (StubConfiguration stubsConfiguration : this.stubRunnerOptions.getDependencies()) {
+			result.add(new LazyStubRunner(stubsConfiguration, this));
 		}
 		return result;
 	}
 
+	private Collection<StubRunner> createStubsInParallel(ConcurrentStubStartup startup) {
+		if (log.isDebugEnabled()) {
+			log.debug("Will download stubs using [" + this.stubRunnerOptions.getStartupThreads() + "] threads");
+		}
+		Map<String, Callable<StubRunner>> tasks = new LinkedHashMap<>();
+		for (final StubConfiguration stubsConfiguration : this.stubRunnerOptions.getDependencies()) {
+			tasks.put(stubsConfiguration.toColonSeparatedDependencyNotation(), new Callable<StubRunner>() {
+				@Override
+				public StubRunner call() throws Exception {
+					return downloadAndCreateStubRunner(stubsConfiguration);
+				}
+			});
+		}
+		Collection<StubRunner> result = new ArrayList<>();
+		for (StubRunner stubRunner : startup.invokeAll(tasks)) {
+			if (stubRunner != null) {
+				result.add(stubRunner);
+			}
+		}
+		return result;
+	}
+
+	StubRunner downloadAndCreateStubRunner(StubConfiguration stubsConfiguration) {
+		Map.Entry<StubConfiguration, File> entry = this.stubDownloader
+				.downloadAndUnpackStubJar(this.stubRunnerOptions, stubsConfiguration);
+		if (log.isDebugEnabled()) {
+			log.debug("For stub configuration [" + stubsConfiguration + "] the downloaded entry is [" + entry + "]");
+		}
+		if (entry == null) {
+			return null;
+		}
+		return createStubRunner(entry.getKey(), entry.getValue());
+	}
+
 	private StubRunner createStubRunner(StubConfiguration stubsConfiguration,
 			File unzipedStubDir) {
 		if (unzipedStubDir == null) {
@@ -80,7 +132,7 @@ class StubRunnerFactory {
 	private StubRunner createStubRunner(File unzippedStubsDir,
 			StubConfiguration stubsConfiguration, StubRunnerOptions stubRunnerOptions) {
 		return new StubRunner(stubRunnerOptions, unzippedStubsDir.getPath(),
-				stubsConfiguration, this.contractVerifierMessaging);
+				stubsConfiguration, this.contractVerifierMessaging, this.sharedServer);
 	}
 
 }
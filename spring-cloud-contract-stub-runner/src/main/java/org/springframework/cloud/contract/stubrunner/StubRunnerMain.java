@@ -55,19 +55,63 @@ public class StubRunnerMain {
 					.acceptsAll(Arrays.asList("r", "root"),"Location of a Jar containing server where you keep your stubs (e.g. http://nexus.net/content/repositories/repository)")
 					.withRequiredArg();
 
+			ArgumentAcceptingOptionSpec<Integer> startupThreadsOpt = parser
+					.acceptsAll(Arrays.asList("st", "startupThreads"),
+							"Number of threads used to download and start the stubs. Defaults to 1")
+					.withRequiredArg().ofType(Integer.class).defaultsTo(1);
+
+			ArgumentAcceptingOptionSpec<String> stubsCacheDirectoryOpt = parser
+					.acceptsAll(Arrays.asList("cd", "stubsCacheDirectory"),
+							"Directory in which the unpacked stub JARs are cached between runs. By default stubs are unpacked to a temporary folder")
+					.withRequiredArg().defaultsTo("");
+
+			ArgumentAcceptingOptionSpec<Integer> containerThreadsOpt = parser
+					.acceptsAll(Arrays.asList("ct", "containerThreads"),
+							"Max number of threads of each stub server's thread pool. Defaults to the WireMock default")
+					.withRequiredArg().ofType(Integer.class).defaultsTo(0);
+
+			ArgumentAcceptingOptionSpec<Integer> acceptorsOpt = parser
+					.acceptsAll(Arrays.asList("ac", "acceptors"),
+							"Number of acceptor threads of each stub server. Defaults to the WireMock default")
+					.withRequiredArg().ofType(Integer.class).defaultsTo(0);
+
+			ArgumentAcceptingOptionSpec<Integer> acceptQueueSizeOpt = parser
+					.acceptsAll(Arrays.asList("aq", "acceptQueueSize"),
+							"Size of the queue of connections waiting to be accepted by each stub server. Defaults to the WireMock default")
+					.withRequiredArg().ofType(Integer.class).defaultsTo(0);
+
 			parser.acceptsAll(Arrays.asList("wo", "workOffline"),
 					"Switch to work offline. Defaults to 'false'");
+			parser.acceptsAll(Arrays.asList("ss", "sharedServer"),
+					"Switch to host all the stubs on a single server, each under the /artifactId path. Defaults to 'false'");
+			parser.acceptsAll(Arrays.asList("dp", "dynamicPorts"),
+					"Switch to bind the stubs to free ports picked by the operating system instead of scanning the port range. Defaults to 'false'");
+			parser.acceptsAll(Arrays.asList("ws", "watchStubs"),
+					"Switch to reload changed mappings and contracts of the unpacked stubs without restarting the servers. Defaults to 'false'");
 			OptionSet options = parser.parse(args);
 			String stubs = options.valueOf(stubsOpt);
 			boolean workOffline = options.has("wo");
+			boolean dynamicPorts = options.has("dp");
+			boolean sharedServer = options.has("ss");
+			boolean watchStubs = options.has("ws");
 			Integer minPortValue = options.valueOf(minPortValueOpt);
 			Integer maxPortValue = options.valueOf(maxPortValueOpt);
 			String stubRepositoryRoot= options.valueOf(rootOpt);
 			String stubsSuffix = options.valueOf(classifierOpt);
+			Integer startupThreads = options.valueOf(startupThreadsOpt);
+			String stubsCacheDirectory = options.valueOf(stubsCacheDirectoryOpt);
 			StubRunnerOptions stubRunnerOptions = new StubRunnerOptionsBuilder()
 					.withMinMaxPort(minPortValue, maxPortValue)
 					.withStubRepositoryRoot(stubRepositoryRoot)
 					.withWorkOffline(workOffline).withStubsClassifier(stubsSuffix)
+					.withStartupThreads(startupThreads)
+					.withStubsCacheDirectory(stubsCacheDirectory)
+					.withDynamicPorts(dynamicPorts)
+					.withSharedServer(sharedServer)
+					.withContainerThreads(options.valueOf(containerThreadsOpt))
+					.withAcceptors(options.valueOf(acceptorsOpt))
+					.withAcceptQueueSize(options.valueOf(acceptQueueSizeOpt))
+					.withWatchStubs(watchStubs)
 					.withStubs(stubs).build();
 			this.arguments = new Arguments(stubRunnerOptions);
 		}
@@ -60,9 +60,102 @@ public class StubRunnerOptions {
 	 */
 	final Map<StubConfiguration, Integer> stubIdsToPortMapping;
 
+	/**
+	 * number of threads used to download and start the stubs. Stubs are processed
+	 * one by one if the value is lower than 2
+	 */
+	final int startupThreads;
+
+	/**
+	 * directory in which the unpacked stub JARs are cached between runs. If empty the stubs
+	 * are unpacked to a temporary folder each time
+	 */
+	final String stubsCacheDirectory;
+
+	/**
+	 * max size in megabytes of the unpacked stubs cache. Least recently used entries
+	 * are removed when the size gets exceeded
+	 */
+	final long stubsCacheMaxSizeMb;
+
+	/**
+	 * if false then the stub mappings and contracts are read directly from the stub JAR
+	 * instead of unpacking it to a folder first
+	 */
+	final boolean unpackStubs;
+
+	/**
+	 * if true then the stubs without an explicit port bind to a port picked by the
+	 * operating system instead of scanning the min / max port range
+	 */
+	final boolean dynamicPorts;
+
+	/**
+	 * if true then all the stubs without an explicit port are hosted by a single HTTP
+	 * server, each of them under its own path prefix
+	 */
+	final boolean sharedServer;
+
+	/**
+	 * max number of threads of each stub server's Jetty thread pool. WireMock's default
+	 * is used if not positive
+	 */
+	final int containerThreads;
+
+	/**
+	 * number of Jetty acceptor threads of each stub server. WireMock's default is used
+	 * if not positive
+	 */
+	final int acceptors;
+
+	/**
+	 * size of the queue of connections waiting to be accepted by each stub server.
+	 * WireMock's default is used if not positive
+	 */
+	final int acceptQueueSize;
+
+	/**
+	 * if true then the stub JARs are downloaded and the stub servers are started when
+	 * a stub is looked up for the first time instead of when the stub runner starts
+	 */
+	final boolean lazyStartup;
+
+	/**
+	 * if true then the stubs are downloaded and started in a background thread. Looking
+	 * up a stub waits until all the stubs got started
+	 */
+	final boolean asyncStartup;
+
+	/**
+	 * if true then the folder with the unpacked stubs is watched and changed mappings
+	 * and contracts are reloaded in the running stub servers
+	 */
+	final boolean watchStubs;
+
 	public StubRunnerOptions(Integer minPortValue, Integer maxPortValue, String stubRepositoryRoot, boolean workOffline,
 			String stubsClassifier, Collection<StubConfiguration> dependencies,
 			Map<StubConfiguration, Integer> stubIdsToPortMapping) {
+		this(minPortValue, maxPortValue, stubRepositoryRoot, workOffline, stubsClassifier, dependencies,
+				stubIdsToPortMapping, 1, "", 1024, true, false, false, 0, 0, 0, false, false, false);
+	}
+
+	/**
+	 * Use {@link StubRunnerOptionsBuilder} to set the options added since 1.0.3
+	 */
+	StubRunnerOptions(Integer minPortValue, Integer maxPortValue, String stubRepositoryRoot, boolean workOffline,
+			String stubsClassifier, Collection<StubConfiguration> dependencies,
+			Map<StubConfiguration, Integer> stubIdsToPortMapping, int startupThreads,
+			String stubsCacheDirectory,
+			long stubsCacheMaxSizeMb,
+			boolean unpackStubs,
+			boolean dynamicPorts,
+			boolean sharedServer,
+			int containerThreads,
+			int acceptors,
+			int acceptQueueSize,
+			boolean lazyStartup,
+			boolean asyncStartup,
+			boolean watchStubs) {
 		this.minPortValue = minPortValue;
 		this.maxPortValue = maxPortValue;
 		this.stubRepositoryRoot = stubRepositoryRoot;
@@ -70,6 +163,18 @@ public class StubRunnerOptions {
 		this.stubsClassifier = stubsClassifier;
 		this.dependencies = dependencies;
 		this.stubIdsToPortMapping = stubIdsToPortMapping;
+		this.startupThreads = startupThreads;
+		this.stubsCacheDirectory = stubsCacheDirectory;
+		this.stubsCacheMaxSizeMb = stubsCacheMaxSizeMb;
+		this.unpackStubs = unpackStubs;
+		this.dynamicPorts = dynamicPorts;
+		this.sharedServer = sharedServer;
+		this.containerThreads = containerThreads;
+		this.acceptors = acceptors;
+		this.acceptQueueSize = acceptQueueSize;
+		this.lazyStartup = lazyStartup;
+		this.asyncStartup = asyncStartup;
+		this.watchStubs = watchStubs;
 	}
 
 	/**
@@ -108,12 +213,71 @@ public class StubRunnerOptions {
 		return this.stubIdsToPortMapping;
 	}
 
+	public int getStartupThreads() {
+		return this.startupThreads;
+	}
+
+	public String getStubsCacheDirectory() {
+		return this.stubsCacheDirectory;
+	}
+
+	public long getStubsCacheMaxSizeMb() {
+		return this.stubsCacheMaxSizeMb;
+	}
+
+	public boolean isUnpackStubs() {
+		return this.unpackStubs;
+	}
+
+	public boolean isDynamicPorts() {
+		return this.dynamicPorts;
+	}
+
+	public boolean isSharedServer() {
+		return this.sharedServer;
+	}
+
+	public int getContainerThreads() {
+		return this.containerThreads;
+	}
+
+	public int getAcceptors() {
+		return this.acceptors;
+	}
+
+	public int getAcceptQueueSize() {
+		return this.acceptQueueSize;
+	}
+
+	public boolean isLazyStartup() {
+		return this.lazyStartup;
+	}
+
+	public boolean isAsyncStartup() {
+		return this.asyncStartup;
+	}
+
+	public boolean isWatchStubs() {
+		return this.watchStubs;
+	}
+
 	@Override
 	public String toString() {
 		return "StubRunnerOptions [minPortValue=" + this.minPortValue + ", maxPortValue=" + this.maxPortValue
 				+ ", stubRepositoryRoot=" + this.stubRepositoryRoot + ", workOffline=" + this.workOffline
 				+ ", stubsClassifier=" + this.stubsClassifier + ", dependencies=" + this.dependencies
-				+ ", stubIdsToPortMapping=" + this.stubIdsToPortMapping + "]";
+				+ ", stubIdsToPortMapping=" + this.stubIdsToPortMapping + ", startupThreads=" + this.startupThreads
+				+ ", stubsCacheDirectory=" + this.stubsCacheDirectory
+				+ ", stubsCacheMaxSizeMb=" + this.stubsCacheMaxSizeMb
+				+ ", unpackStubs=" + this.unpackStubs
+				+ ", dynamicPorts=" + this.dynamicPorts
+				+ ", sharedServer=" + this.sharedServer
+				+ ", containerThreads=" + this.containerThreads
+				+ ", acceptors=" + this.acceptors
+				+ ", acceptQueueSize=" + this.acceptQueueSize
+				+ ", lazyStartup=" + this.lazyStartup
+				+ ", asyncStartup=" + this.asyncStartup
+				+ ", watchStubs=" + this.watchStubs + "]";
 	}
 
 }
@@ -37,6 +37,18 @@ public class StubRunnerOptionsBuilder {
 	private String stubRepositoryRoot;
 	private boolean workOffline = false;
 	private String stubsClassifier = "stubs";
+	private int startupThreads = 1;
+	private String stubsCacheDirectory = "";
+	private long stubsCacheMaxSizeMb = 1024;
+	private boolean unpackStubs = true;
+	private boolean dynamicPorts = false;
+	private boolean sharedServer = false;
+	private int containerThreads = 0;
+	private int acceptors = 0;
+	private int acceptQueueSize = 0;
+	private boolean lazyStartup = false;
+	private boolean asyncStartup = false;
+	private boolean watchStubs = false;
 
 	public StubRunnerOptionsBuilder() {
 	}
@@ -89,6 +101,66 @@ public class StubRunnerOptionsBuilder {
 		return this;
 	}
 
+	public StubRunnerOptionsBuilder withStartupThreads(int startupThreads) {
+		this.startupThreads = startupThreads;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withStubsCacheDirectory(String stubsCacheDirectory) {
+		this.stubsCacheDirectory = stubsCacheDirectory;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withStubsCacheMaxSizeMb(long stubsCacheMaxSizeMb) {
+		this.stubsCacheMaxSizeMb = stubsCacheMaxSizeMb;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withUnpackStubs(boolean unpackStubs) {
+		this.unpackStubs = unpackStubs;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withDynamicPorts(boolean dynamicPorts) {
+		this.dynamicPorts = dynamicPorts;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withSharedServer(boolean sharedServer) {
+		this.sharedServer = sharedServer;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withContainerThreads(int containerThreads) {
+		this.containerThreads = containerThreads;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withAcceptors(int acceptors) {
+		this.acceptors = acceptors;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withAcceptQueueSize(int acceptQueueSize) {
+		this.acceptQueueSize = acceptQueueSize;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withLazyStartup(boolean lazyStartup) {
+		this.lazyStartup = lazyStartup;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withAsyncStartup(boolean asyncStartup) {
+		this.asyncStartup = asyncStartup;
+		return this;
+	}
+
+	public StubRunnerOptionsBuilder withWatchStubs(boolean watchStubs) {
+		this.watchStubs = watchStubs;
+		return this;
+	}
+
 	public StubRunnerOptionsBuilder withPort(Integer port) {
 		String lastStub = this.stubs.peekLast();
 		addPort(lastStub + DELIMITER + port);
@@ -109,12 +181,36 @@ public class StubRunnerOptionsBuilder {
 		this.stubRepositoryRoot = options.stubRepositoryRoot;
 		this.workOffline = options.workOffline;
 		this.stubsClassifier = options.stubsClassifier;
+		this.startupThreads = options.startupThreads;
+		this.stubsCacheDirectory = options.stubsCacheDirectory;
+		this.stubsCacheMaxSizeMb = options.stubsCacheMaxSizeMb;
+		this.unpackStubs = options.unpackStubs;
+		this.dynamicPorts = options.dynamicPorts;
+		this.sharedServer = options.sharedServer;
+		this.containerThreads = options.containerThreads;
+		this.acceptors = options.acceptors;
+		this.acceptQueueSize = options.acceptQueueSize;
+		this.lazyStartup = options.lazyStartup;
+		this.asyncStartup = options.asyncStartup;
+		this.watchStubs = options.watchStubs;
 		return this;
 	}
 
 	public StubRunnerOptions build() {
 		return new StubRunnerOptions(this.minPortValue, this.maxPortValue, this.stubRepositoryRoot,
-				this.workOffline, this.stubsClassifier, buildDependencies(), this.stubIdsToPortMapping);
+				this.workOffline, this.stubsClassifier, buildDependencies(), this.stubIdsToPortMapping,
+				this.startupThreads,
+				this.stubsCacheDirectory,
+				this.stubsCacheMaxSizeMb,
+				this.unpackStubs,
+				this.dynamicPorts,
+				this.sharedServer,
+				this.containerThreads,
+				this.acceptors,
+				this.acceptQueueSize,
+				this.lazyStartup,
+				this.asyncStartup,
+				this.watchStubs);
 	}
 
 	private Collection<StubConfiguration> buildDependencies() {
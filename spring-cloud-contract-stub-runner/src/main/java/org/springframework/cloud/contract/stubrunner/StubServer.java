@@ -24,16 +24,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.contract.spec.Contract;
 
-import com.github.tomakehurst.wiremock.client.WireMock;
-
 class StubServer {
 
 	private static final Logger log = LoggerFactory.getLogger(StubServer.class);
 
 	private final HttpServerStub httpServerStub;
 	final StubConfiguration stubConfiguration;
-	final Collection<WiremockMappingDescriptor> mappings;
-	final Collection<Contract> contracts;
+	volatile Collection<WiremockMappingDescriptor> mappings;
+	volatile Collection<Contract> contracts;
 
 	StubServer(StubConfiguration stubConfiguration, Collection<WiremockMappingDescriptor> mappings,
 			Collection<Contract> contracts, HttpServerStub httpServerStub) {
@@ -44,10 +42,16 @@ class StubServer {
 	}
 
 	public StubServer start() {
+		return startHttpServer().registerStubMappings();
+	}
+
+	/**
+	 * Starts only the HTTP server without registering any mappings
+	 */
+	StubServer startHttpServer() {
 		this.httpServerStub.start();
 		log.info("Started stub server for project [" + this.stubConfiguration.toColonSeparatedDependencyNotation()
 				+ "] on port " + this.httpServerStub.port());
-		registerStubMappings();
 		return this;
 	}
 
@@ -68,13 +72,20 @@ class StubServer {
 
 	public URL getStubUrl() {
 		try {
-			return new URL("http://localhost:" + getPort());
+			return new URL("http://localhost:" + getPort() + this.httpServerStub.pathPrefix());
 		}
 		catch (MalformedURLException e) {
 			throw new IllegalStateException("Cannot parse URL", e);
 		}
 	}
 
+	/**
+	 * @return path under which the stub is reachable if it's hosted on a shared server
+	 */
+	public String getPathPrefix() {
+		return this.httpServerStub.pathPrefix();
+	}
+
 	public StubConfiguration getStubConfiguration() {
 		return this.stubConfiguration;
 	}
@@ -83,37 +94,23 @@ class StubServer {
 		return this.contracts;
 	}
 
-	private void registerStubMappings() {
-		WireMock wireMock = new WireMock("localhost", this.httpServerStub.port(), "");
-		registerDefaultHealthChecks(wireMock);
-		registerStubs(this.mappings, wireMock);
-	}
-
-	private void registerDefaultHealthChecks(WireMock wireMock) {
-		registerHealthCheck(wireMock, "/ping");
-		registerHealthCheck(wireMock, "/health");
-	}
-
-	private void registerStubs(Collection<WiremockMappingDescriptor> sortedMappings, WireMock wireMock) {
-		for (WiremockMappingDescriptor mappingDescriptor : sortedMappings) {
-			try {
-				wireMock.register(mappingDescriptor.getMapping());
-				if (log.isDebugEnabled()) {
-					log.debug("Registered stub mappings from [" + mappingDescriptor.descriptor + "]");
-				}
-			}
-			catch (Exception e) {
-				log.warn("Failed to register the stub mapping [" + mappingDescriptor + "]", e);
-			}
+	/**
+	 * Swaps the mappings and contracts for their reloaded versions. Only the changed and
+	 * removed mappings get re-registered in the running server
+	 */
+	void update(StubRepository repository, StubRepository.Update update) {
+		this.contracts = repository.getContracts();
+		this.mappings = repository.getProjectDescriptors();
+		if (!update.isEmpty()) {
+			this.httpServerStub.updateMappings(update.changed, update.removed);
 		}
 	}
 
-	private void registerHealthCheck(WireMock wireMock, String url) {
-		registerHealthCheck(wireMock, url, "OK");
-	}
-
-	private void registerHealthCheck(WireMock wireMock, String url, String body) {
-		wireMock.register(
-				WireMock.get(WireMock.urlEqualTo(url)).willReturn(WireMock.aResponse().withBody(body).withStatus(200)));
+	/**
+	 * Registers the health checks and the stub mappings in the already started server
+	 */
+	StubServer registerStubMappings() {
+		this.httpServerStub.registerMappings(this.mappings);
+		return this;
 	}
 }
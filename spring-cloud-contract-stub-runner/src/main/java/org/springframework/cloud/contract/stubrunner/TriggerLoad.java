@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Describes how the messages of the given labels should be triggered by a
+ * {@link RateControlledTrigger} - at what rate, how many times or for how long and with
+ * how many messages being sent at the same time.
+ *
+ * @since 1.0.3
+ */
+public class TriggerLoad {
+
+	/**
+	 * Labels to trigger. The labels are triggered one after another in the given order.
+	 */
+	private List<String> labels = new ArrayList<>();
+
+	/**
+	 * If set, only the labels of the stub with the given {@code groupid:artifactid}
+	 * notation are triggered. You can use only {@code artifactId} too.
+	 */
+	private String ivyNotation;
+
+	/**
+	 * Number of triggers per second. If {@code 0} then the labels are triggered as fast
+	 * as the messages can be sent.
+	 */
+	private double rate;
+
+	/**
+	 * Number of triggers. If {@code 0} then the labels are triggered until
+	 * {@link #durationMillis} elapses.
+	 */
+	private long count;
+
+	/**
+	 * For how long the labels should be triggered. If {@code 0} then the labels are
+	 * triggered {@link #count} times.
+	 */
+	private long durationMillis;
+
+	/**
+	 * Max number of messages being sent at the same time. If all of them are still being
+	 * sent, the next trigger waits until one of them is sent.
+	 */
+	private int concurrency = 1;
+
+	public TriggerLoad() {
+	}
+
+	public TriggerLoad(String... labels) {
+		this.labels = new ArrayList<>(Arrays.asList(labels));
+	}
+
+	public List<String> getLabels() {
+		return this.labels;
+	}
+
+	public void setLabels(List<String> labels) {
+		this.labels = labels;
+	}
+
+	public String getIvyNotation() {
+		return this.ivyNotation;
+	}
+
+	public void setIvyNotation(String ivyNotation) {
+		this.ivyNotation = ivyNotation;
+	}
+
+	public double getRate() {
+		return this.rate;
+	}
+
+	public void setRate(double rate) {
+		this.rate = rate;
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public long getDurationMillis() {
+		return this.durationMillis;
+	}
+
+	public void setDurationMillis(long durationMillis) {
+		this.durationMillis = durationMillis;
+	}
+
+	public int getConcurrency() {
+		return this.concurrency;
+	}
+
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+
+	void validate() {
+		if (this.labels == null || this.labels.isEmpty()) {
+			throw new IllegalArgumentException("At least one label to trigger has to be passed");
+		}
+		if (this.count <= 0 && this.durationMillis <= 0) {
+			throw new IllegalArgumentException("Either the count or the duration of triggering has to be positive");
+		}
+		if (this.rate < 0) {
+			throw new IllegalArgumentException("The rate can't be negative but was [" + this.rate + "]");
+		}
+		if (this.concurrency < 1) {
+			throw new IllegalArgumentException("The concurrency has to be at least 1 but was [" + this.concurrency + "]");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TriggerLoad [labels=" + this.labels + ", ivyNotation=" + this.ivyNotation + ", rate=" + this.rate
+				+ ", count=" + this.count + ", durationMillis=" + this.durationMillis + ", concurrency="
+				+ this.concurrency + "]";
+	}
+}
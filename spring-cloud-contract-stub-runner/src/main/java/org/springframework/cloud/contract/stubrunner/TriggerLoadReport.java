@@ -0,0 +1,132 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of triggering the labels by a {@link RateControlledTrigger}. The latencies are
+ * the times it took to send the messages of a single trigger. The schedule lag is how
+ * much later than planned a trigger was sent, e.g. because the messages couldn't be
+ * sent as fast as the target rate required.
+ *
+ * @since 1.0.3
+ */
+public class TriggerLoadReport {
+
+	private final long triggered;
+	private final long failed;
+	private final long elapsedMillis;
+	private final double targetRate;
+	private final double achievedRate;
+	private final double latencyP50Millis;
+	private final double latencyP90Millis;
+	private final double latencyP99Millis;
+	private final double latencyMaxMillis;
+	private final double maxScheduleLagMillis;
+
+	TriggerLoadReport(long triggered, long failed, long elapsedNanos, double targetRate, long[] latencyNanos,
+			long maxScheduleLagNanos) {
+		this.triggered = triggered;
+		this.failed = failed;
+		this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+		this.targetRate = targetRate;
+		this.achievedRate = elapsedNanos > 0 ? (triggered + failed) * 1e9 / elapsedNanos : 0;
+		long[] sorted = Arrays.copyOf(latencyNanos, latencyNanos.length);
+		Arrays.sort(sorted);
+		this.latencyP50Millis = percentileMillis(sorted, 50);
+		this.latencyP90Millis = percentileMillis(sorted, 90);
+		this.latencyP99Millis = percentileMillis(sorted, 99);
+		this.latencyMaxMillis = sorted.length > 0 ? toMillis(sorted[sorted.length - 1]) : 0;
+		this.maxScheduleLagMillis = toMillis(maxScheduleLagNanos);
+	}
+
+	private static double percentileMillis(long[] sorted, int percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+		return toMillis(sorted[Math.max(rank, 1) - 1]);
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1e6;
+	}
+
+	/**
+	 * @return number of triggers that sent their messages
+	 */
+	public long getTriggered() {
+		return this.triggered;
+	}
+
+	/**
+	 * @return number of triggers that failed or found no matching label
+	 */
+	public long getFailed() {
+		return this.failed;
+	}
+
+	public long getElapsedMillis() {
+		return this.elapsedMillis;
+	}
+
+	/**
+	 * @return requested number of triggers per second, {@code 0} if not throttled
+	 */
+	public double getTargetRate() {
+		return this.targetRate;
+	}
+
+	/**
+	 * @return number of triggers per second that were actually executed
+	 */
+	public double getAchievedRate() {
+		return this.achievedRate;
+	}
+
+	public double getLatencyP50Millis() {
+		return this.latencyP50Millis;
+	}
+
+	public double getLatencyP90Millis() {
+		return this.latencyP90Millis;
+	}
+
+	public double getLatencyP99Millis() {
+		return this.latencyP99Millis;
+	}
+
+	public double getLatencyMaxMillis() {
+		return this.latencyMaxMillis;
+	}
+
+	public double getMaxScheduleLagMillis() {
+		return this.maxScheduleLagMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "TriggerLoadReport [triggered=" + this.triggered + ", failed=" + this.failed + ", elapsedMillis="
+				+ this.elapsedMillis + ", targetRate=" + this.targetRate + ", achievedRate=" + this.achievedRate
+				+ ", latencyP50Millis=" + this.latencyP50Millis + ", latencyP90Millis=" + this.latencyP90Millis
+				+ ", latencyP99Millis=" + this.latencyP99Millis + ", latencyMaxMillis=" + this.latencyMaxMillis
+				+ ", maxScheduleLagMillis=" + this.maxScheduleLagMillis + "]";
+	}
+}
@@ -0,0 +1,344 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.springframework.cloud.contract.stubrunner.util.ZipCategory.unzipTo;
+
+/**
+ * On disk cache of unpacked stub JARs that can be shared between runs and JVMs. Each
+ * entry is keyed by the checksum of the JAR and its resolved version.
+ *
+ * An entry is unpacked to a staging folder first and then atomically renamed to its
+ * final location, so concurrent processes either see a fully unpacked entry or none.
+ * When the size of the cache exceeds the limit, the least recently used entries are
+ * removed.
+ *
+ * An entry that was returned is in use until the JVM exits. The JVM holds a shared file
+ * lock on the entry's lock file, and eviction skips the entries whose lock file it
+ * cannot lock exclusively. That way no JVM removes an entry that another JVM, or
+ * another stub runner of the same JVM, may still be serving the stubs from.
+ *
+ * Cached folders are shared - they must not be modified by the consumers.
+ *
+ * @since 1.0.3
+ */
+class UnpackedStubsCache {
+
+	private static final Logger log = LoggerFactory.getLogger(UnpackedStubsCache.class);
+
+	private static final String STAGING_PREFIX = ".staging-";
+	private static final String TRASH_PREFIX = ".trash-";
+	private static final String LOCK_PREFIX = ".lock-";
+
+	/**
+	 * Shared locks of the entries in use by this JVM, by the path of the lock file. File
+	 * locks are held on behalf of the whole JVM, so they are tracked once per JVM
+	 */
+	private static final Map<String, FileLock> ENTRIES_IN_USE = new ConcurrentHashMap<>();
+	private static final Object LOCK_MONITOR = new Object();
+	private static final int BUFFER_SIZE = 8192;
+
+	private final File cacheDirectory;
+	private final long maxSizeInBytes;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	UnpackedStubsCache(File cacheDirectory, long maxSizeInBytes) {
+		this.cacheDirectory = cacheDirectory;
+		this.maxSizeInBytes = maxSizeInBytes;
+	}
+
+	/**
+	 * Returns the folder with the unpacked contents of the given JAR. The JAR gets
+	 * unpacked only if there is no entry for it in the cache yet.
+	 */
+	File unpackedStubJar(File stubJar, String resolvedVersion) {
+		String entryName = entryName(stubJar, resolvedVersion);
+		File entry = new File(this.cacheDirectory, entryName);
+		markInUse(entryName);
+		if (entry.isDirectory()) {
+			this.hits.incrementAndGet();
+			touch(entry);
+			log.info("Using cached unpacked stubs from [" + entry + "] (cache hits: " + this.hits.get()
+					+ ", misses: " + this.misses.get() + ")");
+			return entry;
+		}
+		this.misses.incrementAndGet();
+		publish(stubJar, entry);
+		evictIfNecessary(entry);
+		log.info("Unpacked stubs to the cache entry [" + entry + "] (cache hits: " + this.hits.get()
+				+ ", misses: " + this.misses.get() + ")");
+		return entry;
+	}
+
+	long getHits() {
+		return this.hits.get();
+	}
+
+	long getMisses() {
+		return this.misses.get();
+	}
+
+	private void publish(File stubJar, File entry) {
+		File staging = new File(this.cacheDirectory, STAGING_PREFIX + UUID.randomUUID());
+		if (!staging.mkdirs()) {
+			throw new IllegalStateException("Cannot create the staging folder [" + staging + "]");
+		}
+		unzipTo(stubJar, staging);
+		try {
+			Files.move(staging.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Entry [" + entry + "] was already published by another process");
+			}
+			deleteQuietly(staging);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			deleteQuietly(staging);
+			throw new IllegalStateException("The stubs cache folder [" + this.cacheDirectory
+					+ "] doesn't support atomic moves", e);
+		}
+		catch (IOException e) {
+			deleteQuietly(staging);
+			if (!entry.isDirectory()) {
+				throw new IllegalStateException("Cannot publish the cache entry [" + entry + "]", e);
+			}
+		}
+	}
+
+	private void evictIfNecessary(File currentEntry) {
+		File[] files = this.cacheDirectory.listFiles();
+		if (files == null) {
+			return;
+		}
+		List<File> entries = new ArrayList<>();
+		long totalSize = 0;
+		for (File file : files) {
+			if (file.isDirectory() && !file.getName().startsWith(".")) {
+				entries.add(file);
+				totalSize += sizeOf(file.toPath());
+			}
+		}
+		if (totalSize <= this.maxSizeInBytes) {
+			return;
+		}
+		Collections.sort(entries, new Comparator<File>() {
+			@Override
+			public int compare(File first, File second) {
+				return Long.compare(first.lastModified(), second.lastModified());
+			}
+		});
+		for (File entry : entries) {
+			if (totalSize <= this.maxSizeInBytes) {
+				return;
+			}
+			if (entry.equals(currentEntry)) {
+				continue;
+			}
+			long size = sizeOf(entry.toPath());
+			if (evictUnlessInUse(entry)) {
+				totalSize -= size;
+			}
+		}
+	}
+
+	/**
+	 * Takes a shared lock on the entry before it is checked or unpacked, so that no
+	 * concurrent eviction can remove it. Blocks while another JVM is evicting it
+	 */
+	private void markInUse(String entryName) {
+		File lockFile = new File(this.cacheDirectory, LOCK_PREFIX + entryName);
+		synchronized (LOCK_MONITOR) {
+			if (ENTRIES_IN_USE.containsKey(lockFile.getAbsolutePath())) {
+				return;
+			}
+			if (!this.cacheDirectory.isDirectory() && !this.cacheDirectory.mkdirs()) {
+				throw new IllegalStateException("Cannot create the stubs cache folder [" + this.cacheDirectory + "]");
+			}
+			try {
+				@SuppressWarnings("resource")
+				FileChannel channel = new RandomAccessFile(lockFile, "rw").getChannel();
+				ENTRIES_IN_USE.put(lockFile.getAbsolutePath(), channel.lock(0, Long.MAX_VALUE, true));
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Cannot lock the cache entry [" + entryName + "]", e);
+			}
+		}
+	}
+
+	/**
+	 * The entry is evicted only if no JVM uses it, i.e. its lock file can be locked
+	 * exclusively. The lock is held until the entry is gone
+	 */
+	private boolean evictUnlessInUse(File entry) {
+		File lockFile = new File(this.cacheDirectory, LOCK_PREFIX + entry.getName());
+		synchronized (LOCK_MONITOR) {
+			if (ENTRIES_IN_USE.containsKey(lockFile.getAbsolutePath())) {
+				return false;
+			}
+			try (FileChannel channel = new RandomAccessFile(lockFile, "rw").getChannel()) {
+				FileLock lock = channel.tryLock(0, Long.MAX_VALUE, false);
+				if (lock == null) {
+					if (log.isDebugEnabled()) {
+						log.debug("Cache entry [" + entry + "] is in use by another process and won't be evicted");
+					}
+					return false;
+				}
+				try {
+					return evict(entry);
+				}
+				finally {
+					lock.release();
+				}
+			}
+			catch (IOException | OverlappingFileLockException e) {
+				if (log.isDebugEnabled()) {
+					log.debug("Failed to lock the cache entry [" + entry + "] for eviction", e);
+				}
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * The entry is first renamed so that other processes stop seeing it and only then
+	 * removed from the disk
+	 */
+	private boolean evict(File entry) {
+		File trash = new File(this.cacheDirectory, TRASH_PREFIX + UUID.randomUUID());
+		try {
+			Files.move(entry.toPath(), trash.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to evict the cache entry [" + entry + "]", e);
+			}
+			return false;
+		}
+		log.info("Evicting the least recently used cache entry [" + entry + "]");
+		deleteQuietly(trash);
+		return true;
+	}
+
+	private void touch(File entry) {
+		try {
+			Files.setLastModifiedTime(entry.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+		}
+		catch (IOException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to update the last access time of [" + entry + "]", e);
+			}
+		}
+	}
+
+	private static String entryName(File stubJar, String resolvedVersion) {
+		String name = stubJar.getName().replaceAll("\\.jar$", "");
+		return (name + "-" + resolvedVersion).replaceAll("[^a-zA-Z0-9._-]", "_") + "-" + checksum(stubJar);
+	}
+
+	private static String checksum(File file) {
+		try (InputStream stream = new FileInputStream(file)) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+			StringBuilder builder = new StringBuilder();
+			for (byte b : digest.digest()) {
+				builder.append(String.format("%02x", b));
+			}
+			return builder.toString();
+		}
+		catch (IOException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Cannot calculate the checksum of [" + file + "]", e);
+		}
+	}
+
+	private static long sizeOf(Path path) {
+		final AtomicLong size = new AtomicLong();
+		try {
+			Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					size.addAndGet(attrs.size());
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to calculate the size of [" + path + "]", e);
+			}
+		}
+		return size.get();
+	}
+
+	private static void deleteQuietly(File file) {
+		try {
+			Files.walkFileTree(file.toPath(), new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
+					Files.delete(path);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+					Files.delete(dir);
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException e) {
+			log.warn("Failed to delete [" + file + "]", e);
+		}
+	}
+}
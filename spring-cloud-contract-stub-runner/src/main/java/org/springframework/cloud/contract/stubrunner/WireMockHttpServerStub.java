@@ -1,20 +1,64 @@
 package org.springframework.cloud.contract.stubrunner;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cloud.contract.wiremock.WireMockSpring;
 import org.springframework.util.ClassUtils;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.standalone.MappingsLoader;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappings;
 
 /**
  * @author Marcin Grzejszczak
  */
 class WireMockHttpServerStub implements HttpServerStub {
 
+	private static final Logger log = LoggerFactory.getLogger(WireMockHttpServerStub.class);
+
 	private final WireMockServer wireMockServer;
+	private final Map<String, StubMapping> registeredMappings = new ConcurrentHashMap<>();
 
 	WireMockHttpServerStub(int port) {
-		this.wireMockServer = new WireMockServer(config().port(port));
+		this(port, null);
+	}
+
+	/**
+	 * @param port port to bind to. With {@code 0} the server binds to a free port picked
+	 * by the operating system and {@link #port()} returns the actual one once started
+	 * @param stubRunnerOptions options with the Jetty settings. If {@code null} the
+	 * WireMock defaults are used
+	 */
+	WireMockHttpServerStub(int port, StubRunnerOptions stubRunnerOptions) {
+		this.wireMockServer = new WireMockServer(withJettySettings(config().port(port), stubRunnerOptions));
+	}
+
+	private static WireMockConfiguration withJettySettings(WireMockConfiguration config,
+			StubRunnerOptions stubRunnerOptions) {
+		if (stubRunnerOptions == null) {
+			return config;
+		}
+		if (stubRunnerOptions.getContainerThreads() > 0) {
+			config.containerThreads(stubRunnerOptions.getContainerThreads());
+		}
+		if (stubRunnerOptions.getAcceptors() > 0) {
+			config.jettyAcceptors(stubRunnerOptions.getAcceptors());
+		}
+		if (stubRunnerOptions.getAcceptQueueSize() > 0) {
+			config.jettyAcceptQueueSize(stubRunnerOptions.getAcceptQueueSize());
+		}
+		return config;
 	}
 
 	private WireMockConfiguration config() {
@@ -43,4 +87,94 @@ class WireMockHttpServerStub implements HttpServerStub {
 	public void stop() {
 		this.wireMockServer.stop();
 	}
+
+	@Override
+	public String pathPrefix() {
+		return "";
+	}
+
+	@Override
+	public void registerMappings(Collection<WiremockMappingDescriptor> mappings) {
+		registerMappings(mappings, "");
+	}
+
+	/**
+	 * Registers the mappings and the health checks of a single stub under the given
+	 * path prefix, so that a single server can host many stubs. The mappings are parsed
+	 * first and then added to the server in a single pass
+	 */
+	void registerMappings(Collection<WiremockMappingDescriptor> mappings, String pathPrefix) {
+		final List<StubMapping> stubMappings = new ArrayList<>(mappings.size() + 2);
+		stubMappings.add(healthCheck(pathPrefix + "/ping"));
+		stubMappings.add(healthCheck(pathPrefix + "/health"));
+		Map<String, StubMapping> parsedMappings = new LinkedHashMap<>();
+		for (WiremockMappingDescriptor mappingDescriptor : mappings) {
+			try {
+				StubMapping mapping = mappingDescriptor.getMapping(pathPrefix);
+				stubMappings.add(mapping);
+				parsedMappings.put(mappingDescriptor.location, mapping);
+			}
+			catch (Exception e) {
+				log.warn("Failed to register the stub mapping [" + mappingDescriptor + "]", e);
+			}
+		}
+		this.wireMockServer.loadMappingsUsing(new MappingsLoader() {
+			@Override
+			public void loadMappingsInto(StubMappings target) {
+				for (StubMapping stubMapping : stubMappings) {
+					target.addMapping(stubMapping);
+				}
+			}
+		});
+		this.registeredMappings.putAll(parsedMappings);
+		if (log.isDebugEnabled()) {
+			log.debug("Registered stub mappings from " + parsedMappings.keySet());
+		}
+	}
+
+	@Override
+	public void updateMappings(Collection<WiremockMappingDescriptor> changed,
+			Collection<WiremockMappingDescriptor> removed) {
+		updateMappings(changed, removed, "");
+	}
+
+	/**
+	 * The new version of a mapping is added before the previous one gets removed, so
+	 * requests are matched against one of the two versions during the update. WireMock
+	 * removes the mappings by their UUID, that's why the new version gets a fresh one -
+	 * both versions of a generated mapping carry the same UUID
+	 */
+	void updateMappings(Collection<WiremockMappingDescriptor> changed,
+			Collection<WiremockMappingDescriptor> removed, String pathPrefix) {
+		for (WiremockMappingDescriptor mappingDescriptor : changed) {
+			StubMapping mapping;
+			try {
+				mapping = mappingDescriptor.getMapping(pathPrefix);
+			}
+			catch (Exception e) {
+				log.warn("Failed to read the changed stub mapping [" + mappingDescriptor
+						+ "]. The previous version will be used", e);
+				continue;
+			}
+			mapping.setUuid(UUID.randomUUID());
+			this.wireMockServer.addStubMapping(mapping);
+			StubMapping previous = this.registeredMappings.put(mappingDescriptor.location, mapping);
+			if (previous != null) {
+				this.wireMockServer.removeStubMapping(previous);
+			}
+			log.info("Reloaded stub mapping from [" + mappingDescriptor.location + "]");
+		}
+		for (WiremockMappingDescriptor mappingDescriptor : removed) {
+			StubMapping previous = this.registeredMappings.remove(mappingDescriptor.location);
+			if (previous != null) {
+				this.wireMockServer.removeStubMapping(previous);
+				log.info("Removed stub mapping of [" + mappingDescriptor.location + "]");
+			}
+		}
+	}
+
+	private StubMapping healthCheck(String url) {
+		return WireMock.get(WireMock.urlEqualTo(url))
+				.willReturn(WireMock.aResponse().withBody("OK").withStatus(200)).build();
+	}
 }
@@ -17,30 +17,116 @@
 package org.springframework.cloud.contract.stubrunner;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
 
-import org.springframework.util.StreamUtils;
-
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 
 /**
  * Represents a single JSON file that was found in the folder with potential WireMock
- * stubs
+ * stubs. If the file was read from an archive then its content is kept in memory.
+ *
+ * The file is read and parsed once per path prefix. A changed file is represented by a
+ * new descriptor.
  */
 class WiremockMappingDescriptor {
 
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
 	final File descriptor;
+	final String location;
+	private volatile String content;
+	private final ConcurrentMap<String, StubMapping> mappings = new ConcurrentHashMap<>(2);
 
 	public WiremockMappingDescriptor(File mappingDescriptor) {
 		this.descriptor = mappingDescriptor;
+		this.location = mappingDescriptor.getPath();
+		this.content = null;
+	}
+
+	/**
+	 * @param location - description of where the mapping comes from
+	 * @param content - JSON representation of the mapping
+	 */
+	WiremockMappingDescriptor(String location, String content) {
+		this.descriptor = null;
+		this.location = location;
+		this.content = content;
 	}
 
 	public StubMapping getMapping() {
+		return getMapping("");
+	}
+
+	/**
+	 * Returns the mapping with the request URL moved under the given path. Scenario
+	 * names get prefixed too, since scenarios are shared by all stubs of a server.
+	 *
+	 * @param pathPrefix - path starting with a slash. If empty the mapping is returned as is
+	 */
+	StubMapping getMapping(String pathPrefix) {
+		StubMapping mapping = this.mappings.get(pathPrefix);
+		if (mapping == null) {
+			mapping = parseMapping(pathPrefix);
+			this.mappings.put(pathPrefix, mapping);
+		}
+		return mapping;
+	}
+
+	private StubMapping parseMapping(String pathPrefix) {
+		if (pathPrefix.isEmpty()) {
+			return StubMapping.buildFrom(content());
+		}
+		try {
+			ObjectNode mapping = (ObjectNode) OBJECT_MAPPER.readTree(content());
+			JsonNode request = mapping.get("request");
+			if (request instanceof ObjectNode) {
+				prefixUrl((ObjectNode) request, pathPrefix);
+			}
+			JsonNode scenarioName = mapping.get("scenarioName");
+			if (scenarioName != null && scenarioName.isTextual()) {
+				mapping.put("scenarioName", pathPrefix + scenarioName.asText());
+			}
+			return StubMapping.buildFrom(OBJECT_MAPPER.writeValueAsString(mapping));
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Cannot parse the mapping [" + this.location + "]", e);
+		}
+	}
+
+	private static void prefixUrl(ObjectNode request, String pathPrefix) {
+		for (String url : new String[] { "url", "urlPath" }) {
+			if (request.hasNonNull(url)) {
+				request.put(url, pathPrefix + request.get(url).asText());
+				return;
+			}
+		}
+		for (String urlPattern : new String[] { "urlPattern", "urlPathPattern" }) {
+			if (request.hasNonNull(urlPattern)) {
+				String pattern = request.get(urlPattern).asText();
+				request.put(urlPattern, pattern.startsWith("^") ?
+						"^" + Pattern.quote(pathPrefix) + pattern.substring(1) :
+						Pattern.quote(pathPrefix) + pattern);
+				return;
+			}
+		}
+		request.put("urlPattern", Pattern.quote(pathPrefix) + "([/?].*)?");
+	}
+
+	private String content() {
+		if (this.content != null) {
+			return this.content;
+		}
 		try {
-			return StubMapping.buildFrom(StreamUtils.copyToString(
-					new FileInputStream(this.descriptor), Charset.forName("UTF-8")));
+			this.content = new String(Files.readAllBytes(this.descriptor.toPath()), Charset.forName("UTF-8"));
+			return this.content;
 		}
 		catch (IOException e) {
 			throw new IllegalStateException("Cannot read file", e);
@@ -49,14 +135,14 @@ class WiremockMappingDescriptor {
 
 	@Override
 	public String toString() {
-		return "WiremockMappingDescriptor [descriptor=" + this.descriptor + "]";
+		return "WiremockMappingDescriptor [descriptor=" + this.location + "]";
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((this.descriptor == null) ? 0 : this.descriptor.hashCode());
+		result = prime * result + ((this.location == null) ? 0 : this.location.hashCode());
 		return result;
 	}
 
@@ -69,11 +155,11 @@ class WiremockMappingDescriptor {
 		if (getClass() != obj.getClass())
 			return false;
 		WiremockMappingDescriptor other = (WiremockMappingDescriptor) obj;
-		if (this.descriptor == null) {
-			if (other.descriptor != null)
+		if (this.location == null) {
+			if (other.location != null)
 				return false;
 		}
-		else if (!this.descriptor.equals(other.descriptor))
+		else if (!this.location.equals(other.location))
 			return false;
 		return true;
 	}
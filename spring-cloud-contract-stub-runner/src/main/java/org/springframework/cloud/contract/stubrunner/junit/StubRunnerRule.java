@@ -72,6 +72,16 @@ public class StubRunnerRule implements TestRule, StubFinder {
 				.withWorkOffline(Boolean.parseBoolean(System.getProperty("stubrunner.work-offline", "false")))
 				.withStubsClassifier(System.getProperty("stubrunner.classifier", "stubs"))
 				.withStubs(System.getProperty("stubrunner.ids", ""))
+				.withStartupThreads(Integer.valueOf(System.getProperty("stubrunner.startup-threads", "1")))
+				.withStubsCacheDirectory(System.getProperty("stubrunner.stubs-cache-directory", ""))
+				.withStubsCacheMaxSizeMb(Long.valueOf(System.getProperty("stubrunner.stubs-cache-max-size-mb", "1024")))
+				.withUnpackStubs(Boolean.parseBoolean(System.getProperty("stubrunner.unpack-stubs", "true")))
+				.withDynamicPorts(Boolean.parseBoolean(System.getProperty("stubrunner.dynamic-ports", "false")))
+				.withSharedServer(Boolean.parseBoolean(System.getProperty("stubrunner.shared-server", "false")))
+				.withContainerThreads(Integer.valueOf(System.getProperty("stubrunner.container-threads", "0")))
+				.withAcceptors(Integer.valueOf(System.getProperty("stubrunner.acceptors", "0")))
+				.withAcceptQueueSize(Integer.valueOf(System.getProperty("stubrunner.accept-queue-size", "0")))
+				.withWatchStubs(Boolean.parseBoolean(System.getProperty("stubrunner.watch-stubs", "false")))
 				.build();
 	}
 
@@ -101,6 +111,86 @@ public class StubRunnerRule implements TestRule, StubFinder {
 		return this;
 	}
 
+	/**
+	 * Number of threads used to download and start the stubs
+	 */
+	public StubRunnerRule startupThreads(int startupThreads) {
+		this.stubRunnerOptionsBuilder.withStartupThreads(startupThreads);
+		return this;
+	}
+
+	/**
+	 * Directory in which the unpacked stub JARs are cached between runs
+	 */
+	public StubRunnerRule stubsCacheDirectory(String stubsCacheDirectory) {
+		this.stubRunnerOptionsBuilder.withStubsCacheDirectory(stubsCacheDirectory);
+		return this;
+	}
+
+	/**
+	 * Max size in megabytes of the unpacked stubs cache
+	 */
+	public StubRunnerRule stubsCacheMaxSizeMb(long stubsCacheMaxSizeMb) {
+		this.stubRunnerOptionsBuilder.withStubsCacheMaxSizeMb(stubsCacheMaxSizeMb);
+		return this;
+	}
+
+	/**
+	 * Should the stub JAR be unpacked or should the stubs be read directly from it
+	 */
+	public StubRunnerRule unpackStubs(boolean unpackStubs) {
+		this.stubRunnerOptionsBuilder.withUnpackStubs(unpackStubs);
+		return this;
+	}
+
+	/**
+	 * Should the stubs bind to free ports picked by the operating system
+	 */
+	public StubRunnerRule dynamicPorts(boolean dynamicPorts) {
+		this.stubRunnerOptionsBuilder.withDynamicPorts(dynamicPorts);
+		return this;
+	}
+
+	/**
+	 * Should all the stubs be hosted by a single server, each under its own path
+	 */
+	public StubRunnerRule sharedServer(boolean sharedServer) {
+		this.stubRunnerOptionsBuilder.withSharedServer(sharedServer);
+		return this;
+	}
+
+	/**
+	 * Max number of threads of each stub server's thread pool
+	 */
+	public StubRunnerRule containerThreads(int containerThreads) {
+		this.stubRunnerOptionsBuilder.withContainerThreads(containerThreads);
+		return this;
+	}
+
+	/**
+	 * Number of acceptor threads of each stub server
+	 */
+	public StubRunnerRule acceptors(int acceptors) {
+		this.stubRunnerOptionsBuilder.withAcceptors(acceptors);
+		return this;
+	}
+
+	/**
+	 * Size of the queue of connections waiting to be accepted by each stub server
+	 */
+	public StubRunnerRule acceptQueueSize(int acceptQueueSize) {
+		this.stubRunnerOptionsBuilder.withAcceptQueueSize(acceptQueueSize);
+		return this;
+	}
+
+	/**
+	 * Reload changed mappings and contracts of the unpacked stubs without restarting the servers
+	 */
+	public StubRunnerRule watchStubs(boolean watchStubs) {
+		this.stubRunnerOptionsBuilder.withWatchStubs(watchStubs);
+		return this;
+	}
+
 	/**
 	 * String URI of repository containing stubs
 	 */
@@ -0,0 +1,142 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.spec.internal.Header;
+
+/**
+ * Index of all the contracts that listen on a single destination. For an incoming
+ * message returns the target of the first contract (in the order of registration)
+ * that matches the message.
+ *
+ * Contracts are indexed by the first header that has a concrete value. Only the
+ * contracts for which the message contains that header value and the contracts
+ * without such header are checked. The payload is parsed at most once per message.
+ *
+ * Not thread safe while contracts are being added. Matching is thread safe.
+ *
+ * @param <T> type of the target that is returned for the matching contract
+ *
+ * @since 1.0.3
+ */
+public class ContractMessageIndex<T> {
+
+	private final List<Entry<T>> entries = new ArrayList<>();
+	private final List<Entry<T>> notIndexed = new ArrayList<>();
+	private final Map<String, Map<Object, List<Entry<T>>>> byHeaderValue = new LinkedHashMap<>();
+
+	public void add(Contract contract, T target) {
+		Entry<T> entry = new Entry<>(this.entries.size(), new ContractMessageMatcher(contract), target);
+		this.entries.add(entry);
+		Header header = firstHeaderWithConcreteValue(contract);
+		if (header == null) {
+			this.notIndexed.add(entry);
+			return;
+		}
+		Map<Object, List<Entry<T>>> byValue = this.byHeaderValue.get(header.getName());
+		if (byValue == null) {
+			byValue = new HashMap<>();
+			this.byHeaderValue.put(header.getName(), byValue);
+		}
+		List<Entry<T>> entries = byValue.get(header.getClientValue());
+		if (entries == null) {
+			entries = new ArrayList<>();
+			byValue.put(header.getClientValue(), entries);
+		}
+		entries.add(entry);
+	}
+
+	/**
+	 * @return target of the first contract matching the message or {@code null} if
+	 * none matches
+	 */
+	public T match(Map<String, Object> headers, Object payload) {
+		Object parsedPayload = null;
+		for (Entry<T> candidate : candidates(headers)) {
+			ContractMessageMatcher matcher = candidate.matcher;
+			if (!matcher.headersMatch(headers)) {
+				continue;
+			}
+			if (parsedPayload == null && matcher.requiresPayload()) {
+				parsedPayload = ContractMessageMatcher.parse(payload);
+			}
+			if (matcher.bodyMatches(parsedPayload)) {
+				return candidate.target;
+			}
+		}
+		return null;
+	}
+
+	public boolean isEmpty() {
+		return this.entries.isEmpty();
+	}
+
+	private List<Entry<T>> candidates(Map<String, Object> headers) {
+		if (this.byHeaderValue.isEmpty()) {
+			return this.entries;
+		}
+		List<Entry<T>> candidates = new ArrayList<>(this.notIndexed);
+		for (Map.Entry<String, Map<Object, List<Entry<T>>>> index : this.byHeaderValue.entrySet()) {
+			Object value = headers.get(index.getKey());
+			List<Entry<T>> matching = value != null ? index.getValue().get(value) : null;
+			if (matching != null) {
+				candidates.addAll(matching);
+			}
+		}
+		Collections.sort(candidates);
+		return candidates;
+	}
+
+	private static Header firstHeaderWithConcreteValue(Contract contract) {
+		if (contract.getInput() == null || contract.getInput().getMessageHeaders() == null) {
+			return null;
+		}
+		for (Header header : contract.getInput().getMessageHeaders().getEntries()) {
+			Object value = header.getClientValue();
+			if (value != null && !(value instanceof Pattern)) {
+				return header;
+			}
+		}
+		return null;
+	}
+
+	private static class Entry<T> implements Comparable<Entry<T>> {
+		final int position;
+		final ContractMessageMatcher matcher;
+		final T target;
+
+		Entry(int position, ContractMessageMatcher matcher, T target) {
+			this.position = position;
+			this.matcher = matcher;
+			this.target = target;
+		}
+
+		@Override
+		public int compareTo(Entry<T> other) {
+			return Integer.compare(this.position, other.position);
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.spec.internal.Header;
+import org.springframework.cloud.contract.verifier.messaging.internal.ContractVerifierObjectMapper;
+import org.springframework.cloud.contract.verifier.util.JsonPaths;
+import org.springframework.cloud.contract.verifier.util.JsonToJsonPathsConverter;
+import org.springframework.cloud.contract.verifier.util.MethodBufferingJsonVerifiable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+
+/**
+ * Checks whether a message matches the input message of a contract. The JSON paths
+ * of the contract's body are computed and compiled once, when the matcher is created.
+ * The incoming payload is parsed once and the compiled paths are evaluated against it
+ * without throwing exceptions on mismatch.
+ *
+ * @since 1.0.3
+ */
+public class ContractMessageMatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(ContractMessageMatcher.class);
+
+	private static final Configuration CONFIGURATION = Configuration.defaultConfiguration()
+			.addOptions(Option.SUPPRESS_EXCEPTIONS);
+	private static final ContractVerifierObjectMapper OBJECT_MAPPER = new ContractVerifierObjectMapper();
+
+	private final Contract contract;
+	private final List<Header> headers;
+	private final List<JsonPath> jsonPaths;
+	private final boolean validPaths;
+
+	public ContractMessageMatcher(Contract contract) {
+		this.contract = contract;
+		this.headers = headers(contract);
+		List<JsonPath> jsonPaths = new ArrayList<>();
+		this.validPaths = compileJsonPaths(contract, jsonPaths);
+		this.jsonPaths = Collections.unmodifiableList(jsonPaths);
+	}
+
+	public Contract getContract() {
+		return this.contract;
+	}
+
+	/**
+	 * @return {@code true} if both the headers and the payload match the contract
+	 */
+	public boolean matches(Map<String, Object> headers, Object payload) {
+		if (!headersMatch(headers)) {
+			return false;
+		}
+		return bodyMatches(requiresPayload() ? parse(payload) : null);
+	}
+
+	/**
+	 * @return {@code false} if the payload doesn't have to be parsed to check whether the
+	 * body matches
+	 */
+	public boolean requiresPayload() {
+		return !this.jsonPaths.isEmpty();
+	}
+
+	public boolean headersMatch(Map<String, Object> headers) {
+		for (Header header : this.headers) {
+			Object value = header.getClientValue();
+			Object valueInHeader = headers.get(header.getName());
+			if (valueInHeader == null) {
+				return false;
+			}
+			boolean matches = value instanceof Pattern ?
+					((Pattern) value).matcher(valueInHeader.toString()).matches() :
+					valueInHeader.equals(value);
+			if (!matches) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param parsedPayload payload converted via {@link #parse(Object)}
+	 */
+	public boolean bodyMatches(Object parsedPayload) {
+		if (!this.validPaths) {
+			return false;
+		}
+		for (JsonPath jsonPath : this.jsonPaths) {
+			if (isEmpty(jsonPath.read(parsedPayload, CONFIGURATION))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Converts the payload to a JSON document against which the JSON paths can be
+	 * evaluated. A payload should be parsed once and reused for all the matchers.
+	 */
+	public static Object parse(Object payload) {
+		try {
+			return CONFIGURATION.jsonProvider().parse(OBJECT_MAPPER.writeValueAsString(payload));
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Cannot serialize to JSON", e);
+		}
+	}
+
+	private static boolean isEmpty(Object value) {
+		if (value instanceof Collection) {
+			return ((Collection<?>) value).isEmpty();
+		}
+		if (value instanceof Map) {
+			return ((Map<?, ?>) value).isEmpty();
+		}
+		return value == null;
+	}
+
+	private static List<Header> headers(Contract contract) {
+		if (contract.getInput() == null || contract.getInput().getMessageHeaders() == null) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<>(contract.getInput().getMessageHeaders().getEntries());
+	}
+
+	private static boolean compileJsonPaths(Contract contract, List<JsonPath> compiledPaths) {
+		if (contract.getInput() == null) {
+			return true;
+		}
+		JsonPaths jsonPaths = JsonToJsonPathsConverter
+				.transformToJsonPathWithStubsSideValuesAndNoArraySizeCheck(
+						contract.getInput().getMessageBody());
+		for (MethodBufferingJsonVerifiable path : jsonPaths) {
+			try {
+				compiledPaths.add(JsonPath.compile(path.jsonPath()));
+			}
+			catch (InvalidPathException e) {
+				log.warn("The JSON path [" + path.jsonPath() + "] of the contract with label ["
+						+ contract.getLabel() + "] is invalid. No message will match this contract", e);
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner.messaging;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.stubrunner.BatchStubRunner;
+import org.springframework.cloud.contract.stubrunner.StubConfiguration;
+
+/**
+ * Looks up the contracts for which the messaging routes are registered on startup.
+ * The stubs with lazy startup that weren't started yet are skipped, since fetching their
+ * contracts would download and start them - their messages can't be triggered nor received.
+ *
+ * @since 1.0.3
+ */
+public final class StubMessagingContracts {
+
+	private static final Logger log = LoggerFactory.getLogger(StubMessagingContracts.class);
+
+	private StubMessagingContracts() {
+	}
+
+	public static Map<StubConfiguration, Collection<Contract>> of(BatchStubRunner batchStubRunner) {
+		Collection<StubConfiguration> notStarted = batchStubRunner.getNotStartedStubs();
+		if (!notStarted.isEmpty()) {
+			log.warn("Lazy startup is turned on - no messaging routes are registered for the not yet started stubs "
+					+ notStarted + ". Turn off [stubrunner.lazyStartup] to send or receive messages of those stubs");
+		}
+		return batchStubRunner.getContractsOfStartedStubs();
+	}
+}
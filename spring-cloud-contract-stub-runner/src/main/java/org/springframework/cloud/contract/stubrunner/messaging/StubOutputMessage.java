@@ -0,0 +1,139 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner.messaging;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.cloud.contract.spec.internal.DslProperty;
+import org.springframework.cloud.contract.spec.internal.Headers;
+import org.springframework.cloud.contract.spec.internal.OutputMessage;
+import org.springframework.cloud.contract.verifier.util.BodyExtractor;
+
+import groovy.json.JsonOutput;
+
+/**
+ * Stub side representation of the output message of a contract. The payload and the
+ * headers are rendered once, when the contract gets loaded, and reused for every sent
+ * message.
+ *
+ * If the payload or the headers contain a regular expression they are rendered for each
+ * message, the same way they would be without this class.
+ *
+ * @since 1.0.3
+ */
+public class StubOutputMessage {
+
+	private final OutputMessage outputMessage;
+	private final boolean rendered;
+	private final String payload;
+	private final String json;
+	private final Map<String, Object> headers;
+
+	public StubOutputMessage(OutputMessage outputMessage) {
+		this.outputMessage = outputMessage;
+		String payload = null;
+		String json = null;
+		Map<String, Object> headers = null;
+		boolean rendered = false;
+		try {
+			Object clientBody = clientBody(outputMessage);
+			headers = headers(outputMessage);
+			if (!containsPattern(clientBody) && !containsPattern(headers)) {
+				payload = payload(outputMessage);
+				json = JsonOutput.toJson(clientBody);
+				rendered = true;
+			}
+		}
+		catch (RuntimeException e) {
+			// rendered for each message so that the failure surfaces when it's sent
+		}
+		this.rendered = rendered;
+		this.payload = payload;
+		this.json = json;
+		this.headers = headers;
+	}
+
+	/**
+	 * @return the stub side payload with the interpolations resolved, as passed to the
+	 * messaging transformers
+	 */
+	public String getPayload() {
+		return this.rendered ? this.payload : payload(this.outputMessage);
+	}
+
+	/**
+	 * @return the stub side body serialized to JSON, as sent by the triggered contracts
+	 */
+	public String getJson() {
+		return this.rendered ? this.json : JsonOutput.toJson(clientBody(this.outputMessage));
+	}
+
+	/**
+	 * @return unmodifiable stub side headers or {@code null} if the message has no
+	 * headers
+	 */
+	public Map<String, Object> getHeaders() {
+		return this.rendered ? this.headers : headers(this.outputMessage);
+	}
+
+	/**
+	 * @return the destination the message should be sent to
+	 */
+	public String getSentTo() {
+		DslProperty<String> sentTo = this.outputMessage.getSentTo();
+		return sentTo == null ? null : sentTo.getClientValue();
+	}
+
+	private static String payload(OutputMessage outputMessage) {
+		return BodyExtractor.extractStubValueFrom(outputMessage.getBody());
+	}
+
+	private static Object clientBody(OutputMessage outputMessage) {
+		DslProperty<?> body = outputMessage.getBody();
+		return BodyExtractor.extractClientValueFromBody(body == null ? null : body.getClientValue());
+	}
+
+	private static Map<String, Object> headers(OutputMessage outputMessage) {
+		Headers headers = outputMessage.getHeaders();
+		if (headers == null) {
+			return null;
+		}
+		return Collections.unmodifiableMap(new LinkedHashMap<>(headers.asStubSideMap()));
+	}
+
+	private static boolean containsPattern(Object value) {
+		if (value instanceof Pattern) {
+			return true;
+		}
+		if (value instanceof Map) {
+			return containsPattern(((Map<?, ?>) value).values());
+		}
+		if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				if (containsPattern(element)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -16,7 +16,10 @@
 
 package org.springframework.cloud.contract.stubrunner.messaging.camel;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.camel.RoutesBuilder;
@@ -26,12 +29,14 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.contract.spec.Contract;
 import org.springframework.cloud.contract.stubrunner.BatchStubRunner;
 import org.springframework.cloud.contract.stubrunner.StubConfiguration;
+import org.springframework.cloud.contract.stubrunner.messaging.ContractMessageIndex;
+import org.springframework.cloud.contract.stubrunner.messaging.StubMessagingContracts;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Camel configuration that iterates over the downloaded Groovy DSLs and registers a route
- * for each DSL.
+ * Camel configuration that iterates over the downloaded Groovy DSLs and registers a single
+ * route for each destination. The route passes the message to the first matching DSL.
  *
  * @author Marcin Grzejszczak
  */
@@ -45,22 +50,34 @@ public class StubRunnerCamelConfiguration {
 		return new SpringRouteBuilder() {
 			@Override
 			public void configure() throws Exception {
-				Map<StubConfiguration, Collection<Contract>> contracts = batchStubRunner
-						.getContracts();
+				Map<String, ContractMessageIndex<Contract>> contractsByDestination = new LinkedHashMap<>();
+				List<Contract> messagingContracts = new ArrayList<>();
+				Map<StubConfiguration, Collection<Contract>> contracts = StubMessagingContracts
+						.of(batchStubRunner);
 				for (Collection<Contract> list : contracts.values()) {
 					for (Contract it : list) {
 						if (it.getInput() != null
 								&& it.getInput().getMessageFrom() != null
 								&& it.getOutputMessage() != null
 								&& it.getOutputMessage().getSentTo() != null) {
-							from(it.getInput().getMessageFrom().getClientValue())
-									.filter(new StubRunnerCamelPredicate(it))
-									.process(new StubRunnerCamelProcessor(it))
-									.to(it.getOutputMessage().getSentTo()
-											.getClientValue());
+							String from = it.getInput().getMessageFrom().getClientValue();
+							ContractMessageIndex<Contract> index = contractsByDestination.get(from);
+							if (index == null) {
+								index = new ContractMessageIndex<>();
+								contractsByDestination.put(from, index);
+							}
+							index.add(it, it);
+							messagingContracts.add(it);
 						}
 					}
 				}
+				StubRunnerCamelProcessor processor = new StubRunnerCamelProcessor(messagingContracts);
+				for (Map.Entry<String, ContractMessageIndex<Contract>> entry : contractsByDestination.entrySet()) {
+					from(entry.getKey())
+							.filter(new StubRunnerCamelPredicate(entry.getValue()))
+							.process(processor)
+							.recipientList(exchangeProperty(StubRunnerCamelProcessor.SENT_TO));
+				}
 			}
 		};
 	}
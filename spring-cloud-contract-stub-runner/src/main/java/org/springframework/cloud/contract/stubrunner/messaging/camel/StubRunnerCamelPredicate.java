@@ -16,82 +16,34 @@
 
 package org.springframework.cloud.contract.stubrunner.messaging.camel;
 
-import java.util.Map;
-import java.util.regex.Pattern;
-
 import org.apache.camel.Exchange;
 import org.apache.camel.Predicate;
 import org.springframework.cloud.contract.spec.Contract;
-import org.springframework.cloud.contract.spec.internal.Header;
-import org.springframework.cloud.contract.verifier.messaging.internal.ContractVerifierObjectMapper;
-import org.springframework.cloud.contract.verifier.util.JsonPaths;
-import org.springframework.cloud.contract.verifier.util.JsonToJsonPathsConverter;
-import org.springframework.cloud.contract.verifier.util.MethodBufferingJsonVerifiable;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.jayway.jsonpath.DocumentContext;
-import com.jayway.jsonpath.JsonPath;
-import com.toomuchcoding.jsonassert.JsonAssertion;
-import com.toomuchcoding.jsonassert.JsonVerifiable;
+import org.springframework.cloud.contract.stubrunner.messaging.ContractMessageIndex;
 
 /**
- * Passes through a message that matches the one defined in the DSL
+ * Passes through a message that matches one of the DSLs registered for the
+ * destination. The matching DSL is stored in the {@link #CONTRACT} exchange property.
  *
  * @author Marcin Grzejszczak
  */
 class StubRunnerCamelPredicate implements Predicate {
 
-	private final Contract groovyDsl;
-	private final ContractVerifierObjectMapper objectMapper = new ContractVerifierObjectMapper();
+	static final String CONTRACT = "stubRunnerContract";
 
-	public StubRunnerCamelPredicate(Contract groovyDsl) {
-		this.groovyDsl = groovyDsl;
+	private final ContractMessageIndex<Contract> contracts;
+
+	public StubRunnerCamelPredicate(ContractMessageIndex<Contract> contracts) {
+		this.contracts = contracts;
 	}
 
 	@Override
 	public boolean matches(Exchange exchange) {
-		if (!headersMatch(exchange)) {
+		Contract contract = this.contracts.match(exchange.getIn().getHeaders(), exchange.getIn().getBody());
+		if (contract == null) {
 			return false;
 		}
-		Object inputMessage = exchange.getIn().getBody();
-		JsonPaths jsonPaths = JsonToJsonPathsConverter
-				.transformToJsonPathWithStubsSideValuesAndNoArraySizeCheck(
-						this.groovyDsl.getInput().getMessageBody());
-		DocumentContext parsedJson;
-		try {
-			parsedJson = JsonPath
-					.parse(this.objectMapper.writeValueAsString(inputMessage));
-		}
-		catch (JsonProcessingException e) {
-			throw new IllegalStateException("Cannot serialize to JSON", e);
-		}
-		boolean matches = true;
-		for (MethodBufferingJsonVerifiable path : jsonPaths) {
-			matches &= matchesJsonPath(parsedJson, path);
-		}
-		return matches;
-	}
-
-	private boolean matchesJsonPath(DocumentContext parsedJson, JsonVerifiable jsonVerifiable) {
-		try {
-			JsonAssertion.assertThat(parsedJson).matchesJsonPath(jsonVerifiable.jsonPath());
-			return true;
-		} catch (Exception e) {
-			return false;
-		}
-	}
-
-	private boolean headersMatch(Exchange exchange) {
-		Map<String, Object> headers = exchange.getIn().getHeaders();
-		boolean matches = true;
-		for (Header it : this.groovyDsl.getInput().getMessageHeaders().getEntries()) {
-			String name = it.getName();
-			Object value = it.getClientValue();
-			Object valueInHeader = headers.get(name);
-			matches &= value instanceof Pattern ?
-					((Pattern) value).matcher(valueInHeader.toString()).matches() :
-					valueInHeader!=null && valueInHeader.equals(value);
-		}
-		return matches;
+		exchange.setProperty(CONTRACT, contract);
+		return true;
 	}
 }
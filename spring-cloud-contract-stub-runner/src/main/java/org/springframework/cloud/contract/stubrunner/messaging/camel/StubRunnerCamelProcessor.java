@@ -16,44 +16,62 @@
 
 package org.springframework.cloud.contract.stubrunner.messaging.camel;
 
-import org.springframework.cloud.contract.verifier.util.BodyExtractor;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.Processor;
 import org.springframework.cloud.contract.spec.Contract;
 import org.springframework.cloud.contract.spec.internal.Header;
+import org.springframework.cloud.contract.stubrunner.messaging.StubOutputMessage;
 
 /**
  * Sends forward a message defined in the DSL. Also removes headers from the input message
- * and provides the headers from the DSL.
+ * and provides the headers from the DSL. The DSL is taken from the exchange property set
+ * by the {@link StubRunnerCamelPredicate} and its destination is stored in the
+ * {@link #SENT_TO} exchange property. The output messages of the DSLs are rendered once,
+ * when the processor gets created.
  *
  * @author Marcin Grzejszczak
  */
 class StubRunnerCamelProcessor implements Processor {
 
-	private final Contract groovyDsl;
+	static final String SENT_TO = "stubRunnerSentTo";
+
+	private final Map<Contract, StubOutputMessage> outputMessages = new IdentityHashMap<>();
 
-	StubRunnerCamelProcessor(Contract groovyDsl) {
-		this.groovyDsl = groovyDsl;
+	/**
+	 * @param contracts - DSLs whose messages can be passed to the processor
+	 */
+	StubRunnerCamelProcessor(Iterable<Contract> contracts) {
+		for (Contract contract : contracts) {
+			if (contract.getOutputMessage() != null) {
+				this.outputMessages.put(contract, new StubOutputMessage(contract.getOutputMessage()));
+			}
+		}
 	}
 
 	@Override
 	public void process(Exchange exchange) throws Exception {
+		Contract groovyDsl = exchange.getProperty(StubRunnerCamelPredicate.CONTRACT, Contract.class);
 		Message input = exchange.getIn();
-		if (this.groovyDsl.getInput().getMessageHeaders() != null) {
-			for (Header entry : this.groovyDsl.getInput().getMessageHeaders().getEntries()) {
+		if (groovyDsl.getInput().getMessageHeaders() != null) {
+			for (Header entry : groovyDsl.getInput().getMessageHeaders().getEntries()) {
 				input.removeHeader(entry.getName());
 			}
 		}
-		if (this.groovyDsl.getOutputMessage() == null) {
+		if (groovyDsl.getOutputMessage() == null) {
 			return;
 		}
-		input.setBody(BodyExtractor
-				.extractStubValueFrom(this.groovyDsl.getOutputMessage().getBody()));
-		if (this.groovyDsl.getOutputMessage().getHeaders() != null) {
-			for (Header entry : this.groovyDsl.getOutputMessage().getHeaders().getEntries()) {
-				input.setHeader(entry.getName(), entry.getClientValue());
-			}
+		StubOutputMessage outputMessage = this.outputMessages.get(groovyDsl);
+		if (outputMessage == null) {
+			outputMessage = new StubOutputMessage(groovyDsl.getOutputMessage());
+		}
+		input.setBody(outputMessage.getPayload());
+		if (outputMessage.getHeaders() != null) {
+			input.getHeaders().putAll(outputMessage.getHeaders());
 		}
+		exchange.setProperty(SENT_TO, outputMessage.getSentTo());
 	}
 }
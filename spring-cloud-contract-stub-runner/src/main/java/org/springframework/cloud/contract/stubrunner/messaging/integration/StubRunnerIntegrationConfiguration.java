@@ -17,6 +17,7 @@
 package org.springframework.cloud.contract.stubrunner.messaging.integration;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -27,20 +28,24 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.contract.spec.Contract;
 import org.springframework.cloud.contract.stubrunner.BatchStubRunner;
 import org.springframework.cloud.contract.stubrunner.StubConfiguration;
+import org.springframework.cloud.contract.stubrunner.messaging.ContractMessageIndex;
+import org.springframework.cloud.contract.stubrunner.messaging.StubMessagingContracts;
 import org.springframework.context.Lifecycle;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.integration.dsl.FilterEndpointSpec;
 import org.springframework.integration.dsl.GenericEndpointSpec;
+import org.springframework.integration.dsl.IntegrationFlow;
 import org.springframework.integration.dsl.IntegrationFlowBuilder;
 import org.springframework.integration.dsl.IntegrationFlows;
 import org.springframework.integration.dsl.support.Consumer;
+import org.springframework.integration.support.channel.BeanFactoryChannelResolver;
 import org.springframework.integration.transformer.MessageTransformingHandler;
 import org.springframework.messaging.Message;
 
 /**
  * Spring Integration configuration that iterates over the downloaded Groovy DSLs and
- * registers a flow for each DSL.
+ * registers a flow for each DSL. Each destination gets a single dispatching flow that
+ * passes the message to the flow of the first matching DSL.
  *
  * @author Marcin Grzejszczak
  */
@@ -53,8 +58,9 @@ public class StubRunnerIntegrationConfiguration {
 	@ConditionalOnMissingBean(name="stubFlowRegistrar")
 	public FlowRegistrar stubFlowRegistrar(AutowireCapableBeanFactory beanFactory,
 			BatchStubRunner batchStubRunner) {
-		Map<StubConfiguration, Collection<Contract>> contracts = batchStubRunner
-				.getContracts();
+		Map<String, ContractMessageIndex<String>> contractsByDestination = new LinkedHashMap<>();
+		Map<StubConfiguration, Collection<Contract>> contracts = StubMessagingContracts
+				.of(batchStubRunner);
 		for (Entry<StubConfiguration, Collection<Contract>> entry : contracts.entrySet()) {
 			String name = entry.getKey().getGroupId() + "_"
 					+ entry.getKey().getArtifactId();
@@ -62,15 +68,9 @@ public class StubRunnerIntegrationConfiguration {
 				if (dsl.getInput() != null && dsl.getInput().getMessageFrom() != null
 						&& dsl.getInput().getMessageFrom().getClientValue() != null) {
 					final String flowName = name + "_" + dsl.getLabel() + "_" + dsl.hashCode();
+					String contractChannel = flowName + ".input";
 					IntegrationFlowBuilder builder = IntegrationFlows
-							.from(dsl.getInput().getMessageFrom().getClientValue())
-							.filter(new StubRunnerIntegrationMessageSelector(dsl),
-									new Consumer<FilterEndpointSpec>() {
-										@Override
-										public void accept(FilterEndpointSpec e) {
-											e.id(flowName + ".filter");
-										}
-									})
+							.from(contractChannel)
 							.transform(new StubRunnerIntegrationTransformer(dsl),
 									new Consumer<GenericEndpointSpec<MessageTransformingHandler>>() {
 										@Override
@@ -87,15 +87,52 @@ public class StubRunnerIntegrationConfiguration {
 						builder = builder.handle(new DummyMessageHandler(), "handle");
 					}
 					beanFactory.initializeBean(builder.get(), flowName);
-					beanFactory.getBean(flowName + ".filter", Lifecycle.class).start();
 					beanFactory.getBean(flowName + ".transformer", Lifecycle.class)
 							.start();
-				}			
+					contractIndex(contractsByDestination,
+							dsl.getInput().getMessageFrom().getClientValue())
+							.add(dsl, contractChannel);
+				}
 			}
 		}
+		for (Entry<String, ContractMessageIndex<String>> entry : contractsByDestination
+				.entrySet()) {
+			registerDispatcher(beanFactory, entry.getKey(), entry.getValue());
+		}
 		return new FlowRegistrar();
 	}
 
+	private ContractMessageIndex<String> contractIndex(
+			Map<String, ContractMessageIndex<String>> contractsByDestination, String destination) {
+		ContractMessageIndex<String> index = contractsByDestination.get(destination);
+		if (index == null) {
+			index = new ContractMessageIndex<>();
+			contractsByDestination.put(destination, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Registers a single flow per destination that passes the message to the flow of
+	 * the first matching contract
+	 */
+	private void registerDispatcher(AutowireCapableBeanFactory beanFactory,
+			String destination, ContractMessageIndex<String> contractChannels) {
+		final String flowName = "stubRunner_" + destination + "_dispatcher";
+		IntegrationFlow flow = IntegrationFlows.from(destination)
+				.handle(new StubRunnerIntegrationMessageDispatcher(contractChannels,
+								new BeanFactoryChannelResolver(beanFactory)),
+						new Consumer<GenericEndpointSpec<StubRunnerIntegrationMessageDispatcher>>() {
+							@Override
+							public void accept(
+									GenericEndpointSpec<StubRunnerIntegrationMessageDispatcher> e) {
+								e.id(flowName + ".handler");
+							}
+						}).get();
+		beanFactory.initializeBean(flow, flowName);
+		beanFactory.getBean(flowName + ".handler", Lifecycle.class).start();
+	}
+
 	private static class DummyMessageHandler {
 		@SuppressWarnings("unused")
 		public void handle(Message<?> message) {
@@ -17,11 +17,11 @@
 package org.springframework.cloud.contract.stubrunner.messaging.stream;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -31,26 +31,30 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.contract.spec.Contract;
 import org.springframework.cloud.contract.stubrunner.BatchStubRunner;
 import org.springframework.cloud.contract.stubrunner.StubConfiguration;
+import org.springframework.cloud.contract.stubrunner.messaging.ContractMessageIndex;
+import org.springframework.cloud.contract.stubrunner.messaging.StubMessagingContracts;
 import org.springframework.cloud.contract.stubrunner.messaging.integration.StubRunnerIntegrationConfiguration;
+import org.springframework.cloud.contract.verifier.messaging.stream.StreamDestinationChannelResolver;
 import org.springframework.cloud.stream.annotation.EnableBinding;
 import org.springframework.cloud.stream.binding.BinderAwareChannelResolver;
-import org.springframework.cloud.stream.config.BindingProperties;
 import org.springframework.cloud.stream.config.ChannelBindingServiceProperties;
 import org.springframework.context.Lifecycle;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.integration.dsl.FilterEndpointSpec;
 import org.springframework.integration.dsl.GenericEndpointSpec;
+import org.springframework.integration.dsl.IntegrationFlow;
 import org.springframework.integration.dsl.IntegrationFlowBuilder;
 import org.springframework.integration.dsl.IntegrationFlows;
 import org.springframework.integration.dsl.support.Consumer;
+import org.springframework.integration.support.channel.BeanFactoryChannelResolver;
 import org.springframework.integration.transformer.MessageTransformingHandler;
 import org.springframework.messaging.Message;
 import org.springframework.util.StringUtils;
 
 /**
  * Spring Cloud Stream configuration that iterates over the downloaded Groovy DSLs and
- * registers a flow for each DSL.
+ * registers a flow for each DSL. Each destination gets a single dispatching flow that
+ * passes the message to the flow of the first matching DSL.
  *
  * @author Marcin Grzejszczak
  */
@@ -60,16 +64,15 @@ import org.springframework.util.StringUtils;
 @AutoConfigureBefore(StubRunnerIntegrationConfiguration.class)
 public class StubRunnerStreamConfiguration {
 
-	private static final Logger log = LoggerFactory
-			.getLogger(StubRunnerStreamConfiguration.class);
-
 	@Bean
 	@ConditionalOnMissingBean(name="stubFlowRegistrar")
 	@ConditionalOnBean(ChannelBindingServiceProperties.class)
 	public FlowRegistrar stubFlowRegistrar(AutowireCapableBeanFactory beanFactory,
 			BatchStubRunner batchStubRunner) {
-		Map<StubConfiguration, Collection<Contract>> contracts = batchStubRunner
-				.getContracts();
+		Map<String, ContractMessageIndex<String>> contractsByDestination = new LinkedHashMap<>();
+		StreamDestinationChannelResolver channelResolver = channelResolver(beanFactory);
+		Map<StubConfiguration, Collection<Contract>> contracts = StubMessagingContracts
+				.of(batchStubRunner);
 		for (Entry<StubConfiguration, Collection<Contract>> entry : contracts
 				.entrySet()) {
 			StubConfiguration key = entry.getKey();
@@ -85,16 +88,10 @@ public class StubRunnerStreamConfiguration {
 									dsl.getInput().getMessageFrom().getClientValue())) {
 					final String flowName = name + "_" + dsl.getLabel() + "_"
 							+ dsl.hashCode();
-					String from = resolvedDestination(beanFactory,
+					String from = channelResolver.resolveChannelName(
 							dsl.getInput().getMessageFrom().getClientValue());
-					IntegrationFlowBuilder builder = IntegrationFlows.from(from)
-							.filter(new StubRunnerStreamMessageSelector(dsl),
-									new Consumer<FilterEndpointSpec>() {
-										@Override
-										public void accept(FilterEndpointSpec e) {
-											e.id(flowName + ".filter");
-										}
-									})
+					String contractChannel = flowName + ".input";
+					IntegrationFlowBuilder builder = IntegrationFlows.from(contractChannel)
 							.transform(new StubRunnerStreamTransformer(dsl),
 									new Consumer<GenericEndpointSpec<MessageTransformingHandler>>() {
 										@Override
@@ -105,17 +102,16 @@ public class StubRunnerStreamConfiguration {
 									});
 					if (dsl.getOutputMessage() != null
 							&& dsl.getOutputMessage().getSentTo() != null) {
-						builder = builder.channel(resolvedDestination(beanFactory,
+						builder = builder.channel(channelResolver.resolveChannelName(
 								dsl.getOutputMessage().getSentTo().getClientValue()));
 					}
 					else {
 						builder = builder.handle(new DummyMessageHandler(), "handle");
 					}
 					beanFactory.initializeBean(builder.get(), flowName);
-					beanFactory.getBean(flowName + ".filter", Lifecycle.class)
-							.start();
 					beanFactory.getBean(flowName + ".transformer", Lifecycle.class)
 							.start();
+					contractIndex(contractsByDestination, from).add(dsl, contractChannel);
 				} else if (dsl.getOutputMessage() != null
 						&& dsl.getOutputMessage().getSentTo() != null
 						&& StringUtils.hasText(
@@ -125,29 +121,55 @@ public class StubRunnerStreamConfiguration {
 				}
 			}
 		}
+		for (Entry<String, ContractMessageIndex<String>> entry : contractsByDestination
+				.entrySet()) {
+			registerDispatcher(beanFactory, entry.getKey(), entry.getValue());
+		}
 		return new FlowRegistrar();
 	}
 
-	private String resolvedDestination(AutowireCapableBeanFactory context,
-			String destination) {
-		ChannelBindingServiceProperties channelBindingServiceProperties = context
-				.getBean(ChannelBindingServiceProperties.class);
-		for (Map.Entry<String, BindingProperties> entry : channelBindingServiceProperties
-				.getBindings().entrySet()) {
-			if (entry.getValue().getDestination().equals(destination)) {
-				if (log.isDebugEnabled()) {
-					log.debug("Found a channel named [{}] with destination [{}]",
-							entry.getKey(), destination);
-				}
-				return entry.getKey();
-			}
+	private ContractMessageIndex<String> contractIndex(
+			Map<String, ContractMessageIndex<String>> contractsByDestination, String destination) {
+		ContractMessageIndex<String> index = contractsByDestination.get(destination);
+		if (index == null) {
+			index = new ContractMessageIndex<>();
+			contractsByDestination.put(destination, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Registers a single flow per destination that passes the message to the flow of
+	 * the first matching contract
+	 */
+	private void registerDispatcher(AutowireCapableBeanFactory beanFactory,
+			String destination, ContractMessageIndex<String> contractChannels) {
+		final String flowName = "stubRunner_" + destination + "_dispatcher";
+		IntegrationFlow flow = IntegrationFlows.from(destination)
+				.handle(new StubRunnerStreamMessageDispatcher(contractChannels,
+								new BeanFactoryChannelResolver(beanFactory)),
+						new Consumer<GenericEndpointSpec<StubRunnerStreamMessageDispatcher>>() {
+							@Override
+							public void accept(
+									GenericEndpointSpec<StubRunnerStreamMessageDispatcher> e) {
+								e.id(flowName + ".handler");
+							}
+						}).get();
+		beanFactory.initializeBean(flow, flowName);
+		beanFactory.getBean(flowName + ".handler", Lifecycle.class).start();
+	}
+
+	/**
+	 * Shares the resolved destinations with the {@link StreamDestinationChannelResolver}
+	 * bean if there is one
+	 */
+	private StreamDestinationChannelResolver channelResolver(AutowireCapableBeanFactory beanFactory) {
+		try {
+			return beanFactory.getBean(StreamDestinationChannelResolver.class);
 		}
-		if (log.isDebugEnabled()) {
-			log.debug(
-					"No destination named [{}] was found. Assuming that the destination equals the channel name",
-					destination);
+		catch (NoSuchBeanDefinitionException e) {
+			return new StreamDestinationChannelResolver(beanFactory);
 		}
-		return destination;
 	}
 
 	private static class DummyMessageHandler {
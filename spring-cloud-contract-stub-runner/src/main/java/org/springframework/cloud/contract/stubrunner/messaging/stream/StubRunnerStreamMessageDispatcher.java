@@ -0,0 +1,59 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging.stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.contract.stubrunner.messaging.ContractMessageIndex;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.core.DestinationResolver;
+
+/**
+ * Receives all messages sent to a destination and passes each of them to the input
+ * channel of the first DSL that matches the message. Messages that don't match any
+ * DSL are dropped.
+ *
+ * @since 1.0.3
+ */
+class StubRunnerStreamMessageDispatcher implements MessageHandler {
+
+	private static final Logger log = LoggerFactory.getLogger(StubRunnerStreamMessageDispatcher.class);
+
+	private final ContractMessageIndex<String> contractChannels;
+	private final DestinationResolver<MessageChannel> channelResolver;
+
+	StubRunnerStreamMessageDispatcher(ContractMessageIndex<String> contractChannels,
+			DestinationResolver<MessageChannel> channelResolver) {
+		this.contractChannels = contractChannels;
+		this.channelResolver = channelResolver;
+	}
+
+	@Override
+	public void handleMessage(Message<?> message) throws MessagingException {
+		String channel = this.contractChannels.match(message.getHeaders(), message.getPayload());
+		if (channel == null) {
+			if (log.isDebugEnabled()) {
+				log.debug("No contract matches the message [" + message + "]");
+			}
+			return;
+		}
+		this.channelResolver.resolveDestination(channel).send(message);
+	}
+}
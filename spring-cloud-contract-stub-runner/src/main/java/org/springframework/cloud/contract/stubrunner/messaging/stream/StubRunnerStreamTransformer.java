@@ -16,35 +16,34 @@
 
 package org.springframework.cloud.contract.stubrunner.messaging.stream;
 
-import java.util.Map;
-
 import org.springframework.cloud.contract.spec.Contract;
-import org.springframework.cloud.contract.verifier.util.BodyExtractor;
+import org.springframework.cloud.contract.stubrunner.messaging.StubOutputMessage;
 import org.springframework.integration.transformer.GenericTransformer;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
 
 /**
- * Sends forward a message defined in the DSL.
+ * Sends forward a message defined in the DSL. The message is rendered once, when the
+ * transformer gets created.
  *
  * @author Marcin Grzejszczak
  */
 class StubRunnerStreamTransformer implements GenericTransformer<Message<?>, Message<?>> {
 
-	private final Contract groovyDsl;
+	private final StubOutputMessage outputMessage;
 
 	StubRunnerStreamTransformer(Contract groovyDsl) {
-		this.groovyDsl = groovyDsl;
+		this.outputMessage = groovyDsl.getOutputMessage() == null ? null
+				: new StubOutputMessage(groovyDsl.getOutputMessage());
 	}
 
 	@Override
 	public Message<?> transform(Message<?> source) {
-		if (this.groovyDsl.getOutputMessage()==null) {
+		if (this.outputMessage == null) {
 			return source;
 		}
-		String payload = BodyExtractor.extractStubValueFrom(this.groovyDsl.getOutputMessage().getBody());
-		Map<String, Object> headers = this.groovyDsl.getOutputMessage().getHeaders().asStubSideMap();
-		return MessageBuilder.createMessage(payload, new MessageHeaders(headers));
+		return MessageBuilder.createMessage(this.outputMessage.getPayload(),
+				new MessageHeaders(this.outputMessage.getHeaders()));
 	}
 }
@@ -19,6 +19,7 @@ package org.springframework.cloud.contract.stubrunner.server;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.contract.stubrunner.StubNotFoundException;
 import org.springframework.cloud.contract.stubrunner.StubRunning;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -43,15 +44,31 @@ public class HttpStubsController {
 
 	@RequestMapping
 	public Map<String, Integer> stubs() {
-		return this.stubRunning.runStubs().toIvyToPortMapping();
+		return this.stubRunning.findAllRunningStubs().toIvyToPortMapping();
 	}
 
 	@RequestMapping(path = "/{ivy:.*}")
 	public ResponseEntity<Integer> consumer(@PathVariable String ivy) {
-		Integer port = this.stubRunning.runStubs().getPort(ivy);
+		Integer port = this.stubRunning.findAllRunningStubs().getPort(ivy);
+		if (port == null && startStub(ivy)) {
+			port = this.stubRunning.findAllRunningStubs().getPort(ivy);
+		}
 		if (port!=null) {
 			return ResponseEntity.ok(port);
 		}
 		return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 	}
+
+	/**
+	 * Looking up the stub starts it if the stubs are started lazily
+	 */
+	private boolean startStub(String ivy) {
+		try {
+			this.stubRunning.findStubUrl(ivy);
+			return true;
+		}
+		catch (StubNotFoundException | IllegalArgumentException e) {
+			return false;
+		}
+	}
 }
@@ -23,12 +23,16 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.contract.stubrunner.RateControlledTrigger;
 import org.springframework.cloud.contract.stubrunner.StubFinder;
+import org.springframework.cloud.contract.stubrunner.TriggerLoad;
+import org.springframework.cloud.contract.stubrunner.TriggerLoadReport;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -68,6 +72,19 @@ public class TriggerController {
 		}
 	}
 
+	/**
+	 * Triggers the labels at the given rate, e.g. to put load on a consumer, and returns
+	 * once all the messages got sent
+	 */
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+	public TriggerLoadReport triggerLoad(@RequestBody TriggerLoad load) {
+		try {
+			return new RateControlledTrigger(this.stubFinder).trigger(load);
+		} catch (Exception e) {
+			throw new RuntimeException("Exception occurred while trying to trigger " + load + ". \n\nAvailable labels are [" + this.stubFinder.labels() +" ]", e);
+		}
+	}
+
 	@GetMapping
 	public Map<String, Collection<String>> labels() {
 		return this.stubFinder.labels();
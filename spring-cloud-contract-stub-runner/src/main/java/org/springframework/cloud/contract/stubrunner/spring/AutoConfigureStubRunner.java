@@ -69,4 +69,78 @@ public @interface AutoConfigureStubRunner {
 	 * The classifier to use by default in ivy co-ordinates for a stub.
 	 */
 	String classifier() default "stubs";
+
+	/**
+	 * Number of threads used to download and start the stubs. With a value greater
+	 * than 1 the stubs are downloaded, unpacked and started in parallel.
+	 */
+	int startupThreads() default 1;
+
+	/**
+	 * Directory in which the unpacked stub JARs are cached and reused between runs and JVMs.
+	 * If not set the stubs are unpacked to a fresh temporary folder each time.
+	 */
+	String stubsCacheDirectory() default "";
+
+	/**
+	 * Max size in megabytes of the unpacked stubs cache. Least recently used entries
+	 * are removed when the size gets exceeded.
+	 */
+	long stubsCacheMaxSizeMb() default 1024;
+
+	/**
+	 * If false the stub mappings and contracts are read directly from the downloaded JAR
+	 * without unpacking it to disk first.
+	 */
+	boolean unpackStubs() default true;
+
+	/**
+	 * If true the stubs without an explicit port bind to a free port picked by the
+	 * operating system instead of scanning the min / max port range.
+	 */
+	boolean dynamicPorts() default false;
+
+	/**
+	 * If true all the stubs without an explicit port are hosted by a single HTTP server,
+	 * each of them under the /artifactId path (or /groupId/artifactId if the artifact id
+	 * is not unique).
+	 */
+	boolean sharedServer() default false;
+
+	/**
+	 * Max number of threads of each stub server's thread pool. If not set the WireMock
+	 * default is used.
+	 */
+	int containerThreads() default 0;
+
+	/**
+	 * Number of acceptor threads of each stub server. If not set the WireMock default is used.
+	 */
+	int acceptors() default 0;
+
+	/**
+	 * Size of the queue of connections waiting to be accepted by each stub server. If not
+	 * set the WireMock default is used.
+	 */
+	int acceptQueueSize() default 0;
+
+	/**
+	 * If true the stub JARs are downloaded and the stub servers are started on first
+	 * lookup of a stub (via the discovery client, Ribbon, the stub finder or the
+	 * stubrunner.runningstubs properties) instead of on startup.
+	 */
+	boolean lazyStartup() default false;
+
+	/**
+	 * If true the stubs are downloaded and started in a background thread while the rest
+	 * of the context gets initialized. Looking up a stub waits until the stubs are started.
+	 * Ignored if the stubs are started lazily.
+	 */
+	boolean asyncStartup() default false;
+
+	/**
+	 * If true the folders with the unpacked stubs are watched for changes. Changed
+	 * mappings and contracts are reloaded without restarting the stub servers.
+	 */
+	boolean watchStubs() default false;
 }
@@ -0,0 +1,75 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner.spring;
+
+import java.net.URL;
+
+import org.springframework.cloud.contract.stubrunner.StubFinder;
+import org.springframework.cloud.contract.stubrunner.StubNotFoundException;
+import org.springframework.core.env.PropertySource;
+
+/**
+ * Resolves the {@code stubrunner.runningstubs.<artifactId>.port} and
+ * {@code stubrunner.runningstubs.<artifactId>.path} properties by looking up the stub.
+ * With lazy startup the lookup downloads and starts the stub when the property is
+ * read for the first time. With async startup the lookup waits until the stubs got
+ * started in the background.
+ *
+ * @since 1.0.3
+ */
+class RunningStubsPropertySource extends PropertySource<StubFinder> {
+
+	private static final String PORT_SUFFIX = ".port";
+	private static final String PATH_SUFFIX = ".path";
+
+	private final String prefix;
+
+	RunningStubsPropertySource(String name, StubFinder stubFinder) {
+		super(name, stubFinder);
+		this.prefix = name + ".";
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		if (!name.startsWith(this.prefix)) {
+			return null;
+		}
+		String key = name.substring(this.prefix.length());
+		if (key.endsWith(PORT_SUFFIX)) {
+			URL url = findStubUrl(key.substring(0, key.length() - PORT_SUFFIX.length()));
+			return url != null ? url.getPort() : null;
+		}
+		if (key.endsWith(PATH_SUFFIX)) {
+			URL url = findStubUrl(key.substring(0, key.length() - PATH_SUFFIX.length()));
+			return url != null && !url.getPath().isEmpty() ? url.getPath() : null;
+		}
+		return null;
+	}
+
+	private URL findStubUrl(String artifactId) {
+		if (artifactId.isEmpty() || artifactId.contains(":")) {
+			return null;
+		}
+		try {
+			return getSource().findStubUrl(artifactId);
+		}
+		catch (StubNotFoundException e) {
+			return null;
+		}
+	}
+}
@@ -63,7 +63,10 @@ public class StubRunnerConfiguration {
 	/**
 	 * Bean that initializes stub runners, runs them and on shutdown closes them. Upon its
 	 * instantiation JAR with stubs is downloaded and unpacked to a temporary folder and
-	 * WireMock server are started for each of those stubs
+	 * WireMock server are started for each of those stubs. With lazy startup a stub is
+	 * downloaded and started only once it gets looked up. With async startup the stubs
+	 * are started in the background and the lookups wait until they are ready - see
+	 * {@link BatchStubRunner#runStubsAsync()}
 	 */
 	@Bean
 	public BatchStubRunner batchStubRunner() throws IOException {
@@ -74,18 +77,50 @@ public class StubRunnerConfiguration {
 				.withWorkOffline(this.props.isWorkOffline())
 				.withStubsClassifier(this.props.getClassifier())
 				.withStubs(this.props.getIds())
+				.withStartupThreads(this.props.getStartupThreads())
+				.withStubsCacheDirectory(this.props.getStubsCacheDirectory())
+				.withStubsCacheMaxSizeMb(this.props.getStubsCacheMaxSizeMb())
+				.withUnpackStubs(this.props.isUnpackStubs())
+				.withDynamicPorts(this.props.isDynamicPorts())
+				.withSharedServer(this.props.isSharedServer())
+				.withContainerThreads(this.props.getContainerThreads())
+				.withAcceptors(this.props.getAcceptors())
+				.withAcceptQueueSize(this.props.getAcceptQueueSize())
+				.withLazyStartup(this.props.isLazyStartup())
+				.withAsyncStartup(this.props.isAsyncStartup())
+				.withWatchStubs(this.props.isWatchStubs())
 				.build();
 		BatchStubRunner batchStubRunner = new BatchStubRunnerFactory(stubRunnerOptions,
 				this.stubDownloader != null ? this.stubDownloader
 						: new AetherStubDownloader(stubRunnerOptions),
 				this.contractVerifierMessaging != null ? this.contractVerifierMessaging
 						: new NoOpStubMessages()).buildBatchStubRunner();
-		// TODO: Consider running it in a separate thread
+		if (stubRunnerOptions.isLazyStartup()) {
+			registerLazyPorts(batchStubRunner);
+			return batchStubRunner;
+		}
+		if (stubRunnerOptions.isAsyncStartup()) {
+			batchStubRunner.runStubsAsync();
+			registerLazyPorts(batchStubRunner);
+			return batchStubRunner;
+		}
 		RunningStubs runningStubs = batchStubRunner.runStubs();
 		registerPort(runningStubs);
 		return batchStubRunner;
 	}
 
+	private void registerLazyPorts(BatchStubRunner batchStubRunner) {
+		MutablePropertySources propertySources = this.environment.getPropertySources();
+		RunningStubsPropertySource propertySource = new RunningStubsPropertySource(
+				STUBRUNNER_PREFIX, batchStubRunner);
+		if (propertySources.contains(STUBRUNNER_PREFIX)) {
+			propertySources.replace(STUBRUNNER_PREFIX, propertySource);
+		}
+		else {
+			propertySources.addFirst(propertySource);
+		}
+	}
+
 	private String uriStringOrEmpty(Resource stubRepositoryRoot) throws IOException {
 		return stubRepositoryRoot != null ? stubRepositoryRoot.getURI().toString() : "";
 	}
@@ -101,6 +136,9 @@ public class StubRunnerConfiguration {
 		for (Map.Entry<StubConfiguration, Integer> entry : runStubs.validNamesAndPorts().entrySet()) {
 			source.put(STUBRUNNER_PREFIX + "." + entry.getKey().getArtifactId() + ".port", entry.getValue());
 		}
+		for (Map.Entry<StubConfiguration, String> entry : runStubs.getPathPrefixes().entrySet()) {
+			source.put(STUBRUNNER_PREFIX + "." + entry.getKey().getArtifactId() + ".path", entry.getValue());
+		}
 	}
 
 }
@@ -65,6 +65,80 @@ public class StubRunnerProperties {
 	 */
 	private String contextPath = "";
 
+	/**
+	 * Number of threads used to download and start the stubs. With a value greater
+	 * than 1 the stubs are downloaded, unpacked and started in parallel.
+	 */
+	private int startupThreads = 1;
+
+	/**
+	 * Directory in which the unpacked stub JARs are cached and reused between runs and JVMs.
+	 * If not set the stubs are unpacked to a fresh temporary folder each time.
+	 */
+	private String stubsCacheDirectory = "";
+
+	/**
+	 * Max size in megabytes of the unpacked stubs cache. Least recently used entries
+	 * are removed when the size gets exceeded.
+	 */
+	private long stubsCacheMaxSizeMb = 1024;
+
+	/**
+	 * If false the stub mappings and contracts are read directly from the downloaded JAR
+	 * without unpacking it to disk first.
+	 */
+	private boolean unpackStubs = true;
+
+	/**
+	 * If true the stubs without an explicit port bind to a free port picked by the
+	 * operating system instead of scanning the min / max port range.
+	 */
+	private boolean dynamicPorts = false;
+
+	/**
+	 * If true all the stubs without an explicit port are hosted by a single HTTP server,
+	 * each of them under the /artifactId path (or /groupId/artifactId if the artifact id
+	 * is not unique).
+	 */
+	private boolean sharedServer = false;
+
+	/**
+	 * Max number of threads of each stub server's thread pool. If not set the WireMock
+	 * default is used.
+	 */
+	private int containerThreads = 0;
+
+	/**
+	 * Number of acceptor threads of each stub server. If not set the WireMock default is used.
+	 */
+	private int acceptors = 0;
+
+	/**
+	 * Size of the queue of connections waiting to be accepted by each stub server. If not
+	 * set the WireMock default is used.
+	 */
+	private int acceptQueueSize = 0;
+
+	/**
+	 * If true the stub JARs are downloaded and the stub servers are started on first
+	 * lookup of a stub (via the discovery client, Ribbon, the stub finder or the
+	 * stubrunner.runningstubs properties) instead of on startup.
+	 */
+	private boolean lazyStartup = false;
+
+	/**
+	 * If true the stubs are downloaded and started in a background thread while the rest
+	 * of the context gets initialized. Looking up a stub waits until the stubs are started.
+	 * Ignored if the stubs are started lazily.
+	 */
+	private boolean asyncStartup = false;
+
+	/**
+	 * If true the folders with the unpacked stubs are watched for changes. Changed
+	 * mappings and contracts are reloaded without restarting the stub servers.
+	 */
+	private boolean watchStubs = false;
+
 	public int getMinPort() {
 		return this.minPort;
 	}
@@ -121,10 +195,117 @@ public class StubRunnerProperties {
 		this.contextPath = contextPath;
 	}
 
+	public int getStartupThreads() {
+		return this.startupThreads;
+	}
+
+	public void setStartupThreads(int startupThreads) {
+		this.startupThreads = startupThreads;
+	}
+
+	public String getStubsCacheDirectory() {
+		return this.stubsCacheDirectory;
+	}
+
+	public void setStubsCacheDirectory(String stubsCacheDirectory) {
+		this.stubsCacheDirectory = stubsCacheDirectory;
+	}
+
+	public long getStubsCacheMaxSizeMb() {
+		return this.stubsCacheMaxSizeMb;
+	}
+
+	public void setStubsCacheMaxSizeMb(long stubsCacheMaxSizeMb) {
+		this.stubsCacheMaxSizeMb = stubsCacheMaxSizeMb;
+	}
+
+	public boolean isUnpackStubs() {
+		return this.unpackStubs;
+	}
+
+	public void setUnpackStubs(boolean unpackStubs) {
+		this.unpackStubs = unpackStubs;
+	}
+
+	public boolean isDynamicPorts() {
+		return this.dynamicPorts;
+	}
+
+	public void setDynamicPorts(boolean dynamicPorts) {
+		this.dynamicPorts = dynamicPorts;
+	}
+
+	public boolean isSharedServer() {
+		return this.sharedServer;
+	}
+
+	public void setSharedServer(boolean sharedServer) {
+		this.sharedServer = sharedServer;
+	}
+
+	public int getContainerThreads() {
+		return this.containerThreads;
+	}
+
+	public void setContainerThreads(int containerThreads) {
+		this.containerThreads = containerThreads;
+	}
+
+	public int getAcceptors() {
+		return this.acceptors;
+	}
+
+	public void setAcceptors(int acceptors) {
+		this.acceptors = acceptors;
+	}
+
+	public int getAcceptQueueSize() {
+		return this.acceptQueueSize;
+	}
+
+	public void setAcceptQueueSize(int acceptQueueSize) {
+		this.acceptQueueSize = acceptQueueSize;
+	}
+
+	public boolean isLazyStartup() {
+		return this.lazyStartup;
+	}
+
+	public void setLazyStartup(boolean lazyStartup) {
+		this.lazyStartup = lazyStartup;
+	}
+
+	public boolean isAsyncStartup() {
+		return this.asyncStartup;
+	}
+
+	public void setAsyncStartup(boolean asyncStartup) {
+		this.asyncStartup = asyncStartup;
+	}
+
+	public boolean isWatchStubs() {
+		return this.watchStubs;
+	}
+
+	public void setWatchStubs(boolean watchStubs) {
+		this.watchStubs = watchStubs;
+	}
+
 	@Override public String toString() {
 		return "StubRunnerProperties{" + "minPort=" + this.minPort + ", maxPort=" + this.maxPort
 				+ ", workOffline=" + this.workOffline + ", repositoryRoot=" + this.repositoryRoot
 				+ ", ids=" + Arrays.toString(this.ids) + ", classifier='" + this.classifier + '\''
-				+ '}';
+				+ ", startupThreads=" + this.startupThreads
+				+ ", stubsCacheDirectory=" + this.stubsCacheDirectory
+				+ ", stubsCacheMaxSizeMb=" + this.stubsCacheMaxSizeMb
+				+ ", unpackStubs=" + this.unpackStubs
+				+ ", dynamicPorts=" + this.dynamicPorts
+				+ ", sharedServer=" + this.sharedServer
+				+ ", containerThreads=" + this.containerThreads
+				+ ", acceptors=" + this.acceptors
+				+ ", acceptQueueSize=" + this.acceptQueueSize
+				+ ", lazyStartup=" + this.lazyStartup
+				+ ", asyncStartup=" + this.asyncStartup
+				+ ", watchStubs=" + this.watchStubs + '}';
 	}
 }
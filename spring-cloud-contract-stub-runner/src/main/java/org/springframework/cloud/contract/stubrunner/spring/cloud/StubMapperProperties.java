@@ -16,8 +16,12 @@
 
 package org.springframework.cloud.contract.stubrunner.spring.cloud;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.contract.stubrunner.StubConfiguration;
@@ -49,14 +53,23 @@ public class StubMapperProperties {
 	 * "a:b"			->		"myService"
 	 * "artifactId"		->		"myOtherService"
 	 */
-	private Map<String, String> idsToServiceIds = new HashMap<>();
+	private final IdsToServiceIds idsToServiceIds = new IdsToServiceIds();
 
 	public Map<String, String> getIdsToServiceIds() {
 		return this.idsToServiceIds;
 	}
 
+	/**
+	 * Copies the given mapping, so later changes of the passed map are not visible
+	 */
 	public void setIdsToServiceIds(Map<String, String> idsToServiceIds) {
-		this.idsToServiceIds = idsToServiceIds;
+		if (idsToServiceIds == this.idsToServiceIds) {
+			return;
+		}
+		this.idsToServiceIds.clear();
+		if (idsToServiceIds != null) {
+			this.idsToServiceIds.putAll(idsToServiceIds);
+		}
 	}
 
 	public String fromIvyNotationToId(String ivyNotation) {
@@ -74,11 +87,123 @@ public class StubMapperProperties {
 	}
 
 	public String fromServiceIdToIvyNotation(String serviceId) {
-		for (Map.Entry<String, String> entry : this.idsToServiceIds.entrySet()) {
-			if (entry.getValue().equals(serviceId)) {
-				return entry.getKey();
+		return this.idsToServiceIds.fromServiceId(serviceId);
+	}
+
+	/**
+	 * Mapping of ids to service ids that keeps the reverse mapping. Every change - also
+	 * through the entry, key and value views - bumps the version of the mapping, so the
+	 * reverse mapping built for an older version gets rebuilt on the next lookup. If many
+	 * ids map to the same service id then the first one wins.
+	 */
+	private static class IdsToServiceIds extends AbstractMap<String, String> {
+
+		private final Map<String, String> idsToServiceIds = new HashMap<>();
+		private volatile int version;
+		private volatile ServiceIdsIndex serviceIdsIndex;
+
+		@Override
+		public String get(Object key) {
+			return this.idsToServiceIds.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return this.idsToServiceIds.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return this.idsToServiceIds.size();
+		}
+
+		@Override
+		public String put(String key, String value) {
+			String previous = this.idsToServiceIds.put(key, value);
+			changed();
+			return previous;
+		}
+
+		@Override
+		public String remove(Object key) {
+			String previous = this.idsToServiceIds.remove(key);
+			changed();
+			return previous;
+		}
+
+		@Override
+		public void clear() {
+			this.idsToServiceIds.clear();
+			changed();
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			return new AbstractSet<Entry<String, String>>() {
+				@Override
+				public Iterator<Entry<String, String>> iterator() {
+					final Iterator<Entry<String, String>> entries = IdsToServiceIds.this.idsToServiceIds.entrySet().iterator();
+					return new Iterator<Entry<String, String>>() {
+						@Override
+						public boolean hasNext() {
+							return entries.hasNext();
+						}
+
+						@Override
+						public Entry<String, String> next() {
+							final Entry<String, String> entry = entries.next();
+							return new SimpleEntry<String, String>(entry) {
+								@Override
+								public String setValue(String value) {
+									super.setValue(value);
+									String previous = entry.setValue(value);
+									changed();
+									return previous;
+								}
+							};
+						}
+
+						@Override
+						public void remove() {
+							entries.remove();
+							changed();
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return IdsToServiceIds.this.idsToServiceIds.size();
+				}
+			};
+		}
+
+		String fromServiceId(String serviceId) {
+			ServiceIdsIndex index = this.serviceIdsIndex;
+			if (index == null || index.version != this.version) {
+				index = new ServiceIdsIndex(this.version, this.idsToServiceIds);
+				this.serviceIdsIndex = index;
+			}
+			return index.serviceIdsToIds.get(serviceId);
+		}
+
+		private void changed() {
+			this.version++;
+		}
+	}
+
+	private static class ServiceIdsIndex {
+
+		final int version;
+		final Map<String, String> serviceIdsToIds = new HashMap<>();
+
+		ServiceIdsIndex(int version, Map<String, String> idsToServiceIds) {
+			this.version = version;
+			for (Map.Entry<String, String> entry : idsToServiceIds.entrySet()) {
+				if (entry.getValue() != null && !this.serviceIdsToIds.containsKey(entry.getValue())) {
+					this.serviceIdsToIds.put(entry.getValue(), entry.getKey());
+				}
 			}
 		}
-		return null;
 	}
 }
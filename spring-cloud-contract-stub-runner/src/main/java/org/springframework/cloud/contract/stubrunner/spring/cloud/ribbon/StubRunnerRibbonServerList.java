@@ -27,6 +27,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.cloud.contract.stubrunner.RunningStubs;
 import org.springframework.cloud.contract.stubrunner.StubConfiguration;
 import org.springframework.cloud.contract.stubrunner.StubFinder;
+import org.springframework.cloud.contract.stubrunner.StubNotFoundException;
 import org.springframework.cloud.contract.stubrunner.spring.cloud.StubMapperProperties;
 import org.springframework.cloud.contract.stubrunner.util.StringUtils;
 
@@ -54,10 +55,12 @@ class StubRunnerRibbonServerList implements ServerList<Server> {
 		String mappedServiceName = StringUtils
 				.hasText(stubMapperProperties.fromServiceIdToIvyNotation(serviceName)) ?
 				stubMapperProperties.fromServiceIdToIvyNotation(serviceName) : serviceName;
+		startStubIfLazy(stubFinder, mappedServiceName);
 		RunningStubs runningStubs = stubFinder.findAllRunningStubs();
 		final Map.Entry<StubConfiguration, Integer> entry = runningStubs.getEntry(mappedServiceName);
 		final Collection<Server> servers = new ArrayList<>();
 		if (entry != null) {
+			failIfHostedUnderPath(runningStubs, entry.getKey(), serviceName);
 			servers.add(new Server("localhost", entry.getValue()) {
 				@Override
 				public MetaInfo getMetaInfo() {
@@ -116,6 +119,35 @@ class StubRunnerRibbonServerList implements ServerList<Server> {
 		};
 	}
 
+	/**
+	 * Ribbon hands out hosts and ports only, so the requests to a stub hosted on a shared
+	 * server under a path would end up with 404s
+	 */
+	private static void failIfHostedUnderPath(RunningStubs runningStubs,
+			StubConfiguration stubConfiguration, String serviceName) {
+		String pathPrefix = runningStubs.getPathPrefixes().get(stubConfiguration);
+		if (StringUtils.hasText(pathPrefix)) {
+			throw new IllegalStateException("The stub [" + stubConfiguration.toColonSeparatedDependencyNotation()
+					+ "] of service [" + serviceName + "] is hosted on the shared server under the [" + pathPrefix
+					+ "] path which can't be reached via Ribbon. Either set an explicit port for the stub, "
+					+ "turn off [stubrunner.sharedServer] or set [stubrunner.cloud.ribbon.enabled] to false");
+		}
+	}
+
+	/**
+	 * Looking up the stub starts it if the stubs are started lazily. Otherwise
+	 * {@link StubFinder#findAllRunningStubs()} wouldn't contain it
+	 */
+	private static void startStubIfLazy(StubFinder stubFinder, String serviceName) {
+		try {
+			stubFinder.findStubUrl(serviceName);
+		} catch (StubNotFoundException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("No stub found for service [" + serviceName + "]");
+			}
+		}
+	}
+
 	@Override
 	public List<Server> getInitialListOfServers() {
 		return this.serverList.getInitialListOfServers();
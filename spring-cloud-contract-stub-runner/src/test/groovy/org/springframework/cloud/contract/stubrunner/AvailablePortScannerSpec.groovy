@@ -16,10 +16,15 @@
 
 package org.springframework.cloud.contract.stubrunner
 
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
 import spock.lang.Specification
 
 class AvailablePortScannerSpec extends Specification {
 
+	@Rule
+	TemporaryFolder tmpFolder = new TemporaryFolder()
+
 	private static final int MIN_PORT = 8989
 	private static final int MAX_PORT = 8990
 	private static final int MAX_RETRY_COUNT_FOR_NEGATIVE_SCENARIOS = 2
@@ -32,6 +37,8 @@ class AvailablePortScannerSpec extends Specification {
 		then:
 		noExceptionThrown()
 		usedPort == MIN_PORT || MAX_PORT
+		cleanup:
+		portScanner.releasePort(usedPort)
 	}
 
 	def 'should execute given closure with the available port from specified range'() {
@@ -42,6 +49,8 @@ class AvailablePortScannerSpec extends Specification {
 		then:
 		noExceptionThrown()
 		usedPort == MIN_PORT
+		cleanup:
+		portScanner.releasePort(usedPort)
 	}
 
 	def 'should throw exception when improper range has been provided'() {
@@ -67,4 +76,35 @@ class AvailablePortScannerSpec extends Specification {
 		def ex = thrown(AvailablePortScanner.NoPortAvailableException)
 		ex.message == "Could not find available port in range $MIN_PORT:$MAX_PORT"
 	}
+
+	def 'should not pick a port leased by another scanner using the same registry folder'() {
+		given:
+		File leases = tmpFolder.newFolder('leases')
+		AvailablePortScanner first = new AvailablePortScanner(MIN_PORT, MAX_PORT,
+				MAX_RETRY_COUNT_FOR_NEGATIVE_SCENARIOS * 100, new PortLeaseRegistry(leases))
+		AvailablePortScanner second = new AvailablePortScanner(MIN_PORT, MAX_PORT,
+				MAX_RETRY_COUNT_FOR_NEGATIVE_SCENARIOS * 100, new PortLeaseRegistry(leases))
+		when:
+		int firstPort = first.tryToExecuteWithFreePort { int port -> port }
+		int secondPort = second.tryToExecuteWithFreePort { int port -> port }
+		then:
+		firstPort != secondPort
+		cleanup:
+		first.releasePort(firstPort)
+		second.releasePort(secondPort)
+	}
+
+	def 'should release the lease when the closure fails'() {
+		given:
+		PortLeaseRegistry registry = new PortLeaseRegistry(tmpFolder.newFolder('leases'))
+		AvailablePortScanner portScanner = new AvailablePortScanner(MIN_PORT, MIN_PORT,
+				MAX_RETRY_COUNT_FOR_NEGATIVE_SCENARIOS, registry)
+		when:
+		portScanner.tryToExecuteWithFreePort {
+			throw new BindException('Bind exception from closure')
+		}
+		then:
+		thrown(AvailablePortScanner.NoPortAvailableException)
+		!registry.isLeased(MIN_PORT)
+	}
 }
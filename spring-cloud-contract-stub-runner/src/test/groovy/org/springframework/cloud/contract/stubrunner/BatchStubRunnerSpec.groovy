@@ -16,6 +16,12 @@
 
 package org.springframework.cloud.contract.stubrunner
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import org.springframework.cloud.contract.spec.Contract
+import org.springframework.util.concurrent.ListenableFuture
+
 import spock.lang.Specification
 
 class BatchStubRunnerSpec extends Specification {
@@ -50,6 +56,129 @@ class BatchStubRunnerSpec extends Specification {
 		exception.message == "No label with name [non existing label] was found. Here you have the list of dependencies and their labels [Dependency [a:b:c] has labels [foo]]"
 	}
 
+	def 'should start stub runners in parallel and return running stubs in order'() {
+		given:
+		StubRunner first = Mock(StubRunner)
+		first.runStubs() >> new RunningStubs([(new StubConfiguration('a:b')) : 1000])
+		StubRunner second = Mock(StubRunner)
+		second.runStubs() >> new RunningStubs([(new StubConfiguration('c:d')) : 2000])
+		BatchStubRunner batchStubRunner = new BatchStubRunner([first, second], 2)
+		when:
+		RunningStubs runningStubs = batchStubRunner.runStubs()
+		then:
+		runningStubs.toIvyToPortMapping().keySet().toList() == ['a:b:+:stubs', 'c:d:+:stubs']
+		runningStubs.getPort('b') == 1000
+		runningStubs.getPort('d') == 2000
+	}
+
+	def 'should aggregate failures of stub runners started in parallel'() {
+		given:
+		StubRunner first = Mock(StubRunner)
+		first.runStubs() >> { throw new IllegalStateException('first') }
+		StubRunner second = Mock(StubRunner)
+		second.runStubs() >> { throw new IllegalStateException('second') }
+		BatchStubRunner batchStubRunner = new BatchStubRunner([first, second], 2)
+		when:
+		batchStubRunner.runStubs()
+		then:
+		IllegalStateException exception = thrown(IllegalStateException)
+		exception.message.startsWith('Failed to start the following stubs')
+		exception.cause.message == 'first'
+		exception.suppressed*.message == ['second']
+	}
+
+	def 'should start stub runners in background and wait for them on lookup'() {
+		given:
+		CountDownLatch started = new CountDownLatch(1)
+		StubRunner runner = Mock(StubRunner)
+		runner.runStubs() >> {
+			started.await(5, TimeUnit.SECONDS)
+			return new RunningStubs([(new StubConfiguration('a:b')) : 1000])
+		}
+		runner.findStubUrl('b') >> new URL('http://localhost:1000')
+		BatchStubRunner batchStubRunner = new BatchStubRunner([runner])
+		when:
+		ListenableFuture<RunningStubs> future = batchStubRunner.runStubsAsync()
+		then:
+		!future.done
+		batchStubRunner.runStubsAsync().is(future)
+		when:
+		started.countDown()
+		then:
+		batchStubRunner.findStubUrl('b') == new URL('http://localhost:1000')
+		future.done
+		future.get().getPort('b') == 1000
+		batchStubRunner.runStubs().getPort('b') == 1000
+	}
+
+	def 'should rethrow the failure of the background startup on lookup'() {
+		given:
+		StubRunner runner = Mock(StubRunner)
+		runner.runStubs() >> { throw new IllegalStateException('failed') }
+		BatchStubRunner batchStubRunner = new BatchStubRunner([runner])
+		batchStubRunner.runStubsAsync()
+		when:
+		batchStubRunner.findStubUrl('b')
+		then:
+		IllegalStateException exception = thrown(IllegalStateException)
+		exception.message == 'failed'
+	}
+
+	def 'should reuse the merged running stubs until any of the stub runners changes'() {
+		given:
+		RunningStubs first = new RunningStubs([(new StubConfiguration('a:b')) : 1000])
+		RunningStubs second = new RunningStubs([(new StubConfiguration('c:d')) : 2000])
+		StubRunner runner = Mock(StubRunner)
+		runner.findAllRunningStubs() >>> [first, first, second]
+		BatchStubRunner batchStubRunner = new BatchStubRunner([runner])
+		when:
+		RunningStubs merged = batchStubRunner.findAllRunningStubs()
+		then:
+		batchStubRunner.findAllRunningStubs().is(merged)
+		merged.getPort('b') == 1000
+		when:
+		RunningStubs changed = batchStubRunner.findAllRunningStubs()
+		then:
+		!changed.is(merged)
+		changed.getPort('d') == 2000
+	}
+
+	def 'should merge the contracts of the same stub by identity and cache the merged view'() {
+		given:
+		StubConfiguration stub = new StubConfiguration('a:b')
+		Contract shared = Contract.make { label 'foo' }
+		Contract other = Contract.make { label 'bar' }
+		StubRunner first = Mock(StubRunner)
+		first.getContracts() >> [(stub) : [shared]]
+		first.labels() >> ['a:b' : ['foo']]
+		StubRunner second = Mock(StubRunner)
+		second.getContracts() >> [(stub) : [shared, other]]
+		second.labels() >> ['a:b' : ['foo', 'bar']]
+		BatchStubRunner batchStubRunner = new BatchStubRunner([first, second])
+		when:
+		Map<StubConfiguration, Collection<Contract>> contracts = batchStubRunner.getContracts()
+		then:
+		contracts[stub].size() == 2
+		contracts[stub][0].is(shared)
+		contracts[stub][1].is(other)
+		and:
+		batchStubRunner.labels() == ['a:b' : ['foo', 'bar'] as LinkedHashSet]
+	}
+
+	def 'should reuse the merged contracts until any of the stub runners changes them'() {
+		given:
+		Map<StubConfiguration, Collection<Contract>> before = [(new StubConfiguration('a:b')) : [Contract.make {}]]
+		Map<StubConfiguration, Collection<Contract>> after = [(new StubConfiguration('a:b')) : [Contract.make {}]]
+		StubRunner runner = Mock(StubRunner)
+		runner.getContracts() >>> [before, before, after]
+		BatchStubRunner batchStubRunner = new BatchStubRunner([runner])
+		when:
+		Map<StubConfiguration, Collection<Contract>> merged = batchStubRunner.getContracts()
+		then:
+		batchStubRunner.getContracts().is(merged)
+		!batchStubRunner.getContracts().is(merged)
+	}
+
 	Collection<StubRunner> runners() {
 		StubRunner runner = Mock(StubRunner)
 		runner.findStubUrl("group", "knownArtifact") >> KNOWN_STUB_URL
@@ -0,0 +1,131 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+import org.springframework.cloud.contract.verifier.messaging.noop.NoOpStubMessages
+
+import spock.lang.Specification
+
+class LazyStubRunnerSpec extends Specification {
+
+	StubDownloader downloader = Mock(StubDownloader)
+	StubRunnerOptions stubRunnerOptions = new StubRunnerOptionsBuilder()
+			.withStubs("groupId:artifactId,otherGroupId:otherArtifactId")
+			.withDynamicPorts(true)
+			.withLazyStartup(true)
+			.build()
+	StubRunnerFactory factory = new StubRunnerFactory(stubRunnerOptions, downloader, new NoOpStubMessages())
+
+	def 'should not download the stubs until they are looked up'() {
+		when:
+			BatchStubRunner runner = new BatchStubRunnerFactory(stubRunnerOptions, downloader).buildBatchStubRunner()
+		then:
+			0 * downloader.downloadAndUnpackStubJar(_, _)
+			runner.findAllRunningStubs().allServicesNames.empty
+		cleanup:
+			runner?.close()
+	}
+
+	def 'should download and start only the looked up stub'() {
+		given:
+			BatchStubRunner runner = new BatchStubRunner(factory.createLazyStubsFromServiceConfiguration())
+		when:
+			URL url = runner.findStubUrl('artifactId')
+		then:
+			1 * downloader.downloadAndUnpackStubJar(_, { it.artifactId == 'artifactId' }) >> stubJar('groupId:artifactId')
+			0 * downloader.downloadAndUnpackStubJar(_, _)
+			url.port > 0
+			runner.findAllRunningStubs().getPort('artifactId') == url.port
+			runner.findAllRunningStubs().getPort('otherArtifactId') == null
+		cleanup:
+			runner.close()
+	}
+
+	def 'should return the contracts of the started stubs only without starting the other ones'() {
+		given:
+			BatchStubRunner runner = new BatchStubRunner(factory.createLazyStubsFromServiceConfiguration())
+		expect:
+			runner.notStartedStubs*.artifactId == ['artifactId', 'otherArtifactId']
+			runner.contractsOfStartedStubs.isEmpty()
+		when:
+			runner.findStubUrl('artifactId')
+		then:
+			1 * downloader.downloadAndUnpackStubJar(_, { it.artifactId == 'artifactId' }) >> stubJar('groupId:artifactId')
+			0 * downloader.downloadAndUnpackStubJar(_, _)
+		and:
+			runner.notStartedStubs*.artifactId == ['otherArtifactId']
+			runner.contractsOfStartedStubs.keySet()*.artifactId == ['artifactId']
+		cleanup:
+			runner.close()
+	}
+
+	def 'should not start a stub whose group id does not match'() {
+		given:
+			LazyStubRunner runner = new LazyStubRunner(new StubConfiguration('groupId:artifactId'), factory)
+		when:
+			runner.findStubUrl('otherGroupId', 'artifactId')
+		then:
+			thrown(StubNotFoundException)
+			0 * downloader.downloadAndUnpackStubJar(_, _)
+			!runner.started
+	}
+
+	def 'should throw an exception when no stub JAR was found'() {
+		given:
+			LazyStubRunner runner = new LazyStubRunner(new StubConfiguration('groupId:artifactId'), factory)
+		when:
+			runner.findStubUrl('groupId:artifactId')
+		then:
+			1 * downloader.downloadAndUnpackStubJar(_, _) >> null
+			thrown(StubNotFoundException)
+	}
+
+	def 'should download and start the stub once for concurrent first lookups'() {
+		given:
+			LazyStubRunner runner = new LazyStubRunner(new StubConfiguration('groupId:artifactId'), factory)
+			int threads = 8
+			CountDownLatch latch = new CountDownLatch(1)
+			ExecutorService executorService = Executors.newFixedThreadPool(threads)
+		when:
+			List<Future<URL>> futures = (1..threads).collect {
+				executorService.submit({
+					latch.await()
+					return runner.findStubUrl('groupId', 'artifactId')
+				} as Callable<URL>)
+			}
+			latch.countDown()
+			Set<URL> urls = futures.collect { it.get() } as Set
+		then:
+			1 * downloader.downloadAndUnpackStubJar(_, _) >> stubJar('groupId:artifactId')
+			urls.size() == 1
+			runner.started
+		cleanup:
+			executorService.shutdownNow()
+			runner.close()
+	}
+
+	private Map.Entry<StubConfiguration, File> stubJar(String ivyNotation) {
+		return new AbstractMap.SimpleEntry(new StubConfiguration(ivyNotation), new File('src/test/resources/repository'))
+	}
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.contract.stubrunner
 
+import java.util.regex.Pattern
+
 import com.github.tomakehurst.wiremock.http.RequestMethod
 import spock.lang.Specification
 
@@ -36,4 +38,49 @@ class MappingDescriptorSpec extends Specification {
 			response.headers.contentTypeHeader.mimeTypePart() == 'text/plain'
 		}
 	}
+
+	def 'should move the mapping under the path prefix'() {
+		given:
+		WiremockMappingDescriptor mappingDescriptor = new WiremockMappingDescriptor(MAPPING_DESCRIPTOR)
+
+		expect:
+		mappingDescriptor.getMapping('/cloud').request.url == '/cloud/ping'
+		mappingDescriptor.getMapping('').request.url == '/ping'
+	}
+
+	def 'should prefix url patterns and scenario names'() {
+		given:
+		WiremockMappingDescriptor mappingDescriptor = new WiremockMappingDescriptor('in memory', '''
+			{
+				"request": { "method": "GET", "urlPattern": "^/foo/[0-9]+" },
+				"response": { "status": 200 },
+				"scenarioName": "Scenario_foo",
+				"requiredScenarioState": "Started"
+			}
+		''')
+
+		when:
+		def mapping = mappingDescriptor.getMapping('/some.group/artifact')
+
+		then:
+		mapping.request.urlPattern == '^' + Pattern.quote('/some.group/artifact') + '/foo/[0-9]+'
+		'/some.group/artifact/foo/123' ==~ mapping.request.urlPattern
+		!('/someXgroup/artifact/foo/123' ==~ mapping.request.urlPattern)
+		mapping.scenarioName == '/some.group/artifactScenario_foo'
+	}
+
+	def 'should read and parse the mapping file once'() {
+		given:
+		File file = File.createTempFile('mapping', '.json')
+		file.text = MAPPING_DESCRIPTOR.text
+		WiremockMappingDescriptor mappingDescriptor = new WiremockMappingDescriptor(file)
+
+		when:
+		def mapping = mappingDescriptor.mapping
+		file.delete()
+
+		then:
+		mappingDescriptor.mapping.is(mapping)
+		mappingDescriptor.getMapping('/cloud').request.url == '/cloud/ping'
+	}
 }
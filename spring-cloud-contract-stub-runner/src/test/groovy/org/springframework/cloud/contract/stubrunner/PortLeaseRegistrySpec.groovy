@@ -0,0 +1,73 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class PortLeaseRegistrySpec extends Specification {
+
+	@Rule
+	TemporaryFolder tmpFolder = new TemporaryFolder()
+
+	def 'should not lease the same port twice until it gets released'() {
+		given:
+		PortLeaseRegistry registry = new PortLeaseRegistry(tmpFolder.root)
+		expect:
+		registry.tryLease(12345)
+		!registry.tryLease(12345)
+		registry.isLeased(12345)
+		when:
+		registry.release(12345)
+		then:
+		!registry.isLeased(12345)
+		registry.tryLease(12345)
+		cleanup:
+		registry.release(12345)
+	}
+
+	def 'should not lease a port locked by another registry sharing the folder'() {
+		given:
+		PortLeaseRegistry first = new PortLeaseRegistry(tmpFolder.root)
+		PortLeaseRegistry second = new PortLeaseRegistry(tmpFolder.root)
+		when:
+		first.tryLease(12345)
+		then:
+		!second.tryLease(12345)
+		second.tryLease(12346)
+		new File(tmpFolder.root, '12345.lock').exists()
+		when:
+		first.release(12345)
+		then:
+		second.tryLease(12345)
+		cleanup:
+		second.release(12345)
+		second.release(12346)
+	}
+
+	def 'should lease the port within the JVM when the registry folder cannot be used'() {
+		given:
+		File notAFolder = tmpFolder.newFile('leases')
+		PortLeaseRegistry registry = new PortLeaseRegistry(notAFolder)
+		expect:
+		registry.tryLease(12345)
+		!registry.tryLease(12345)
+		cleanup:
+		registry.release(12345)
+	}
+}
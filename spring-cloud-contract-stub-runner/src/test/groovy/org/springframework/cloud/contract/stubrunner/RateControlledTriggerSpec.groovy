@@ -0,0 +1,139 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import spock.lang.Specification
+
+class RateControlledTriggerSpec extends Specification {
+
+	StubTrigger stubTrigger = Mock(StubTrigger) {
+		labels() >> ['a:b:c:stubs' : ['first', 'second']]
+	}
+	RateControlledTrigger trigger = new RateControlledTrigger(stubTrigger)
+
+	def 'should trigger the labels one after another the given number of times'() {
+		given:
+		TriggerLoad load = new TriggerLoad('first', 'second')
+		load.count = 10
+		when:
+		TriggerLoadReport report = trigger.trigger(load)
+		then:
+		5 * stubTrigger.trigger('first') >> true
+		5 * stubTrigger.trigger('second') >> true
+		report.triggered == 10
+		report.failed == 0
+		report.latencyMaxMillis >= report.latencyP50Millis
+	}
+
+	def 'should trigger the labels of the given stub only'() {
+		given:
+		TriggerLoad load = new TriggerLoad('first')
+		load.ivyNotation = 'a:b'
+		load.count = 3
+		when:
+		TriggerLoadReport report = trigger.trigger(load)
+		then:
+		3 * stubTrigger.trigger('a:b', 'first') >> true
+		0 * stubTrigger.trigger('first')
+		report.triggered == 3
+	}
+
+	def 'should keep the target rate'() {
+		given:
+		TriggerLoad load = new TriggerLoad('first')
+		load.rate = 100
+		load.count = 50
+		stubTrigger.trigger('first') >> true
+		when:
+		TriggerLoadReport report = trigger.trigger(load)
+		then:
+		report.triggered == 50
+		report.elapsedMillis >= 490
+		report.achievedRate < 103
+	}
+
+	def 'should trigger until the duration elapses'() {
+		given:
+		TriggerLoad load = new TriggerLoad('first')
+		load.rate = 100
+		load.durationMillis = 200
+		stubTrigger.trigger('first') >> true
+		when:
+		TriggerLoadReport report = trigger.trigger(load)
+		then:
+		report.triggered > 0
+		report.triggered <= 20
+	}
+
+	def 'should not send more messages at the same time than the concurrency allows'() {
+		given:
+		AtomicInteger sending = new AtomicInteger()
+		AtomicInteger maxSending = new AtomicInteger()
+		TriggerLoad load = new TriggerLoad('first')
+		load.rate = 1000
+		load.count = 20
+		load.concurrency = 2
+		stubTrigger.trigger('first') >> {
+			int current = sending.incrementAndGet()
+			maxSending.set(Math.max(maxSending.get(), current))
+			Thread.sleep(20)
+			sending.decrementAndGet()
+			return true
+		}
+		when:
+		TriggerLoadReport report = trigger.trigger(load)
+		then:
+		report.triggered == 20
+		maxSending.get() <= 2
+		report.achievedRate < 1000
+		report.maxScheduleLagMillis > 0
+	}
+
+	def 'should count the failed triggers'() {
+		given:
+		TriggerLoad load = new TriggerLoad('first', 'second')
+		load.count = 4
+		stubTrigger.trigger('first') >> true
+		stubTrigger.trigger('second') >> { throw new IllegalStateException('broker is down') }
+		when:
+		TriggerLoadReport report = trigger.trigger(load)
+		then:
+		report.triggered == 2
+		report.failed == 2
+	}
+
+	def 'should fail for a missing label before triggering anything'() {
+		given:
+		TriggerLoad load = new TriggerLoad('first', 'missing')
+		load.count = 1
+		when:
+		trigger.trigger(load)
+		then:
+		IllegalArgumentException e = thrown(IllegalArgumentException)
+		e.message.contains('[missing]')
+		0 * stubTrigger.trigger(_)
+	}
+
+	def 'should fail when neither the count nor the duration is set'() {
+		when:
+		trigger.trigger(new TriggerLoad('first'))
+		then:
+		thrown(IllegalArgumentException)
+	}
+}
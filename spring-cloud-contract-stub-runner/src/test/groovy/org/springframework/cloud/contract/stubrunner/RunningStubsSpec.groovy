@@ -84,4 +84,37 @@ class RunningStubsSpec extends Specification {
 			runningStubs.isPresent('missing artifact id') == false
 	}
 
+	def "should get port by wildcard version and default classifier in Ivy notation"() {
+		expect:
+			runningStubs.getPort('group:artifact:+') == 100
+			runningStubs.getPort('group:artifact:+:classifier') == 100
+			runningStubs.getPort('group:artifact:version:stubs') == 100
+			runningStubs.getPort('group:artifact:+:stubs') == 100
+	}
+
+	def "should not get port for a different version or classifier"() {
+		expect:
+			runningStubs.getPort('group:artifact:otherVersion') == null
+			runningStubs.getPort('group:artifact:version:otherClassifier') == null
+			runningStubs.getPort('otherGroup:artifact') == null
+	}
+
+	def "should return the first matching stub"() {
+		given:
+			RunningStubs stubs = new RunningStubs([
+					(new StubConfiguration('group', 'artifact', 'version')) : 100,
+					(new StubConfiguration('otherGroup', 'artifact', 'version')) : 200])
+		expect:
+			stubs.getPort('artifact') == 100
+			stubs.getPort('otherGroup:artifact') == 200
+	}
+
+	def "should not be modifiable"() {
+		when:
+			runningStubs.getAllServices().clear()
+		then:
+			thrown(UnsupportedOperationException)
+			runningStubs.getPort('artifact') == 100
+	}
+
 }
@@ -16,9 +16,20 @@
 
 package org.springframework.cloud.contract.stubrunner
 
+import java.nio.file.Path
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+
 import spock.lang.Specification
 
 class StubRepositorySpec extends Specification {
+
+	@Rule
+	TemporaryFolder folder = new TemporaryFolder()
+
 	public static
 	final File REPOSITORY_LOCATION = new File('src/test/resources/repository')
 
@@ -47,4 +58,86 @@ class StubRepositorySpec extends Specification {
 		then:
 		thrown(IllegalArgumentException)
 	}
+
+	def 'should read descriptors and contracts directly from a stubs jar'() {
+		given:
+		File jar = zipDirectory(REPOSITORY_LOCATION)
+		StubRepository fromDirectory = new StubRepository(REPOSITORY_LOCATION)
+		when:
+		StubRepository fromJar = new StubRepository(jar)
+		then:
+		fromJar.getProjectDescriptors().size() == fromDirectory.getProjectDescriptors().size()
+		fromJar.getContracts().size() == fromDirectory.getContracts().size()
+		fromJar.getProjectDescriptors().every { it.mapping != null }
+		cleanup:
+		jar.delete()
+	}
+
+	def 'should read the changed files of a folder repository again'() {
+		given:
+		File mappings = folder.newFolder('mappings')
+		File changed = mapping(mappings, 'changed.json', '/foo')
+		File removed = mapping(mappings, 'removed.json', '/bar')
+		File contract = new File(folder.newFolder('contracts'), 'contract.groovy')
+		contract.text = contract('/foo')
+		StubRepository repository = new StubRepository(folder.root)
+		when:
+		mapping(mappings, 'changed.json', '/baz')
+		File added = mapping(mappings, 'added.json', '/qux')
+		removed.delete()
+		contract.text = contract('/baz')
+		StubRepository.Update update = repository.update(
+				[changed, added, removed, contract].collect { File file -> file.toPath() } as List<Path>)
+		then:
+		update.changed*.location == [changed.path, added.path]
+		update.removed*.location == [removed.path]
+		repository.projectDescriptors*.mapping*.request*.url as Set == ['/baz', '/qux'] as Set
+		repository.contracts*.request*.url*.clientValue == ['/baz']
+	}
+
+	def 'should keep the previous version of a contract that fails to compile'() {
+		given:
+		File contract = new File(folder.newFolder('contracts'), 'contract.groovy')
+		contract.text = contract('/foo')
+		StubRepository repository = new StubRepository(folder.root)
+		when:
+		contract.text = 'not a contract {'
+		repository.update([contract.toPath()])
+		then:
+		repository.contracts*.request*.url*.clientValue == ['/foo']
+	}
+
+	private File mapping(File folder, String name, String url) {
+		File file = new File(folder, name)
+		file.text = '{"request": {"method": "GET", "url": "' + url + '"}, "response": {"status": 200}}'
+		return file
+	}
+
+	private String contract(String url) {
+		return """
+			org.springframework.cloud.contract.spec.Contract.make {
+				request {
+					method 'GET'
+					url '${url}'
+				}
+				response {
+					status 200
+				}
+			}
+		"""
+	}
+
+	private File zipDirectory(File directory) {
+		File jar = File.createTempFile('stubs', '.jar')
+		new ZipOutputStream(new FileOutputStream(jar)).withStream { ZipOutputStream stream ->
+			directory.eachFileRecurse { File file ->
+				if (file.isFile()) {
+					stream.putNextEntry(new ZipEntry(directory.toURI().relativize(file.toURI()).path))
+					stream.write(file.bytes)
+					stream.closeEntry()
+				}
+			}
+		}
+		return jar
+	}
 }
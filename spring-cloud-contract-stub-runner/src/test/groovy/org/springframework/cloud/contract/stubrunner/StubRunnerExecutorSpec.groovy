@@ -22,8 +22,10 @@ import java.util.concurrent.TimeUnit
 
 import org.springframework.cloud.contract.stubrunner.util.StubsParser
 import org.springframework.cloud.contract.verifier.messaging.MessageVerifier
+import org.springframework.cloud.contract.verifier.messaging.noop.NoOpStubMessages
 
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
 class StubRunnerExecutorSpec extends Specification {
 
@@ -83,6 +85,78 @@ class StubRunnerExecutorSpec extends Specification {
 		executor.shutdown()
 	}
 
+	def 'should start a stub on a port picked by the operating system when dynamic ports are on'() {
+		given:
+		StubRunnerExecutor executor = new StubRunnerExecutor(portScanner)
+		stubRunnerOptions = new StubRunnerOptionsBuilder().withDynamicPorts(true).build()
+		when:
+		executor.runStubs(stubRunnerOptions, repository, stub)
+		then:
+		URL url = executor.findStubUrl("group", "artifact")
+		url.port > 0
+		"${url}/ping".toURL().text == 'OK'
+		cleanup:
+		executor.shutdown()
+	}
+
+	def 'should host stubs on a shared server under their path prefixes'() {
+		given:
+		StubConfiguration other = new StubConfiguration("group:other", "stubs")
+		StubRunnerOptions options = new StubRunnerOptionsBuilder()
+				.withStubs('group:artifact', 'group:other')
+				.withMinMaxPort(MIN_PORT, MAX_PORT)
+				.withSharedServer(true).build()
+		SharedHttpServer sharedServer = new SharedHttpServer(options)
+		StubRunnerExecutor first = new StubRunnerExecutor(portScanner, new NoOpStubMessages(), sharedServer)
+		StubRunnerExecutor second = new StubRunnerExecutor(portScanner, new NoOpStubMessages(), sharedServer)
+		when:
+		first.runStubs(options, repository, stub)
+		second.runStubs(options, repository, other)
+		then:
+		URL firstUrl = first.findStubUrl("group", "artifact")
+		URL secondUrl = second.findStubUrl("group", "other")
+		firstUrl.port == secondUrl.port
+		firstUrl.path == '/artifact'
+		secondUrl.path == '/other'
+		"${firstUrl}/ping".toURL().text == 'pong'
+		"${secondUrl}/ping".toURL().text == 'pong'
+		first.findAllRunningStubs().getPathPrefix('artifact') == '/artifact'
+		when:
+		first.shutdown()
+		then:
+		"${secondUrl}/ping".toURL().text == 'pong'
+		when:
+		second.shutdown()
+		"${secondUrl}/ping".toURL().text
+		then:
+		thrown(IOException)
+	}
+
+	def 'should reload the changed mappings without restarting the server when watching the stubs'() {
+		given:
+		File folder = File.createTempDir()
+		File mapping = new File(folder, 'mapping.json')
+		mapping.text = mapping('first')
+		StubRunnerExecutor executor = new StubRunnerExecutor(portScanner)
+		stubRunnerOptions = new StubRunnerOptionsBuilder().withDynamicPorts(true).withWatchStubs(true).build()
+		PollingConditions conditions = new PollingConditions(timeout: 10)
+		when:
+		executor.runStubs(stubRunnerOptions, new StubRepository(folder), stub)
+		URL url = executor.findStubUrl("group", "artifact")
+		then:
+		"${url}/foo".toURL().text == 'first'
+		when:
+		mapping.text = mapping('second')
+		then:
+		conditions.eventually {
+			assert "${url}/foo".toURL().text == 'second'
+		}
+		executor.findStubUrl("group", "artifact") == url
+		cleanup:
+		executor.shutdown()
+		folder.deleteDir()
+	}
+
 	def 'should ensure that triggered contracts have properly parsed message body when a message is sent'() {
 		given:
 			StubRunnerExecutor executor = new StubRunnerExecutor(portScanner, new AssertingStubMessages())
@@ -95,6 +169,22 @@ class StubRunnerExecutorSpec extends Specification {
 		executor.shutdown()
 	}
 
+	def 'should trigger the contracts by label from the index built once per set of contracts'() {
+		given:
+			StubRunnerExecutor executor = new StubRunnerExecutor(portScanner)
+			executor.runStubs(stubRunnerOptions, repository, stub)
+		expect:
+			executor.getContracts().is(executor.getContracts())
+			executor.labels().is(executor.labels())
+			executor.labels().values().flatten().contains('send_order')
+			executor.trigger('send_order')
+			executor.trigger('group:artifact', 'send_order')
+			!executor.trigger('unknown:artifact', 'send_order')
+			!executor.trigger('unknown_label')
+		cleanup:
+			executor.shutdown()
+	}
+
 	def 'should match stub with empty classifier'() {
 		given:
 			def stubConf = new StubConfiguration('groupX', 'artifactX', 'versionX', '')
@@ -119,6 +209,10 @@ class StubRunnerExecutorSpec extends Specification {
 		}
 	}
 
+	private String mapping(String body) {
+		return '{"request": {"method": "GET", "url": "/foo"}, "response": {"status": 200, "body": "' + body + '"}}'
+	}
+
 	private class AssertingStubMessages implements MessageVerifier<Object> {
 		
 		@Override
@@ -143,5 +237,4 @@ class StubRunnerExecutorSpec extends Specification {
 		}
 
 	}
-
 }
@@ -81,4 +81,21 @@ class StubRunnerOptionsBuilderSpec extends Specification {
 		then:
 		options.getDependencies().toString() == '[foo:bar:+:xxx]'
 	}
+
+	def shouldCopyTheHttpServerSettings() {
+
+		given:
+		StubRunnerOptions options = builder.withContainerThreads(50).withAcceptors(2)
+				.withAcceptQueueSize(100).withSharedServer(true).withDynamicPorts(true).build()
+
+		when:
+		StubRunnerOptions copy = new StubRunnerOptionsBuilder(options).build()
+
+		then:
+		copy.containerThreads == 50
+		copy.acceptors == 2
+		copy.acceptQueueSize == 100
+		copy.sharedServer
+		copy.dynamicPorts
+	}
 }
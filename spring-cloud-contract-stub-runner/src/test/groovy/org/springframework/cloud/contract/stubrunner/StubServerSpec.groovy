@@ -48,4 +48,72 @@ class StubServerSpec extends Specification {
 		pingStubServer.stubUrl == EXPECTED_URL
 		pingStubServer.stop()
 	}
+
+	def 'should register default health checks together with the stub mappings'() {
+		given:
+		List<WiremockMappingDescriptor> mappingDescriptors = new StubRepository(repository).getProjectDescriptors()
+		StubServer pingStubServer = new StubServer(stubConfiguration, mappingDescriptors, [],
+				new WireMockHttpServerStub(STUB_SERVER_PORT))
+		when:
+		pingStubServer.start()
+		then:
+		"http://localhost:$pingStubServer.port/ping".toURL().text == 'OK'
+		"http://localhost:$pingStubServer.port/health".toURL().text == 'OK'
+		cleanup:
+		pingStubServer.stop()
+	}
+
+	def 'should serve the stubs with the tuned Jetty settings'() {
+		given:
+		List<WiremockMappingDescriptor> mappingDescriptors = new StubRepository(repository).getProjectDescriptors()
+		StubRunnerOptions options = new StubRunnerOptionsBuilder()
+				.withContainerThreads(20).withAcceptors(1).withAcceptQueueSize(50).build()
+		StubServer pingStubServer = new StubServer(stubConfiguration, mappingDescriptors, [],
+				new WireMockHttpServerStub(STUB_SERVER_PORT, options))
+		when:
+		pingStubServer.start()
+		then:
+		"http://localhost:$pingStubServer.port/bye".toURL().text == 'Goodbye world!'
+		cleanup:
+		pingStubServer.stop()
+	}
+
+	def 'should skip mappings that cannot be registered'() {
+		given:
+		File brokenMapping = File.createTempFile('broken', '.json')
+		brokenMapping.text = '{ not a mapping'
+		List<WiremockMappingDescriptor> mappingDescriptors = [new WiremockMappingDescriptor(brokenMapping)] +
+				new StubRepository(repository).getProjectDescriptors()
+		StubServer pingStubServer = new StubServer(stubConfiguration, mappingDescriptors, [],
+				new WireMockHttpServerStub(STUB_SERVER_PORT))
+		when:
+		pingStubServer.start()
+		then:
+		"http://localhost:$pingStubServer.port/bye".toURL().text == 'Goodbye world!'
+		cleanup:
+		pingStubServer.stop()
+		brokenMapping.delete()
+	}
+
+	def 'should serve the reloaded version of a mapping that keeps the UUID of the previous one'() {
+		given:
+		String uuid = UUID.randomUUID().toString()
+		WireMockHttpServerStub server = new WireMockHttpServerStub(STUB_SERVER_PORT)
+		server.start()
+		server.registerMappings([new WiremockMappingDescriptor('foo.json', mapping(uuid, 'first'))])
+		when:
+		server.updateMappings([new WiremockMappingDescriptor('foo.json', mapping(uuid, 'second'))], [])
+		then:
+		"http://localhost:$STUB_SERVER_PORT/foo".toURL().text == 'second'
+		when:
+		server.updateMappings([new WiremockMappingDescriptor('foo.json', mapping(uuid, 'third'))], [])
+		then:
+		"http://localhost:$STUB_SERVER_PORT/foo".toURL().text == 'third'
+		cleanup:
+		server.stop()
+	}
+
+	private String mapping(String uuid, String body) {
+		return '{"uuid": "' + uuid + '", "request": {"method": "GET", "url": "/foo"}, "response": {"status": 200, "body": "' + body + '"}}'
+	}
 }
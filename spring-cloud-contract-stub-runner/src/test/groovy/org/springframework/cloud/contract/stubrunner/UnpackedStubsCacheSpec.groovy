@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner
+
+import java.nio.channels.FileChannel
+import java.nio.channels.FileLock
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+import spock.lang.Specification
+
+class UnpackedStubsCacheSpec extends Specification {
+
+	File zipFile = new File(UnpackedStubsCacheSpec.classLoader.getResource('file.zip').toURI())
+	File cacheDir = File.createTempDir()
+
+	def cleanup() {
+		cacheDir.deleteDir()
+	}
+
+	def 'should unpack the jar only once and reuse the cached entry afterwards'() {
+		given:
+		UnpackedStubsCache cache = new UnpackedStubsCache(cacheDir, Long.MAX_VALUE)
+		when:
+		File first = cache.unpackedStubJar(zipFile, '1.0.0')
+		File second = cache.unpackedStubJar(zipFile, '1.0.0')
+		then:
+		first == second
+		new File(first, 'file.txt').text.trim() == 'test'
+		cache.misses == 1
+		cache.hits == 1
+		and: 'no staging folders are left behind'
+		cacheDir.listFiles()*.name.findAll { !it.startsWith('.lock-') } == [first.name]
+	}
+
+	def 'should create separate entries for different resolved versions'() {
+		given:
+		UnpackedStubsCache cache = new UnpackedStubsCache(cacheDir, Long.MAX_VALUE)
+		expect:
+		cache.unpackedStubJar(zipFile, '1.0.0') != cache.unpackedStubJar(zipFile, '2.0.0')
+		cache.misses == 2
+	}
+
+	def 'should evict the least recently used entries that are not in use when the size is exceeded'() {
+		given:
+		UnpackedStubsCache cache = new UnpackedStubsCache(cacheDir, 0)
+		File otherZip = zipWithSingleFile('other.txt', 'other')
+		File previousRun = entryOfPreviousRun('previous-1.0.0')
+		when:
+		File first = cache.unpackedStubJar(zipFile, '1.0.0')
+		File second = cache.unpackedStubJar(otherZip, '1.0.0')
+		then: 'the entries returned by this JVM are in use'
+		!previousRun.exists()
+		new File(first, 'file.txt').text.trim() == 'test'
+		new File(second, 'other.txt').text == 'other'
+		cleanup:
+		otherZip.delete()
+	}
+
+	def 'should not evict the entries locked by another process'() {
+		given:
+		UnpackedStubsCache cache = new UnpackedStubsCache(cacheDir, 0)
+		File busy = entryOfPreviousRun('busy-1.0.0')
+		FileChannel channel = new RandomAccessFile(new File(cacheDir, '.lock-busy-1.0.0'), 'rw').channel
+		FileLock lock = channel.lock(0, Long.MAX_VALUE, true)
+		when:
+		cache.unpackedStubJar(zipFile, '1.0.0')
+		then:
+		busy.exists()
+		cleanup:
+		lock.release()
+		channel.close()
+	}
+
+	private File entryOfPreviousRun(String name) {
+		File entry = new File(cacheDir, name)
+		entry.mkdirs()
+		new File(entry, 'mapping.json').text = '{}'
+		entry.setLastModified(0)
+		return entry
+	}
+
+	private File zipWithSingleFile(String name, String content) {
+		File file = File.createTempFile('stubs', '.jar')
+		new ZipOutputStream(new FileOutputStream(file)).withStream { ZipOutputStream stream ->
+			stream.putNextEntry(new ZipEntry(name))
+			stream.write(content.bytes)
+			stream.closeEntry()
+		}
+		return file
+	}
+}
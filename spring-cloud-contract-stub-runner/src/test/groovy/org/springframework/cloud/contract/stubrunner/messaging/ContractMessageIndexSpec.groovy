@@ -0,0 +1,68 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging
+
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+
+class ContractMessageIndexSpec extends Specification {
+
+	ContractMessageIndex<String> index = new ContractMessageIndex<>()
+
+	def setup() {
+		index.add(contract('header', 'type', 'book', [bookName: 'foo']), 'book_foo')
+		index.add(contract('header', 'type', 'book', [bookName: 'bar']), 'book_bar')
+		index.add(contract('header', 'type', 'author', [name: 'foo']), 'author_foo')
+		index.add(contract('regex', 'type', ~/book.*/, [bookName: 'baz']), 'regex_book_baz')
+		index.add(contract('no headers', null, null, [bookName: 'foo']), 'no_headers_foo')
+	}
+
+	def 'should return the target of the first matching contract'() {
+		expect:
+			index.match(headers, payload) == target
+		where:
+			headers            | payload                 || target
+			[type: 'book']     | [bookName: 'foo']       || 'book_foo'
+			[type: 'book']     | [bookName: 'bar']       || 'book_bar'
+			[type: 'author']   | [name: 'foo']           || 'author_foo'
+			[type: 'book']     | [bookName: 'baz']       || 'regex_book_baz'
+			[type: 'bookshop'] | [bookName: 'baz']       || 'regex_book_baz'
+			[type: 'author']   | [bookName: 'foo']       || 'no_headers_foo'
+			[:]                | [bookName: 'foo']       || 'no_headers_foo'
+			[type: 'author']   | [bookName: 'bar']       || null
+	}
+
+	def 'should return null when there are no contracts'() {
+		expect:
+			new ContractMessageIndex<String>().match([type: 'book'], [bookName: 'foo']) == null
+	}
+
+	private Contract contract(String label, String headerName, Object headerValue, Map body) {
+		return Contract.make {
+			delegate.label(label)
+			input {
+				messageFrom('input')
+				messageBody(body)
+				if (headerName) {
+					messageHeaders {
+						header(headerName, headerValue)
+					}
+				}
+			}
+		}
+	}
+}
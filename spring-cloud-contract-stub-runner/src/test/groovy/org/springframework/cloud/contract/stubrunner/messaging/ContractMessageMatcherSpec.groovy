@@ -0,0 +1,79 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging
+
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+
+class ContractMessageMatcherSpec extends Specification {
+
+	Contract contract = Contract.make {
+		label 'some_label'
+		input {
+			messageFrom('input')
+			messageBody([
+					bookName: 'foo',
+					author: [name: $(consumer(regex('[a-z]+')), producer('bar'))]
+			])
+			messageHeaders {
+				header('sample', 'header')
+			}
+		}
+	}
+
+	ContractMessageMatcher matcher = new ContractMessageMatcher(contract)
+
+	def 'should match a message with matching headers and body'() {
+		expect:
+			matcher.matches([sample: 'header'], [bookName: 'foo', author: [name: 'baz']])
+			matcher.matches([sample: 'header'], '{"bookName":"foo","author":{"name":"baz"}}')
+	}
+
+	def 'should not match a message with #description'() {
+		expect:
+			!matcher.matches(headers, payload)
+		where:
+			description             | headers              | payload
+			'missing header'        | [:]                  | [bookName: 'foo', author: [name: 'baz']]
+			'different header'      | [sample: 'other']    | [bookName: 'foo', author: [name: 'baz']]
+			'different body value'  | [sample: 'header']   | [bookName: 'bar', author: [name: 'baz']]
+			'missing body entry'    | [sample: 'header']   | [bookName: 'foo']
+			'not matching regex'    | [sample: 'header']   | [bookName: 'foo', author: [name: '123']]
+	}
+
+	def 'should reuse a once parsed payload for many matchers'() {
+		given:
+			Object parsed = ContractMessageMatcher.parse([bookName: 'foo', author: [name: 'baz']])
+		expect:
+			matcher.bodyMatches(parsed)
+			matcher.bodyMatches(parsed)
+	}
+
+	def 'should match any payload when the contract has no body'() {
+		given:
+			ContractMessageMatcher noBodyMatcher = new ContractMessageMatcher(Contract.make {
+				input {
+					messageFrom('input')
+					messageHeaders {
+						header('sample', 'header')
+					}
+				}
+			})
+		expect:
+			noBodyMatcher.matches([sample: 'header'], 'whatever')
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging
+
+import java.util.regex.Pattern
+
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+
+class StubOutputMessageSpec extends Specification {
+
+	Contract contract = Contract.make {
+		label 'send_order'
+		input {
+			triggeredBy('orderTrigger()')
+		}
+		outputMessage {
+			sentTo('orders')
+			headers {
+				header('contentType': 'application/json')
+			}
+			body(
+					orderId: value(consumer('40058c70'), producer(regex('[0-9a-f]+'))),
+					description: 'order'
+			)
+		}
+	}
+
+	def 'should render the stub side payload, json and headers once'() {
+		given:
+			StubOutputMessage message = new StubOutputMessage(contract.outputMessage)
+		expect:
+			message.payload == '{"orderId":"40058c70","description":"order"}'
+			message.json == '{"orderId":"40058c70","description":"order"}'
+			message.headers == [contentType: 'application/json']
+			message.sentTo == 'orders'
+		and:
+			message.payload.is(message.payload)
+			message.json.is(message.json)
+			message.headers.is(message.headers)
+	}
+
+	def 'should not allow modifying the rendered headers'() {
+		given:
+			StubOutputMessage message = new StubOutputMessage(contract.outputMessage)
+		when:
+			message.headers.put('foo', 'bar')
+		then:
+			thrown(UnsupportedOperationException)
+	}
+
+	def 'should render a message with a regular expression on the stub side for every message'() {
+		given:
+			StubOutputMessage message = new StubOutputMessage(Contract.make {
+				input {
+					triggeredBy('orderTrigger()')
+				}
+				outputMessage {
+					sentTo('orders')
+					headers {
+						header('orderType', $(consumer(regex('[a-z]+')), producer('retail')))
+					}
+					body(orderId: '123')
+				}
+			}.outputMessage)
+		expect:
+			message.headers.orderType instanceof Pattern
+			!message.headers.is(message.headers)
+			!message.json.is(message.json)
+	}
+}
@@ -104,6 +104,27 @@ class StubRunnerBootSpec extends Specification {
 			stubId << ['org.springframework.cloud.contract.verifier.stubs:bootService:stubs', 'org.springframework.cloud.contract.verifier.stubs:bootService', 'bootService']
 	}
 
+	def 'should trigger messaging labels at the given rate'() {
+		given:
+			StubRunning stubRunning = Mock()
+			stubRunning.labels() >> ['bootService' : ['delete_book', 'return_book_1']]
+			RestAssuredMockMvc.standaloneSetup(new HttpStubsController(stubRunning), new TriggerController(stubRunning))
+		when:
+			def response = RestAssuredMockMvc.given()
+					.contentType('application/json')
+					.body('{"labels": ["delete_book", "return_book_1"], "rate": 100, "count": 4}')
+					.post("/triggers")
+		then:
+			response.statusCode == 200
+			def root = new JsonSlurper().parseText(response.body.asString())
+			root.triggered == 4
+			root.failed == 0
+			root.targetRate == 100
+		and:
+			2 * stubRunning.trigger('delete_book') >> true
+			2 * stubRunning.trigger('return_book_1') >> true
+	}
+
 	def 'should throw exception when trigger is missing'() {
 		when:
 			RestAssuredMockMvc.post("/triggers/missing_label")
@@ -18,4 +18,50 @@ class StubMapperPropertiesSpec extends Specification {
 			'someNameThatShouldMapFraudDetectionServer' == properties.fromIvyNotationToId('groupid:fraudDetectionServer')
 			'someNameThatShouldMapFraudDetectionServer' == properties.fromIvyNotationToId('groupid:fraudDetectionServer:+:classifier')
 	}
+
+	def "should convert serviceId to ivy notation"() {
+		given:
+			StubMapperProperties properties = new StubMapperProperties(idsToServiceIds: [
+					'groupid:fraudDetectionServer': 'fraud',
+					loanIssuance: 'loans'
+			])
+		expect:
+			properties.fromServiceIdToIvyNotation('fraud') == 'groupid:fraudDetectionServer'
+			properties.fromServiceIdToIvyNotation('loans') == 'loanIssuance'
+			properties.fromServiceIdToIvyNotation('missing') == null
+	}
+
+	def "should convert serviceId to ivy notation for mappings added after the first lookup"() {
+		given:
+			StubMapperProperties properties = new StubMapperProperties(idsToServiceIds: [loanIssuance: 'loans'])
+			properties.fromServiceIdToIvyNotation('loans')
+		when:
+			properties.idsToServiceIds.put('groupid:fraudDetectionServer', 'fraud')
+		then:
+			properties.fromServiceIdToIvyNotation('fraud') == 'groupid:fraudDetectionServer'
+		when:
+			properties.idsToServiceIds = [other: 'fraud']
+		then:
+			properties.fromServiceIdToIvyNotation('fraud') == 'other'
+	}
+
+	def "should convert serviceId to ivy notation for mappings changed after the first lookup"() {
+		given:
+			Map<String, String> idsToServiceIds = [loanIssuance: 'loans']
+			StubMapperProperties properties = new StubMapperProperties(idsToServiceIds: idsToServiceIds)
+			properties.fromServiceIdToIvyNotation('loans')
+		when:
+			properties.idsToServiceIds.put('loanIssuance', 'credits')
+		then:
+			properties.fromServiceIdToIvyNotation('credits') == 'loanIssuance'
+			properties.fromServiceIdToIvyNotation('loans') == null
+		when:
+			properties.idsToServiceIds.entrySet().first().value = 'mortgages'
+		then:
+			properties.fromServiceIdToIvyNotation('mortgages') == 'loanIssuance'
+		when:
+			idsToServiceIds.put('other', 'loans')
+		then:
+			properties.fromServiceIdToIvyNotation('loans') == null
+	}
 }
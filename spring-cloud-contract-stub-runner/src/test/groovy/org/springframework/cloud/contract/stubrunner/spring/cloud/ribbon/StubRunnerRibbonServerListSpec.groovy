@@ -0,0 +1,55 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.stubrunner.spring.cloud.ribbon
+
+import com.netflix.client.config.IClientConfig
+import com.netflix.loadbalancer.ServerList
+import org.springframework.cloud.contract.stubrunner.RunningStubs
+import org.springframework.cloud.contract.stubrunner.StubConfiguration
+import org.springframework.cloud.contract.stubrunner.StubFinder
+import org.springframework.cloud.contract.stubrunner.spring.cloud.StubMapperProperties
+import spock.lang.Specification
+
+class StubRunnerRibbonServerListSpec extends Specification {
+
+	StubConfiguration stub = new StubConfiguration('org.example:fraudDetectionServer')
+	StubFinder stubFinder = Stub(StubFinder)
+	IClientConfig clientConfig = Stub(IClientConfig) {
+		getClientName() >> 'fraudDetectionServer'
+	}
+
+	def 'should list the server of a stub that has a server of its own'() {
+		given:
+			stubFinder.findAllRunningStubs() >> new RunningStubs([(stub): 12345])
+		when:
+			StubRunnerRibbonServerList serverList = new StubRunnerRibbonServerList(stubFinder,
+					new StubMapperProperties(), clientConfig, Stub(ServerList))
+		then:
+			serverList.initialListOfServers*.port == [12345]
+	}
+
+	def 'should fail for a stub hosted on the shared server under a path'() {
+		given:
+			stubFinder.findAllRunningStubs() >> new RunningStubs([(stub): 12345], [(stub): '/fraudDetectionServer'])
+		when:
+			new StubRunnerRibbonServerList(stubFinder, new StubMapperProperties(), clientConfig, Stub(ServerList))
+		then:
+			IllegalStateException e = thrown(IllegalStateException)
+			e.message.contains('/fraudDetectionServer')
+	}
+}
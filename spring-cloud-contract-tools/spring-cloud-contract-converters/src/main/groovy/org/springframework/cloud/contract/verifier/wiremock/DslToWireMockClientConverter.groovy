@@ -29,6 +29,13 @@ import java.nio.charset.StandardCharsets
 @CompileStatic
 class DslToWireMockClientConverter extends DslToWireMockConverter {
 
+	DslToWireMockClientConverter() {
+	}
+
+	DslToWireMockClientConverter(File compiledContractsCacheDir) {
+		super(compiledContractsCacheDir)
+	}
+
 	@Override
 	String convertContent(String rootName, ContractMetadata contract) {
 		String dslContent = contract.path.getText(StandardCharsets.UTF_8.toString())
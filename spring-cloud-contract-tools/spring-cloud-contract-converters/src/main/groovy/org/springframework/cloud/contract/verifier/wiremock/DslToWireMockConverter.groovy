@@ -29,6 +29,20 @@ import org.springframework.cloud.contract.verifier.util.ContractVerifierDslConve
 @CompileStatic
 abstract class DslToWireMockConverter implements SingleFileConverter {
 
+	private final File compiledContractsCacheDir
+
+	DslToWireMockConverter() {
+		this(null)
+	}
+
+	/**
+	 * @param compiledContractsCacheDir - folder in which the compiled contracts are stored
+	 * between builds, {@code null} if they shouldn't be stored
+	 */
+	DslToWireMockConverter(File compiledContractsCacheDir) {
+		this.compiledContractsCacheDir = compiledContractsCacheDir
+	}
+
 	@Override
 	boolean canHandleFileName(String fileName) {
 		return fileName.endsWith('.groovy')
@@ -40,6 +54,6 @@ abstract class DslToWireMockConverter implements SingleFileConverter {
 	}
 
 	protected Contract createGroovyDSLFromStringContent(String groovyDslAsString) {
-		return ContractVerifierDslConverter.convert(groovyDslAsString)
+		return ContractVerifierDslConverter.convert(groovyDslAsString, compiledContractsCacheDir)
 	}
 }
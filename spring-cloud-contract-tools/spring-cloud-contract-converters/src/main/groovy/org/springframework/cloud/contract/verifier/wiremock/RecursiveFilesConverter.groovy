@@ -23,6 +23,8 @@ import org.springframework.cloud.contract.verifier.config.ContractVerifierConfig
 import org.springframework.cloud.contract.verifier.converter.SingleFileConverter
 import org.springframework.cloud.contract.verifier.file.ContractFileScanner
 import org.springframework.cloud.contract.verifier.file.ContractMetadata
+import org.springframework.cloud.contract.verifier.file.FingerprintManifest
+import org.springframework.cloud.contract.verifier.util.CodeSourceVersion
 
 import java.nio.charset.StandardCharsets
 import java.nio.file.Files
@@ -41,6 +43,8 @@ class RecursiveFilesConverter {
 	private final ContractVerifierConfigProperties properties
 	private final File outMappingsDir
 
+	private static final String STUBS_MANIFEST = 'stubs'
+
 	RecursiveFilesConverter(SingleFileConverter singleFileConverter, ContractVerifierConfigProperties properties) {
 		this.properties = properties
 		this.singleFileConverter = singleFileConverter
@@ -60,6 +64,10 @@ class RecursiveFilesConverter {
 		if (log.isDebugEnabled()) {
 			log.debug("Found the following contracts $contracts")
 		}
+		FingerprintManifest manifest = properties.contractFingerprintsDir ?
+				new FingerprintManifest(properties.contractFingerprintsDir, STUBS_MANIFEST, properties.contractsDslDir,
+						outMappingsDir) : null
+		String converterVersion = CodeSourceVersion.of(singleFileConverter.class)
 		contracts.asMap().entrySet().each { entry ->
 			entry.value.each { ContractMetadata contract ->
 				File sourceFile = contract.path.toFile()
@@ -67,30 +75,34 @@ class RecursiveFilesConverter {
 					if (!singleFileConverter.canHandleFileName(sourceFile.name)) {
 						return
 					}
-					String convertedContent = singleFileConverter.convertContent(entry.key.last().toString(), contract)
+					String rootName = entry.key.last().toString()
+					File newJsonFile = targetFile(sourceFile)
+					String fingerprint = manifest ?
+							FingerprintManifest.fingerprint(converterVersion + '|' + rootName, [contract]) : null
+					if (manifest && manifest.isUpToDate(newJsonFile, fingerprint)) {
+						log.info("Stub [$newJsonFile.path] is up to date")
+						manifest.record(newJsonFile, fingerprint)
+						return
+					}
+					String convertedContent = singleFileConverter.convertContent(rootName, contract)
 					if (!convertedContent) {
 						return
 					}
-					Path absoluteTargetPath = createAndReturnTargetDirectory(sourceFile)
-					File newJsonFile = createTargetFileWithProperName(absoluteTargetPath, sourceFile)
+					Files.createDirectories(newJsonFile.parentFile.toPath())
+					log.info("Creating new json [$newJsonFile.path]")
 					newJsonFile.setText(convertedContent, StandardCharsets.UTF_8.toString())
+					manifest?.record(newJsonFile, fingerprint)
 				} catch (Exception e) {
 					throw new ConversionContractVerifierException("Unable to make conversion of ${sourceFile.name}", e)
 				}
 			}
 		}
+		manifest?.store()
 	}
 
-	private Path createAndReturnTargetDirectory(File sourceFile) {
+	private File targetFile(File sourceFile) {
 		Path relativePath = Paths.get(properties.contractsDslDir.toURI()).relativize(sourceFile.parentFile.toPath())
 		Path absoluteTargetPath = outMappingsDir.toPath().resolve(relativePath)
-		Files.createDirectories(absoluteTargetPath)
-		return absoluteTargetPath
-	}
-
-	private File createTargetFileWithProperName(Path absoluteTargetPath, File sourceFile) {
-		File newJsonFile = new File(absoluteTargetPath.toFile(), singleFileConverter.generateOutputFileNameForInput(sourceFile.name))
-		log.info("Creating new json [$newJsonFile.path]")
-		return newJsonFile
+		return new File(absoluteTargetPath.toFile(), singleFileConverter.generateOutputFileNameForInput(sourceFile.name))
 	}
 }
@@ -89,6 +89,35 @@ class RecursiveFilesConverterSpec extends Specification {
 			createdFiles.each { it.text == "converted" }
 	}
 
+	def "should convert only the changed contracts and remove stubs of deleted ones when fingerprints are stored"() {
+		given:
+			ContractVerifierConfigProperties properties = new ContractVerifierConfigProperties()
+			File originalSourceRootDirectory = new File(this.getClass().getResource("/converter/source").toURI())
+			properties.contractsDslDir = tmpFolder.newFolder("source")
+			properties.stubsOutputDir = tmpFolder.newFolder("target")
+			properties.contractFingerprintsDir = tmpFolder.newFolder("fingerprints")
+			FileSystemUtils.copyRecursively(originalSourceRootDirectory, properties.contractsDslDir)
+		and:
+			def singleFileConverter = Mock(SingleFileConverter)
+			singleFileConverter.canHandleFileName(_) >> { String fileName -> fileName.endsWith(".groovy") }
+			singleFileConverter.generateOutputFileNameForInput(_) >> { String inputFileName -> inputFileName.replaceAll('.groovy', '.json') }
+			RecursiveFilesConverter recursiveFilesConverter = new RecursiveFilesConverter(singleFileConverter, properties)
+		when:
+			recursiveFilesConverter.processFiles()
+		then:
+			4 * singleFileConverter.convertContent(_, _) >> "converted"
+		when:
+			new File(properties.contractsDslDir, "dir1/dsl1.groovy").text = "changed"
+			new File(properties.contractsDslDir, "dir2/dsl2.groovy").delete()
+			recursiveFilesConverter.processFiles()
+		then:
+			1 * singleFileConverter.convertContent(_, _) >> "converted again"
+		and:
+			new File(properties.stubsOutputDir, "dir1/dsl1.json").text == "converted again"
+			new File(properties.stubsOutputDir, "dir1/dsl1b.json").text == "converted"
+			!new File(properties.stubsOutputDir, "dir2/dsl2.json").exists()
+	}
+
 	def "on failure should break processing and throw meaningful exception"() {
 		given:
 			def sourceFile = tmpFolder.newFile("test.groovy")
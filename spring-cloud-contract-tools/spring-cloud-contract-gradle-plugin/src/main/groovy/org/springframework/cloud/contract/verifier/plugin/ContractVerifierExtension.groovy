@@ -134,6 +134,26 @@ class ContractVerifierExtension {
 	 */
 	Map<String, String> baseClassMappings = [:]
 
+	/**
+	 * Directory in which the compiled contracts should be stored between builds. If not
+	 * provided the contracts are compiled on each build.
+	 */
+	File compiledContractsCacheDir
+
+	/**
+	 * Number of threads used to generate the test classes. Each folder with contracts
+	 * is processed by a separate task. Defaults to {@code 1} which means that the tests
+	 * are generated sequentially.
+	 */
+	int testGenerationThreads = 1
+
+	/**
+	 * Directory in which the fingerprints of the processed contracts are stored. If provided
+	 * only the tests and stubs of contracts that changed since the last build are generated
+	 * and the outputs of removed contracts are deleted.
+	 */
+	File contractFingerprintsDir
+
 	void contractDependency(@DelegatesTo(Dependency) Closure closure) {
 		closure.delegate = contractDependency
 		closure.call()
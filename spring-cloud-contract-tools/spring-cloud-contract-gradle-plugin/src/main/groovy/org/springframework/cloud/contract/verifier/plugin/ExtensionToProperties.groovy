@@ -27,7 +27,10 @@ class ExtensionToProperties {
 				stubsSuffix: extension.stubsSuffix,
 				assertJsonSize: extension.assertJsonSize,
 				packageWithBaseClasses: extension.packageWithBaseClasses,
-				baseClassMappings: extension.baseClassMappings
+				baseClassMappings: extension.baseClassMappings,
+				compiledContractsCacheDir: extension.compiledContractsCacheDir,
+				testGenerationThreads: extension.testGenerationThreads,
+				contractFingerprintsDir: extension.contractFingerprintsDir
 		)
 	}
 }
@@ -54,7 +54,7 @@ class GenerateWireMockClientStubsFromDslTask extends ConventionTask {
 				: new File(project.buildDir, "stubs/$DEFAULT_MAPPINGS_FOLDER")
 		logger.info("Contracts dir is [${contractsDslDir}] output stubs dir is [${outMappingsDir}]")
 		RecursiveFilesConverter converter = new RecursiveFilesConverter(
-				new DslToWireMockClientConverter(),
+				new DslToWireMockClientConverter(props.compiledContractsCacheDir),
 				props, outMappingsDir)
 		converter.processFiles()
 	}
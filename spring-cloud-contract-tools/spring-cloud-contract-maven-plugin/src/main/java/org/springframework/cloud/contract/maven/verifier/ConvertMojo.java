@@ -109,6 +109,23 @@ public class ConvertMojo extends AbstractMojo {
 	@Parameter(property = "contractsWorkOffline", defaultValue = "false")
 	private boolean contractsWorkOffline;
 
+	/**
+	 * Directory in which the compiled contracts should be stored between builds. If not
+	 * provided the contracts are compiled on each build.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.compiledContractsCacheDir")
+	private File compiledContractsCacheDir;
+
+	/**
+	 * Directory in which the fingerprints of the processed contracts are stored. If provided
+	 * only the stubs of contracts that changed since the last build are generated and the
+	 * outputs of removed contracts are deleted.
+	 * <p>
+	 * Used only when the goal is executed inside a maven project.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.contractFingerprintsDir")
+	private File contractFingerprintsDir;
+
 	@Component(role = MavenResourcesFiltering.class, hint = "default")
 	private MavenResourcesFiltering mavenResourcesFiltering;
 
@@ -138,6 +155,10 @@ public class ConvertMojo extends AbstractMojo {
 				.copy(contractsDirectory, this.stubsDirectory);
 
 		config.setContractsDslDir(isInsideProject() ? contractsDirectory : this.source);
+		config.setCompiledContractsCacheDir(this.compiledContractsCacheDir);
+		if (isInsideProject()) {
+			config.setContractFingerprintsDir(this.contractFingerprintsDir);
+		}
 		config.setStubsOutputDir(
 				isInsideProject() ? new File(this.stubsDirectory, MAPPINGS_PATH) : this.destination);
 
@@ -151,7 +172,7 @@ public class ConvertMojo extends AbstractMojo {
 
 
 		RecursiveFilesConverter converter = new RecursiveFilesConverter(
-				new DslToWireMockClientConverter(), config);
+				new DslToWireMockClientConverter(this.compiledContractsCacheDir), config);
 		converter.processFiles();
 	}
 
@@ -165,6 +165,30 @@ public class GenerateTestsMojo extends AbstractMojo {
 	@Parameter(property = "baseClassMappings")
 	private List<BaseClassMapping> baseClassMappings;
 
+	/**
+	 * Directory in which the compiled contracts should be stored between builds. If not
+	 * provided the contracts are compiled on each build.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.compiledContractsCacheDir")
+	private File compiledContractsCacheDir;
+
+	/**
+	 * Number of threads used to generate the test classes. Each folder with contracts
+	 * is processed by a separate task. Defaults to {@code 1} which means that the tests
+	 * are generated sequentially.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.testGenerationThreads",
+			defaultValue = "1")
+	private int testGenerationThreads;
+
+	/**
+	 * Directory in which the fingerprints of the processed contracts are stored. If provided
+	 * only the tests of contracts that changed since the last build are generated and the
+	 * outputs of removed contracts are deleted.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.contractFingerprintsDir")
+	private File contractFingerprintsDir;
+
 	private final AetherStubDownloaderFactory aetherStubDownloaderFactory;
 
 	@Inject
@@ -201,6 +225,9 @@ public class GenerateTestsMojo extends AbstractMojo {
 		config.setExcludedFiles(this.excludedFiles);
 		config.setAssertJsonSize(this.assertJsonSize);
 		config.setPackageWithBaseClasses(this.packageWithBaseClasses);
+		config.setCompiledContractsCacheDir(this.compiledContractsCacheDir);
+		config.setTestGenerationThreads(this.testGenerationThreads);
+		config.setContractFingerprintsDir(this.contractFingerprintsDir);
 		if (this.baseClassMappings != null) {
 			config.setBaseClassMappings(mappingsToMap());
 		}
@@ -42,13 +42,19 @@ class FileSaver {
 	}
 
 	void saveClassFile(String fileName, String basePackageClass, String includedDirectoryRelativePath, byte[] classBytes) {
+		Path classPath = classFile(fileName, basePackageClass, includedDirectoryRelativePath).toPath()
+		Files.createDirectories(classPath.parent)
+		log.info("Creating new class file [$classPath]")
+		Files.write(classPath, classBytes, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+	}
 
+	/**
+	 * Returns the file to which the class with the given name would be saved
+	 */
+	File classFile(String fileName, String basePackageClass, String includedDirectoryRelativePath) {
 		Path testBaseDir = Paths.get(targetDirectory.absolutePath, packageToDirectory(basePackageClass),
 				beforeLast(includedDirectoryRelativePath, File.separator))
-		Files.createDirectories(testBaseDir)
-		Path classPath = Paths.get(testBaseDir.toString(), capitalize(fileName) + framework.classExtension).toAbsolutePath()
-		log.info("Creating new class file [$classPath]")
-		Files.write(classPath, classBytes, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+		return Paths.get(testBaseDir.toString(), capitalize(fileName) + framework.classExtension).toAbsolutePath().toFile()
 	}
 
 }
@@ -18,15 +18,20 @@ package org.springframework.cloud.contract.verifier
 
 import com.google.common.collect.ListMultimap
 import groovy.transform.PackageScope
+import groovy.util.logging.Slf4j
 import org.apache.commons.lang3.StringUtils
 import org.springframework.cloud.contract.spec.ContractVerifierException
 import org.springframework.cloud.contract.verifier.builder.SingleTestGenerator
 import org.springframework.cloud.contract.verifier.config.ContractVerifierConfigProperties
 import org.springframework.cloud.contract.verifier.file.ContractFileScanner
 import org.springframework.cloud.contract.verifier.file.ContractMetadata
+import org.springframework.cloud.contract.verifier.file.FingerprintManifest
 
 import java.nio.charset.StandardCharsets
 import java.nio.file.Path
+import java.util.concurrent.Callable
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
 import java.util.concurrent.atomic.AtomicInteger
 
 import static org.springframework.cloud.contract.verifier.util.NamesUtil.*
@@ -34,15 +39,19 @@ import static org.springframework.cloud.contract.verifier.util.NamesUtil.*
 /**
  * @author Jakub Kubrynski, codearte.io
  */
+@Slf4j
 class TestGenerator {
 
 	private final ContractVerifierConfigProperties configProperties
 	private final String DEFAULT_CLASS_PREFIX = "ContractVerifier"
+	private static final String TESTS_MANIFEST = "tests"
 
 	private AtomicInteger counter = new AtomicInteger()
+	private AtomicInteger upToDateCounter = new AtomicInteger()
 	private SingleTestGenerator generator
 	private FileSaver saver
 	private ContractFileScanner contractFileScanner
+	private FingerprintManifest manifest
 
 	TestGenerator(ContractVerifierConfigProperties configProperties) {
 		this(configProperties, new SingleTestGenerator(configProperties),
@@ -56,23 +65,97 @@ class TestGenerator {
 		}
 		this.generator = generator
 		this.saver = saver
+		if (configProperties.contractFingerprintsDir) {
+			manifest = new FingerprintManifest(configProperties.contractFingerprintsDir, TESTS_MANIFEST,
+					configProperties.contractsDslDir, configProperties.generatedTestSourcesDir)
+		}
 		contractFileScanner = new ContractFileScanner(configProperties.contractsDslDir,
 				configProperties.excludedFiles as Set,
 				configProperties.ignoredFiles as Set,
 				this.configProperties.includedContracts)
 	}
 
+	/**
+	 * @return the number of test classes - both the generated ones and the ones that
+	 * were up to date
+	 */
 	int generate() {
 		generateTestClasses(configProperties.basePackageForTests)
+		manifest?.store()
+		if (manifest) {
+			log.info("${upToDateCounter.get()} of ${counter.get()} test classes were up to date")
+		}
 		return counter.get()
 	}
 
+	/**
+	 * @return the number of test classes that were up to date in the last {@link #generate()} call
+	 */
+	int getUpToDateClasses() {
+		return upToDateCounter.get()
+	}
+
 	@PackageScope
 	void generateTestClasses(final String basePackageName) {
 		ListMultimap<Path, ContractMetadata> contracts = contractFileScanner.findContracts()
-		contracts.asMap().entrySet().each {
-			Map.Entry<Path, Collection<ContractMetadata>> entry -> processIncludedDirectory(relativizeContractPath(entry), entry.getValue(), basePackageName)
+		Collection<Map.Entry<Path, Collection<ContractMetadata>>> directories = contracts.asMap().entrySet()
+		Map<File, String> fingerprints = manifest ? fingerprints(directories, basePackageName) : [:]
+		if (testGenerationThreads() > 1 && directories.size() > 1) {
+			generateTestClassesInParallel(directories, basePackageName, fingerprints)
+			return
 		}
+		directories.each {
+			Map.Entry<Path, Collection<ContractMetadata>> entry -> saveTestClass(buildTestClass(relativizeContractPath(entry), entry.getValue(), basePackageName, fingerprints))
+		}
+	}
+
+	/**
+	 * Different directories can result in the same class file (e.g. {@code foo-bar} and
+	 * {@code foo_bar}). The fingerprint of such a class is calculated from the contracts of
+	 * all of them, so that a change in any of the directories regenerates it.
+	 */
+	private Map<File, String> fingerprints(Collection<Map.Entry<Path, Collection<ContractMetadata>>> directories,
+										   final String basePackageName) {
+		Map<File, List<ContractMetadata>> contractsOfOutputs = [:]
+		directories.each { Map.Entry<Path, Collection<ContractMetadata>> entry ->
+			if (entry.value.size()) {
+				String includedDirectoryRelativePath = relativizeContractPath(entry)
+				File output = saver.classFile(className(includedDirectoryRelativePath), basePackageName,
+						convertIllegalPackageChars(includedDirectoryRelativePath))
+				List<ContractMetadata> contractsOfOutput = contractsOfOutputs.get(output)
+				if (contractsOfOutput == null) {
+					contractsOfOutput = []
+					contractsOfOutputs.put(output, contractsOfOutput)
+				}
+				contractsOfOutput.addAll(entry.value)
+			}
+		}
+		String settings = generatorSettings()
+		return contractsOfOutputs.collectEntries { File output, List<ContractMetadata> contractsOfOutput ->
+			[(output): FingerprintManifest.fingerprint(settings, contractsOfOutput)]
+		} as Map<File, String>
+	}
+
+	/**
+	 * Each included directory is processed in a separate fork join task. The results are
+	 * saved in the same order as in the serial mode so that the output doesn't change.
+	 */
+	private void generateTestClassesInParallel(Collection<Map.Entry<Path, Collection<ContractMetadata>>> directories,
+											   final String basePackageName, final Map<File, String> fingerprints) {
+		ForkJoinPool pool = new ForkJoinPool(testGenerationThreads())
+		try {
+			List<ForkJoinTask<GeneratedTestClass>> tasks = directories.collect {
+				Map.Entry<Path, Collection<ContractMetadata>> entry ->
+					pool.submit({ buildTestClass(relativizeContractPath(entry), entry.getValue(), basePackageName, fingerprints) } as Callable<GeneratedTestClass>)
+			}
+			tasks.each { ForkJoinTask<GeneratedTestClass> task -> saveTestClass(task.join()) }
+		} finally {
+			pool.shutdownNow()
+		}
+	}
+
+	private int testGenerationThreads() {
+		return configProperties.testGenerationThreads ?: 1
 	}
 
 	private String relativizeContractPath(Map.Entry<Path, Collection<Path>> entry) {
@@ -83,15 +166,55 @@ class TestGenerator {
 		return relativePath.toString()
 	}
 
-	private void processIncludedDirectory(
-			final String includedDirectoryRelativePath, Collection<ContractMetadata> contracts, final String basePackageNameForClass) {
+	private GeneratedTestClass buildTestClass(
+			final String includedDirectoryRelativePath, Collection<ContractMetadata> contracts, final String basePackageNameForClass,
+			final Map<File, String> fingerprints) {
 		if (contracts.size()) {
-			def className = afterLast(includedDirectoryRelativePath.toString(), File.separator) + resolveNameSuffix()
+			def className = className(includedDirectoryRelativePath)
 			def packageName = buildPackage(basePackageNameForClass, includedDirectoryRelativePath)
-			def classBytes = generator.buildClass(contracts, className, packageName, includedDirectoryRelativePath).getBytes(StandardCharsets.UTF_8)
-			saver.saveClassFile(className, basePackageNameForClass, convertIllegalPackageChars(includedDirectoryRelativePath.toString()), classBytes)
-			counter.incrementAndGet()
+			def relativePath = convertIllegalPackageChars(includedDirectoryRelativePath.toString())
+			GeneratedTestClass testClass = new GeneratedTestClass(className, basePackageNameForClass, relativePath)
+			if (manifest) {
+				testClass.output = saver.classFile(className, basePackageNameForClass, relativePath)
+				testClass.fingerprint = fingerprints.get(testClass.output)
+				if (manifest.isUpToDate(testClass.output, testClass.fingerprint)) {
+					return testClass
+				}
+			}
+			testClass.classBytes = generator.buildClass(contracts, className, packageName, includedDirectoryRelativePath).getBytes(StandardCharsets.UTF_8)
+			return testClass
 		}
+		return null
+	}
+
+	private void saveTestClass(GeneratedTestClass testClass) {
+		if (!testClass) {
+			return
+		}
+		if (testClass.classBytes != null) {
+			saver.saveClassFile(testClass.className, testClass.basePackageName, testClass.includedDirectoryRelativePath, testClass.classBytes)
+		} else {
+			log.info("Class file [${testClass.output}] is up to date")
+			upToDateCounter.incrementAndGet()
+		}
+		counter.incrementAndGet()
+		if (manifest) {
+			manifest.record(testClass.output, testClass.fingerprint)
+		}
+	}
+
+	/**
+	 * All the properties that have impact on the contents of the generated tests
+	 */
+	private String generatorSettings() {
+		ContractVerifierConfigProperties props = configProperties
+		return [props.targetFramework, props.testMode, props.basePackageForTests, props.baseClassForTests,
+				props.nameSuffixForTests, props.ruleClassForTests, props.imports?.toList(), props.staticImports?.toList(),
+				props.ignoredFiles, props.assertJsonSize, props.packageWithBaseClasses, props.baseClassMappings].join('|')
+	}
+
+	private String className(final String includedDirectoryRelativePath) {
+		return afterLast(includedDirectoryRelativePath, File.separator) + resolveNameSuffix()
 	}
 
 	private String resolveNameSuffix() {
@@ -103,4 +226,20 @@ class TestGenerator {
 		return !directory.empty ? "$packageNameForClass.${directoryToPackage(convertIllegalPackageChars(directory))}" : packageNameForClass
 	}
 
-}
\ No newline at end of file
+	private static class GeneratedTestClass {
+		final String className
+		final String basePackageName
+		final String includedDirectoryRelativePath
+		/** {@code null} if the class file is up to date */
+		byte[] classBytes
+		File output
+		String fingerprint
+
+		GeneratedTestClass(String className, String basePackageName, String includedDirectoryRelativePath) {
+			this.className = className
+			this.basePackageName = basePackageName
+			this.includedDirectoryRelativePath = includedDirectoryRelativePath
+		}
+	}
+
+}
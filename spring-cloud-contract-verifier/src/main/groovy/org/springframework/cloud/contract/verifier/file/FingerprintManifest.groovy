@@ -0,0 +1,157 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.file
+
+import groovy.transform.CompileStatic
+import groovy.util.logging.Slf4j
+import org.springframework.cloud.contract.verifier.util.CodeSourceVersion
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.security.MessageDigest
+
+/**
+ * Maps each generated file to the fingerprint of the contracts and settings it was
+ * generated from. Allows to skip the generation of files whose contracts didn't change
+ * since the last build.
+ *
+ * The manifest of the previous build is read on creation. Every output of the current
+ * build has to be {@link #record(java.io.File, java.lang.String) recorded} - whether it
+ * got regenerated or not. On {@link #store()} the outputs that were present in the previous
+ * build but not in the current one (e.g. of removed contracts) are deleted.
+ *
+ * The outputs are stored relative to the output folder and only the files inside it are
+ * ever deleted. Each pair of contracts and output folders gets a manifest of its own, so
+ * generations sharing the fingerprints folder don't remove each other's outputs. An output
+ * written from contracts with different fingerprints in a build is never considered up to date.
+ *
+ * @since 1.0.3
+ */
+@Slf4j
+@CompileStatic
+class FingerprintManifest {
+
+	private static final String GENERATOR_VERSION = CodeSourceVersion.of(FingerprintManifest)
+	private static final String SHARED_OUTPUT = 'shared'
+
+	private final File manifestFile
+	private final Path outputDir
+	private final Map<String, String> previous = [:]
+	private final Map<String, String> current = [:]
+
+	/**
+	 * @param name - prefix of the manifest file name, e.g. the kind of the outputs
+	 */
+	FingerprintManifest(File fingerprintsDir, String name, File contractsDir, File outputDir) {
+		this.outputDir = outputDir.toPath().toAbsolutePath().normalize()
+		this.manifestFile = new File(fingerprintsDir, name + '-' + sha1(
+				contractsDir.toPath().toAbsolutePath().normalize().toString() + '|' + this.outputDir).substring(0, 12)
+				+ '.properties')
+		if (this.manifestFile.exists()) {
+			Properties properties = new Properties()
+			this.manifestFile.withInputStream { InputStream stream -> properties.load(stream) }
+			for (String key : properties.stringPropertyNames()) {
+				this.previous.put(key, properties.getProperty(key))
+			}
+		}
+	}
+
+	/**
+	 * Calculates the fingerprint from the version of the generator, the generator settings
+	 * and the paths and contents of the contracts
+	 */
+	static String fingerprint(String settings, Collection<ContractMetadata> contracts) {
+		MessageDigest digest = MessageDigest.getInstance('SHA-1')
+		update(digest, GENERATOR_VERSION)
+		update(digest, settings)
+		for (ContractMetadata contract : contracts) {
+			update(digest, contract.path.toAbsolutePath().toString())
+			update(digest, String.valueOf(contract.ignored))
+			digest.update(Files.readAllBytes(contract.path))
+		}
+		return digest.digest().encodeHex().toString()
+	}
+
+	/**
+	 * @return {@code true} if the output exists, was generated from contracts with the same
+	 * fingerprint and wasn't written from other contracts in this build
+	 */
+	synchronized boolean isUpToDate(File output, String fingerprint) {
+		String key = key(output)
+		if (key == null) {
+			return false
+		}
+		String recorded = this.current.get(key)
+		return (recorded == null || recorded == fingerprint) && this.previous.get(key) == fingerprint && output.exists()
+	}
+
+	/**
+	 * Outputs outside of the output folder are not recorded, so they are always regenerated.
+	 * An output recorded with different fingerprints is never up to date in the next build.
+	 */
+	synchronized void record(File output, String fingerprint) {
+		String key = key(output)
+		if (key == null) {
+			return
+		}
+		String recorded = this.current.get(key)
+		this.current.put(key, recorded == null || recorded == fingerprint ? fingerprint : SHARED_OUTPUT)
+	}
+
+	/**
+	 * Removes the outputs that weren't recorded in this build and stores the manifest
+	 */
+	synchronized void store() {
+		for (String key : this.previous.keySet()) {
+			if (!this.current.containsKey(key)) {
+				Path output = this.outputDir.resolve(key).normalize()
+				if (output.startsWith(this.outputDir) && Files.isRegularFile(output)) {
+					log.info("Removing [${output}] since its contract is no longer present")
+					Files.delete(output)
+				}
+			}
+		}
+		Properties properties = new Properties()
+		properties.putAll(this.current)
+		this.manifestFile.parentFile?.mkdirs()
+		this.manifestFile.withOutputStream { OutputStream stream -> properties.store(stream, null) }
+	}
+
+	/**
+	 * @return path of the output relative to the output folder or {@code null} if the
+	 * output is not inside of it
+	 */
+	private String key(File output) {
+		Path path = output.toPath().toAbsolutePath().normalize()
+		if (!path.startsWith(this.outputDir) || path == this.outputDir) {
+			return null
+		}
+		return this.outputDir.relativize(path).toString().replace(File.separator, '/')
+	}
+
+	private static String sha1(String value) {
+		MessageDigest digest = MessageDigest.getInstance('SHA-1')
+		update(digest, value)
+		return digest.digest().encodeHex().toString()
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8))
+		digest.update((byte) 0)
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.util
+
+import groovy.transform.CompileStatic
+import groovy.util.logging.Slf4j
+
+/**
+ * Identifies the version of the jar (or folder) a class got loaded from. Used to
+ * invalidate the outputs generated by a different version of the plugin.
+ *
+ * Snapshot builds have no release version so the location and the last modification
+ * time of the jar are used instead.
+ *
+ * @since 1.0.3
+ */
+@Slf4j
+@CompileStatic
+class CodeSourceVersion {
+
+	static String of(Class type) {
+		String version = type.package?.implementationVersion
+		if (version && !version.endsWith('SNAPSHOT')) {
+			return "${type.name}:${version}"
+		}
+		URL location = type.protectionDomain?.codeSource?.location
+		long lastModified = 0
+		try {
+			lastModified = location ? new File(location.toURI()).lastModified() : 0
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			log.debug("Failed to resolve the location of [${type.name}]", e)
+		}
+		return "${type.name}:${version}:${location}:${lastModified}"
+	}
+}
@@ -17,28 +17,224 @@
 package org.springframework.cloud.contract.verifier.util
 
 import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+import groovy.util.logging.Slf4j
+import org.codehaus.groovy.control.CompilationUnit
 import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.control.Phases
+import org.codehaus.groovy.runtime.InvokerHelper
+import org.codehaus.groovy.tools.GroovyClass
 import org.springframework.cloud.contract.spec.Contract
 
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+
 /**
  * Converts a file or String into a {@link Contract}
  *
+ * Compiled contract scripts are cached by the hash of their content so that evaluating
+ * the same contract again doesn't trigger another compilation. If a cache directory
+ * is passed to the conversion (or set via the {@link #CACHE_DIRECTORY_PROPERTY} system
+ * property) then the compiled classes are also stored on disk and reused by subsequent builds.
+ * The hash also covers the versions of Groovy and of the contract jars, so that classes
+ * compiled by a different version are never reused.
+ *
  * @author Marcin Grzejszczak
  *
  * @since 1.0.0
  */
+@Slf4j
 @CompileStatic
 class ContractVerifierDslConverter {
 
+	/**
+	 * System property with the path to the folder in which compiled contracts should be stored
+	 */
+	public static final String CACHE_DIRECTORY_PROPERTY = 'spring.cloud.contract.verifier.compiledContractsCacheDir'
+
+	private static final String CLASS_NAME_PREFIX = 'ContractScript_'
+	private static final String CLASS_FILE_EXTENSION = '.class'
+	private static final String STAGING_PREFIX = '.staging-'
+	private static final int MAX_CACHED_CONTRACTS = 10000
+
+	private static final CompilerConfiguration COMPILER_CONFIGURATION = new CompilerConfiguration(sourceEncoding: 'UTF-8')
+	private static final GroovyClassLoader COMPILATION_CLASS_LOADER =
+			new GroovyClassLoader(ContractVerifierDslConverter.classLoader, COMPILER_CONFIGURATION)
+	private static final Map<String, Class<Script>> COMPILED_CONTRACTS = Collections.synchronizedMap(
+			new LinkedHashMap<String, Class<Script>>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Class<Script>> eldest) {
+					return size() > MAX_CACHED_CONTRACTS
+				}
+			})
+
+	private static final String COMPILER_FINGERPRINT = compilerFingerprint()
+
 	static Contract convert(String dsl) {
-		return groovyShell().evaluate(dsl) as Contract
+		return convert(dsl, null)
+	}
+
+	/**
+	 * @param cacheDirectory - folder in which the compiled contracts are stored between builds.
+	 * If {@code null} the {@link #CACHE_DIRECTORY_PROPERTY} system property is used
+	 */
+	static Contract convert(String dsl, File cacheDirectory) {
+		return evaluate(dsl, cacheDirectory ?: defaultCacheDirectory())
 	}
 
 	static Contract convert(File dsl) {
-		return groovyShell().evaluate(dsl) as Contract
+		return convert(dsl, null)
+	}
+
+	/**
+	 * @param cacheDirectory - folder in which the compiled contracts are stored between builds.
+	 * If {@code null} the {@link #CACHE_DIRECTORY_PROPERTY} system property is used
+	 */
+	static Contract convert(File dsl, File cacheDirectory) {
+		return convert(dsl.getText(StandardCharsets.UTF_8.name()), cacheDirectory)
+	}
+
+	private static File defaultCacheDirectory() {
+		String path = System.getProperty(CACHE_DIRECTORY_PROPERTY)
+		return path ? new File(path) : null
+	}
+
+	@PackageScope
+	static void clearCache() {
+		COMPILED_CONTRACTS.clear()
+	}
+
+	private static Contract evaluate(String dsl, File cacheDirectory) {
+		Class<Script> scriptClass = compiledContract(dsl, cacheDirectory)
+		return InvokerHelper.createScript(scriptClass, new Binding()).run() as Contract
+	}
+
+	private static Class<Script> compiledContract(String dsl, File cacheDirectory) {
+		String hash = hash(dsl)
+		Class<Script> scriptClass = COMPILED_CONTRACTS.get(hash)
+		if (scriptClass == null) {
+			scriptClass = loadOrCompile(hash, dsl, cacheDirectory)
+			COMPILED_CONTRACTS.put(hash, scriptClass)
+		}
+		return scriptClass
 	}
 
-	private static GroovyShell groovyShell() {
-		return new GroovyShell(ContractVerifierDslConverter.classLoader, new Binding(), new CompilerConfiguration(sourceEncoding: 'UTF-8'))
+	private static Class<Script> loadOrCompile(String hash, String dsl, File directory) {
+		String className = CLASS_NAME_PREFIX + hash
+		if (directory) {
+			Class<Script> cachedClass = loadFromDisk(new File(directory, hash), className)
+			if (cachedClass) {
+				return cachedClass
+			}
+		}
+		Map<String, byte[]> classes = compile(className, dsl)
+		if (directory) {
+			storeOnDisk(directory, hash, classes)
+		}
+		return defineScriptClass(classes, className)
+	}
+
+	private static Map<String, byte[]> compile(String className, String dsl) {
+		CompilationUnit unit = new CompilationUnit(COMPILER_CONFIGURATION, null, COMPILATION_CLASS_LOADER)
+		unit.addSource(className + '.groovy', dsl)
+		unit.compile(Phases.CLASS_GENERATION)
+		Map<String, byte[]> classes = [:]
+		for (Object compiled : unit.classes) {
+			GroovyClass groovyClass = (GroovyClass) compiled
+			classes.put(groovyClass.name, groovyClass.bytes)
+		}
+		return classes
+	}
+
+	private static Class<Script> loadFromDisk(File entry, String className) {
+		File[] files = entry.listFiles()
+		if (!files) {
+			return null
+		}
+		try {
+			Map<String, byte[]> classes = [:]
+			for (File file : files) {
+				if (file.name.endsWith(CLASS_FILE_EXTENSION)) {
+					String name = file.name.substring(0, file.name.length() - CLASS_FILE_EXTENSION.length())
+					classes.put(name, Files.readAllBytes(file.toPath()))
+				}
+			}
+			return defineScriptClass(classes, className)
+		} catch (IOException | LinkageError | ClassNotFoundException e) {
+			log.warn("Failed to load the compiled contract from [${entry}]. Will compile it again", e)
+			return null
+		}
+	}
+
+	/**
+	 * Classes are written to a staging folder that is atomically renamed to its
+	 * final location, so other builds either see all the classes of a contract or none
+	 */
+	private static void storeOnDisk(File directory, String hash, Map<String, byte[]> classes) {
+		File entry = new File(directory, hash)
+		File staging = new File(directory, STAGING_PREFIX + UUID.randomUUID())
+		try {
+			Files.createDirectories(staging.toPath())
+			for (Map.Entry<String, byte[]> compiledClass : classes.entrySet()) {
+				Files.write(new File(staging, compiledClass.key + CLASS_FILE_EXTENSION).toPath(), compiledClass.value)
+			}
+			Files.move(staging.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE)
+		} catch (IOException e) {
+			staging.deleteDir()
+			if (!entry.isDirectory()) {
+				log.warn("Failed to store the compiled contract in [${entry}]", e)
+			}
+		}
+	}
+
+	private static Class<Script> defineScriptClass(Map<String, byte[]> classes, String className) {
+		String scriptClassName = classes.keySet().find { String name ->
+			name == className || name.endsWith('.' + className)
+		}
+		if (!scriptClassName) {
+			throw new ClassNotFoundException(className)
+		}
+		return (Class<Script>) new CompiledContractClassLoader(classes).loadClass(scriptClassName)
+	}
+
+	private static String hash(String dsl) {
+		MessageDigest digest = MessageDigest.getInstance('SHA-1')
+		digest.update(COMPILER_FINGERPRINT.getBytes(StandardCharsets.UTF_8))
+		digest.update(dsl.getBytes(StandardCharsets.UTF_8))
+		return digest.digest().encodeHex().toString()
+	}
+
+	/**
+	 * Groovy version and the versions of the jars the compiled contracts link against
+	 */
+	private static String compilerFingerprint() {
+		return ([GroovySystem.version] + [Contract, ContractVerifierDslConverter].collect { Class type ->
+			CodeSourceVersion.of(type)
+		}).join('|')
+	}
+
+	/**
+	 * Each contract gets its own class loader so that the classes of contracts
+	 * evicted from the cache can be garbage collected
+	 */
+	private static class CompiledContractClassLoader extends ClassLoader {
+
+		private final Map<String, byte[]> classes
+
+		CompiledContractClassLoader(Map<String, byte[]> classes) {
+			super(ContractVerifierDslConverter.classLoader)
+			this.classes = classes
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytes = this.classes.get(name)
+			if (bytes == null) {
+				throw new ClassNotFoundException(name)
+			}
+			return defineClass(name, bytes, 0, bytes.length)
+		}
 	}
 }
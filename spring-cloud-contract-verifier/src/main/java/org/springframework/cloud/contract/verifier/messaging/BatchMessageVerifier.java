@@ -0,0 +1,59 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MessageVerifier} that sends and receives many messages at once. The destination
+ * is resolved once per batch.
+ *
+ * @since 1.0.3
+ */
+public interface BatchMessageVerifier<M> extends MessageVerifier<M> {
+
+	/**
+	 * Creates the message that {@link #send(Object, Map, String)} would send, so that it can
+	 * be sent via {@link #sendAll(Collection, String)}.
+	 */
+	<T> M create(T payload, Map<String, Object> headers);
+
+	/**
+	 * Sends the messages to the given destination in the given order.
+	 */
+	void sendAll(Collection<? extends M> messages, String destination);
+
+	/**
+	 * Receives up to {@code count} messages from the given destination. Waits at most the
+	 * given timeout for all of them.
+	 *
+	 * @return the received messages in the order they were received. Fewer than
+	 * {@code count} if the timeout elapsed, empty if {@code count} isn't positive
+	 */
+	List<M> receiveAll(String destination, int count, long timeout, TimeUnit timeUnit);
+
+	/**
+	 * Discards the messages waiting to be received from the given destination.
+	 *
+	 * @return the number of discarded messages
+	 */
+	int clear(String destination);
+}
@@ -0,0 +1,220 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging.amqp;
+
+import static org.mockito.Mockito.mockingDetails;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.invocation.Invocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Messages sent by the application, kept in a bounded queue per exchange until they
+ * get received. When the queue of an exchange is full the oldest message is dropped
+ * and a warning is logged. The capacity defaults to {@value #DEFAULT_CAPACITY} messages
+ * and can be changed with the {@value #CAPACITY_PROPERTY} property.
+ *
+ * The messages sent via a {@link RabbitTemplate} that is a Mockito mock or spy (e.g. a
+ * {@code @SpyBean}) are read from the invocations recorded by Mockito, since such a
+ * template can't be decorated without breaking its verification. The recorded
+ * invocations are checked for new messages every {@value #RECORDED_MESSAGES_POLL_INTERVAL_MILLIS} ms
+ * while waiting for a message.
+ *
+ * @since 1.0.3
+ */
+class CapturedAmqpMessages {
+
+	private static final Logger log = LoggerFactory.getLogger(CapturedAmqpMessages.class);
+
+	static final String CAPACITY_PROPERTY = "stubrunner.amqp.capturedMessagesCapacity";
+
+	static final int DEFAULT_CAPACITY = 1000;
+
+	static final long RECORDED_MESSAGES_POLL_INTERVAL_MILLIS = 20;
+
+	private final int capacity;
+	private final ConcurrentMap<String, BlockingQueue<Message>> messagesByExchange = new ConcurrentHashMap<>();
+	private final List<RecordedInvocations> recordedInvocations = new CopyOnWriteArrayList<>();
+
+	CapturedAmqpMessages() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	CapturedAmqpMessages(int capacity) {
+		Assert.isTrue(capacity > 0, "The capacity of the captured messages [" + capacity + "] must be positive");
+		this.capacity = capacity;
+	}
+
+	void capture(String exchange, Message message) {
+		BlockingQueue<Message> messages = messages(exchange);
+		while (!messages.offer(message)) {
+			Message dropped = messages.poll();
+			if (dropped != null) {
+				log.warn("More than {} messages sent to exchange [{}] were not received. Dropping the oldest one. "
+						+ "Set the [{}] property to keep more of them", this.capacity, exchange, CAPACITY_PROPERTY);
+			}
+		}
+	}
+
+	/**
+	 * Captures the messages sent via the given Mockito mock or spy from its recorded invocations
+	 */
+	void captureRecorded(RabbitTemplate rabbitTemplate) {
+		this.recordedInvocations.add(new RecordedInvocations(rabbitTemplate));
+	}
+
+	/**
+	 * Waits for a message sent to the exchange.
+	 *
+	 * @return the oldest not yet received message or {@code null} if none was sent within
+	 * the timeout
+	 */
+	Message receive(String exchange, long timeout, TimeUnit timeUnit) {
+		try {
+			return poll(messages(exchange), System.nanoTime() + timeUnit.toNanos(timeout));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Waits for up to {@code count} messages sent to the exchange. The received messages
+	 * don't count towards the capacity, but at most {@code capacity} of the messages sent
+	 * before this call are kept - the older ones are dropped.
+	 *
+	 * @return the oldest not yet received messages. Fewer than {@code count} if not
+	 * enough were sent within the timeout
+	 */
+	List<Message> receiveAll(String exchange, int count, long timeout, TimeUnit timeUnit) {
+		if (count <= 0) {
+			return Collections.emptyList();
+		}
+		BlockingQueue<Message> messages = messages(exchange);
+		collectRecordedMessages();
+		List<Message> received = new ArrayList<>(Math.min(count, this.capacity));
+		messages.drainTo(received, count);
+		long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+		try {
+			while (received.size() < count) {
+				Message message = poll(messages, deadline);
+				if (message == null) {
+					break;
+				}
+				received.add(message);
+				messages.drainTo(received, count - received.size());
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return received;
+	}
+
+	/**
+	 * @return the number of discarded messages that were sent to the exchange and not yet
+	 * received
+	 */
+	int clear(String exchange) {
+		collectRecordedMessages();
+		return messages(exchange).drainTo(new ArrayList<Message>());
+	}
+
+	private Message poll(BlockingQueue<Message> messages, long deadline) throws InterruptedException {
+		if (this.recordedInvocations.isEmpty()) {
+			return messages.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+		long interval = TimeUnit.MILLISECONDS.toNanos(RECORDED_MESSAGES_POLL_INTERVAL_MILLIS);
+		while (true) {
+			collectRecordedMessages();
+			long remaining = deadline - System.nanoTime();
+			Message message = messages.poll(Math.min(remaining, interval), TimeUnit.NANOSECONDS);
+			if (message != null || remaining <= 0) {
+				return message;
+			}
+		}
+	}
+
+	private void collectRecordedMessages() {
+		for (RecordedInvocations invocations : this.recordedInvocations) {
+			invocations.collectNewMessages();
+		}
+	}
+
+	private BlockingQueue<Message> messages(String exchange) {
+		String key = exchange == null ? "" : exchange;
+		BlockingQueue<Message> messages = this.messagesByExchange.get(key);
+		if (messages == null) {
+			BlockingQueue<Message> created = new LinkedBlockingQueue<>(this.capacity);
+			messages = this.messagesByExchange.putIfAbsent(key, created);
+			if (messages == null) {
+				messages = created;
+			}
+		}
+		return messages;
+	}
+
+	/**
+	 * Recorded invocations of a mocked template. Mockito drops the recorded invocations
+	 * when the mock gets reset (e.g. after each test), in which case all the invocations
+	 * are new.
+	 */
+	private class RecordedInvocations {
+
+		private final RabbitTemplate rabbitTemplate;
+		private Invocation lastSeen;
+
+		RecordedInvocations(RabbitTemplate rabbitTemplate) {
+			this.rabbitTemplate = rabbitTemplate;
+		}
+
+		synchronized void collectNewMessages() {
+			List<Invocation> invocations = new ArrayList<>(mockingDetails(this.rabbitTemplate).getInvocations());
+			int firstNew = 0;
+			for (int i = invocations.size() - 1; i >= 0; i--) {
+				if (invocations.get(i) == this.lastSeen) {
+					firstNew = i + 1;
+					break;
+				}
+			}
+			for (Invocation invocation : invocations.subList(firstNew, invocations.size())) {
+				if (RabbitTemplateCapturingPostProcessor.isSend(invocation.getMethod())) {
+					Object[] arguments = invocation.getArguments();
+					capture((String) arguments[0], (Message) arguments[2]);
+				}
+			}
+			if (!invocations.isEmpty()) {
+				this.lastSeen = invocations.get(invocations.size() - 1);
+			}
+		}
+	}
+}
@@ -21,6 +21,7 @@ import static java.util.Collections.emptyList;
 import java.util.List;
 
 import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Exchange;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
@@ -34,7 +35,6 @@ import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
 import org.springframework.cloud.contract.verifier.messaging.integration.ContractVerifierIntegrationConfiguration;
 import org.springframework.cloud.contract.verifier.messaging.internal.ContractVerifierMessage;
@@ -42,6 +42,7 @@ import org.springframework.cloud.contract.verifier.messaging.internal.ContractVe
 import org.springframework.cloud.contract.verifier.messaging.stream.ContractVerifierStreamAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 /**
  * Configuration setting up {@link MessageVerifier} for use with plain spring-rabbit/spring-amqp
@@ -56,7 +57,7 @@ import org.springframework.context.annotation.Configuration;
 @AutoConfigureAfter(ContractVerifierStreamAutoConfiguration.class)
 public class ContractVerifierAmqpAutoConfiguration {
 
-	@SpyBean
+	@Autowired
 	private RabbitTemplate rabbitTemplate;
 
 	@Autowired(required = false)
@@ -68,12 +69,23 @@ public class ContractVerifierAmqpAutoConfiguration {
 	@Autowired(required = false)
 	private List<Binding> bindings = emptyList();
 
+	@Autowired(required = false)
+	private List<Exchange> exchanges = emptyList();
+
+	@Bean
+	public static RabbitTemplateCapturingPostProcessor rabbitTemplateCapturingPostProcessor(Environment environment) {
+		return new RabbitTemplateCapturingPostProcessor(environment.getProperty(CapturedAmqpMessages.CAPACITY_PROPERTY,
+				Integer.class, CapturedAmqpMessages.DEFAULT_CAPACITY));
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
-	public MessageVerifier<Message> contractVerifierMessageExchange() {
+	public MessageVerifier<Message> contractVerifierMessageExchange(
+			RabbitTemplateCapturingPostProcessor rabbitTemplateCapturingPostProcessor) {
 
-		return new SpringAmqpStubMessages(this.rabbitTemplate,
-				new MessageListenerAccessor(this.rabbitListenerEndpointRegistry, this.simpleMessageListenerContainers, this.bindings));
+		return new SpringAmqpStubMessages(rabbitTemplateCapturingPostProcessor.getCapturedMessages(),
+				new MessageListenerAccessor(this.rabbitListenerEndpointRegistry, this.simpleMessageListenerContainers,
+						this.bindings, this.exchanges));
 	}
 
 	@Bean
@@ -1,12 +1,22 @@
 package org.springframework.cloud.contract.verifier.messaging.amqp;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.Binding.DestinationType;
+import org.springframework.amqp.core.Exchange;
+import org.springframework.amqp.core.ExchangeTypes;
 import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
 import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
@@ -18,6 +28,10 @@ import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
  * {@link RabbitListenerEndpointRegistry} so that the registry is empty when wired into an auto configuration class
  * so we wrap it in the accessor to access the listeners late at runtime
  *
+ * The listeners are looked up in a routing table of exchanges to the listener containers of the bound queues. The table
+ * is built on first lookup and rebuilt only when the containers in the registry or the bindings change. The listener containers of a
+ * given exchange and routing key are computed once.
+ *
  * @author Mathias Düsterhöft
  * @since 1.0.2
  */
@@ -26,59 +40,234 @@ class MessageListenerAccessor {
 	private final RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry;
 	private final List<SimpleMessageListenerContainer> simpleMessageListenerContainers;
 	private final List<Binding> bindings;
+	private final Map<String, String> exchangeTypes = new HashMap<>();
+	private volatile RoutingTable routingTable;
 
 	MessageListenerAccessor(RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry,
 									List<SimpleMessageListenerContainer> simpleMessageListenerContainers, List<Binding> bindings) {
+		this(rabbitListenerEndpointRegistry, simpleMessageListenerContainers, bindings, Collections.<Exchange>emptyList());
+	}
+
+	/**
+	 * @param exchanges - used to match the routing keys according to the type of the exchange. If the exchange of a
+	 * binding is missing, the binding's routing key is treated as a topic pattern if it contains a wildcard
+	 */
+	MessageListenerAccessor(RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry,
+									List<SimpleMessageListenerContainer> simpleMessageListenerContainers, List<Binding> bindings,
+									List<Exchange> exchanges) {
 		this.rabbitListenerEndpointRegistry = rabbitListenerEndpointRegistry;
 		this.simpleMessageListenerContainers = simpleMessageListenerContainers;
 		this.bindings = bindings;
+		for (Exchange exchange : exchanges) {
+			this.exchangeTypes.put(exchange.getName(), exchange.getType());
+		}
 	}
 
 	List<SimpleMessageListenerContainer> getListenerContainersForDestination(String destination) {
-		List<SimpleMessageListenerContainer> listenerContainers = collectListenerContainers();
-		//we interpret the destination as exchange name and collect all the queues bound to this exchange
-		Set<String> queueNames = collectQueuesBoundToDestination(destination);
+		return getListenerContainersForDestination(destination, null);
+	}
 
-		return getListenersByBoundQueues(listenerContainers, queueNames);
+	/**
+	 * We interpret the destination as exchange name and return the listener containers of the queues bound to it
+	 *
+	 * @param routingKey - if {@code null} then the listener containers of all the queues bound to the exchange are
+	 * returned
+	 */
+	List<SimpleMessageListenerContainer> getListenerContainersForDestination(String destination, String routingKey) {
+		return routingTable().getListenerContainers(destination, routingKey);
 	}
 
-	private List<SimpleMessageListenerContainer> getListenersByBoundQueues(List<SimpleMessageListenerContainer> listenerContainers, Set<String> queueNames) {
-		List<SimpleMessageListenerContainer> matchingContainers = new ArrayList<>();
-		for (SimpleMessageListenerContainer listenerContainer : listenerContainers) {
-			if (listenerContainer.getQueueNames() != null) {
-				for (String queueName :  listenerContainer.getQueueNames()) {
-					if (queueNames.contains(queueName)) {
-						matchingContainers.add(listenerContainer);
-						break;
-					}
-				}
-			}
+	private RoutingTable routingTable() {
+		RoutingTable routingTable = this.routingTable;
+		Collection<MessageListenerContainer> registeredContainers = registeredContainers();
+		if (routingTable != null && routingTable.isBuiltFrom(registeredContainers)) {
+			return routingTable;
 		}
-		return matchingContainers;
+		routingTable = new RoutingTable(registeredContainers, collectListenerContainers(registeredContainers));
+		this.routingTable = routingTable;
+		return routingTable;
 	}
 
-	private Set<String> collectQueuesBoundToDestination(String destination) {
-		Set<String> queueNames = new HashSet<>();
-		for (Binding binding: this.bindings) {
-			if (destination.equals(binding.getExchange()) && DestinationType.QUEUE.equals(binding.getDestinationType())) {
-				queueNames.add(binding.getDestination());
-			}
+	private Collection<MessageListenerContainer> registeredContainers() {
+		if (this.rabbitListenerEndpointRegistry == null) {
+			return Collections.emptyList();
 		}
-		return queueNames;
+		return this.rabbitListenerEndpointRegistry.getListenerContainers();
 	}
 
-	private List<SimpleMessageListenerContainer> collectListenerContainers() {
+	private List<SimpleMessageListenerContainer> collectListenerContainers(
+			Collection<MessageListenerContainer> registeredContainers) {
 		List<SimpleMessageListenerContainer> listenerContainers = new ArrayList<>();
 		if (this.simpleMessageListenerContainers != null) {
 			listenerContainers.addAll(this.simpleMessageListenerContainers);
 		}
-		if (this.rabbitListenerEndpointRegistry != null) {
-			for (MessageListenerContainer listenerContainer : this.rabbitListenerEndpointRegistry.getListenerContainers()) {
-				if (listenerContainer instanceof SimpleMessageListenerContainer) {
-					listenerContainers.add((SimpleMessageListenerContainer) listenerContainer);
-				}
+		for (MessageListenerContainer listenerContainer : registeredContainers) {
+			if (listenerContainer instanceof SimpleMessageListenerContainer) {
+				listenerContainers.add((SimpleMessageListenerContainer) listenerContainer);
 			}
 		}
 		return listenerContainers;
 	}
+
+	/**
+	 * Immutable routing of exchanges to the listener containers of the queues bound to them
+	 */
+	private class RoutingTable {
+
+		private final List<MessageListenerContainer> registeredContainers;
+		private final List<Binding> bindings;
+		private final List<SimpleMessageListenerContainer> listenerContainers;
+		private final Map<String, List<Route>> routesByExchange = new LinkedHashMap<>();
+		private final Map<String, List<SimpleMessageListenerContainer>> containersByExchange = new HashMap<>();
+		private final ConcurrentMap<String, ConcurrentMap<String, List<SimpleMessageListenerContainer>>> containersByRoutingKey =
+				new ConcurrentHashMap<>();
+
+		RoutingTable(Collection<MessageListenerContainer> registeredContainers,
+				List<SimpleMessageListenerContainer> listenerContainers) {
+			this.registeredContainers = new ArrayList<>(registeredContainers);
+			this.bindings = MessageListenerAccessor.this.bindings != null ?
+					new ArrayList<>(MessageListenerAccessor.this.bindings) : Collections.<Binding>emptyList();
+			this.listenerContainers = listenerContainers;
+			for (Binding binding : this.bindings) {
+				if (!DestinationType.QUEUE.equals(binding.getDestinationType())) {
+					continue;
+				}
+				List<Route> routes = this.routesByExchange.get(binding.getExchange());
+				if (routes == null) {
+					routes = new ArrayList<>();
+					this.routesByExchange.put(binding.getExchange(), routes);
+				}
+				routes.add(new Route(binding, MessageListenerAccessor.this.exchangeTypes.get(binding.getExchange())));
+			}
+			for (Map.Entry<String, List<Route>> entry : this.routesByExchange.entrySet()) {
+				Set<String> queueNames = new HashSet<>();
+				for (Route route : entry.getValue()) {
+					queueNames.add(route.queueName);
+				}
+				this.containersByExchange.put(entry.getKey(), getListenersByBoundQueues(queueNames));
+			}
+		}
+
+		boolean isBuiltFrom(Collection<MessageListenerContainer> registeredContainers) {
+			return sameElements(this.registeredContainers, registeredContainers)
+					&& (MessageListenerAccessor.this.bindings == null
+							|| sameElements(this.bindings, MessageListenerAccessor.this.bindings));
+		}
+
+		private boolean sameElements(Collection<?> snapshot, Collection<?> current) {
+			if (snapshot.size() != current.size()) {
+				return false;
+			}
+			Iterator<?> iterator = snapshot.iterator();
+			for (Object element : current) {
+				if (iterator.next() != element) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		List<SimpleMessageListenerContainer> getListenerContainers(String exchange, String routingKey) {
+			List<SimpleMessageListenerContainer> containers = this.containersByExchange.get(exchange);
+			if (containers == null) {
+				return Collections.emptyList();
+			}
+			if (routingKey == null) {
+				return containers;
+			}
+			ConcurrentMap<String, List<SimpleMessageListenerContainer>> byRoutingKey = this.containersByRoutingKey.get(exchange);
+			if (byRoutingKey == null) {
+				byRoutingKey = new ConcurrentHashMap<>();
+				ConcurrentMap<String, List<SimpleMessageListenerContainer>> existing =
+						this.containersByRoutingKey.putIfAbsent(exchange, byRoutingKey);
+				if (existing != null) {
+					byRoutingKey = existing;
+				}
+			}
+			containers = byRoutingKey.get(routingKey);
+			if (containers == null) {
+				containers = route(exchange, routingKey);
+				byRoutingKey.put(routingKey, containers);
+			}
+			return containers;
+		}
+
+		private List<SimpleMessageListenerContainer> route(String exchange, String routingKey) {
+			Set<String> queueNames = new HashSet<>();
+			for (Route route : this.routesByExchange.get(exchange)) {
+				if (route.matches(routingKey)) {
+					queueNames.add(route.queueName);
+				}
+			}
+			return getListenersByBoundQueues(queueNames);
+		}
+
+		private List<SimpleMessageListenerContainer> getListenersByBoundQueues(Set<String> queueNames) {
+			List<SimpleMessageListenerContainer> matchingContainers = new ArrayList<>();
+			for (SimpleMessageListenerContainer listenerContainer : this.listenerContainers) {
+				if (listenerContainer.getQueueNames() != null) {
+					for (String queueName :  listenerContainer.getQueueNames()) {
+						if (queueNames.contains(queueName)) {
+							matchingContainers.add(listenerContainer);
+							break;
+						}
+					}
+				}
+			}
+			return Collections.unmodifiableList(matchingContainers);
+		}
+	}
+
+	/**
+	 * Binding of a queue to an exchange that matches the routing keys according to the type of the exchange
+	 */
+	private static class Route {
+
+		private final String queueName;
+		private final String routingKey;
+		private final boolean matchesAny;
+		private final String[] topicWords;
+
+		Route(Binding binding, String exchangeType) {
+			this.queueName = binding.getDestination();
+			this.routingKey = binding.getRoutingKey();
+			this.matchesAny = ExchangeTypes.FANOUT.equals(exchangeType) || ExchangeTypes.HEADERS.equals(exchangeType);
+			boolean topic = ExchangeTypes.TOPIC.equals(exchangeType) || (exchangeType == null
+					&& this.routingKey != null && (this.routingKey.contains("*") || this.routingKey.contains("#")));
+			this.topicWords = topic ? this.routingKey.split("\\.", -1) : null;
+		}
+
+		boolean matches(String routingKey) {
+			if (this.matchesAny) {
+				return true;
+			}
+			if (this.topicWords != null) {
+				return matchesTopic(0, routingKey.split("\\.", -1), 0);
+			}
+			return routingKey.equals(this.routingKey);
+		}
+
+		/**
+		 * {@code *} matches exactly one word and {@code #} matches zero or more words
+		 */
+		private boolean matchesTopic(int patternIndex, String[] words, int wordIndex) {
+			if (patternIndex == this.topicWords.length) {
+				return wordIndex == words.length;
+			}
+			String pattern = this.topicWords[patternIndex];
+			if ("#".equals(pattern)) {
+				for (int i = wordIndex; i <= words.length; i++) {
+					if (matchesTopic(patternIndex + 1, words, i)) {
+						return true;
+					}
+				}
+				return false;
+			}
+			if (wordIndex == words.length) {
+				return false;
+			}
+			return ("*".equals(pattern) || pattern.equals(words[wordIndex]))
+					&& matchesTopic(patternIndex + 1, words, wordIndex + 1);
+		}
+	}
 }
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging.amqp;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.CorrelationData;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Decorates the {@link RabbitTemplate} beans so that every sent message is put into
+ * {@link CapturedAmqpMessages} under the name of the exchange it was sent to.
+ *
+ * The {@link RabbitTemplate} calls its own {@code send} method from the
+ * {@code convertAndSend} ones and the message post processors don't know the exchange,
+ * so the template gets replaced by a subclass that copies its state and captures the
+ * messages passed to {@code send}. All the calls are passed to the template's methods.
+ * The decorator doesn't record its invocations, so its memory use doesn't grow with the
+ * number of sent messages.
+ *
+ * Templates that are Mockito mocks or spies already (e.g. {@code @SpyBean}) are left as
+ * they are and their sent messages are read from the invocations recorded by Mockito.
+ *
+ * @since 1.0.3
+ */
+class RabbitTemplateCapturingPostProcessor implements BeanPostProcessor {
+
+	private static final Logger log = LoggerFactory.getLogger(RabbitTemplateCapturingPostProcessor.class);
+
+	private static final Class<?>[] SEND_PARAMETERS = { String.class, String.class, Message.class,
+			CorrelationData.class };
+
+	private final CapturedAmqpMessages capturedMessages;
+
+	RabbitTemplateCapturingPostProcessor() {
+		this(CapturedAmqpMessages.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity - maximum number of not received messages kept per exchange
+	 */
+	RabbitTemplateCapturingPostProcessor(int capacity) {
+		this.capturedMessages = new CapturedAmqpMessages(capacity);
+	}
+
+	CapturedAmqpMessages getCapturedMessages() {
+		return this.capturedMessages;
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+		return bean;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if (!(bean instanceof RabbitTemplate)) {
+			return bean;
+		}
+		if (mockingDetails(bean).isMock()) {
+			log.debug("The RabbitTemplate [{}] is a Mockito mock or spy. Its sent messages are read from the "
+					+ "invocations recorded by Mockito", beanName);
+			this.capturedMessages.captureRecorded((RabbitTemplate) bean);
+			return bean;
+		}
+		return capturing((RabbitTemplate) bean);
+	}
+
+	RabbitTemplate capturing(RabbitTemplate rabbitTemplate) {
+		return mock(rabbitTemplate.getClass(), withSettings()
+				.spiedInstance(rabbitTemplate)
+				.defaultAnswer(new CapturingAnswer(this.capturedMessages))
+				.stubOnly());
+	}
+
+	static boolean isSend(Method method) {
+		return "send".equals(method.getName()) && Arrays.equals(SEND_PARAMETERS, method.getParameterTypes());
+	}
+
+	private static class CapturingAnswer implements Answer<Object> {
+
+		private final CapturedAmqpMessages capturedMessages;
+
+		CapturingAnswer(CapturedAmqpMessages capturedMessages) {
+			this.capturedMessages = capturedMessages;
+		}
+
+		@Override
+		public Object answer(InvocationOnMock invocation) throws Throwable {
+			Object result = invocation.callRealMethod();
+			if (isSend(invocation.getMethod())) {
+				Object[] arguments = invocation.getArguments();
+				this.capturedMessages.capture((String) arguments[0], (Message) arguments[2]);
+			}
+			return result;
+		}
+	}
+}
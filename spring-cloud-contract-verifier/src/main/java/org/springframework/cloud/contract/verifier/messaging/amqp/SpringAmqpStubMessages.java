@@ -16,18 +16,14 @@
 
 package org.springframework.cloud.contract.verifier.messaging.amqp;
 
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyString;
-import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mockingDetails;
-import static org.mockito.Mockito.verify;
 import static org.springframework.amqp.support.converter.DefaultClassMapper.DEFAULT_CLASSID_FIELD_NAME;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-import org.mockito.ArgumentCaptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
@@ -35,8 +31,9 @@ import org.springframework.amqp.core.MessageListener;
 import org.springframework.amqp.core.MessagePropertiesBuilder;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
-import org.springframework.amqp.rabbit.support.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.contract.verifier.messaging.BatchMessageVerifier;
 import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
 import org.springframework.util.Assert;
 
@@ -44,33 +41,62 @@ import org.springframework.util.Assert;
  * {@link MessageVerifier} implementation to integrate with plain spring-amqp/spring-rabbit.
  * It is meant to be used without interacting with a running bus.
  *
- * It relies on the RabbitTemplate to be a spy to be able to capture send messages.
+ * The messages sent by the application via the {@code RabbitTemplate} are captured in a
+ * bounded queue per exchange, see {@link RabbitTemplateCapturingPostProcessor}.
+ * {@link #receive(String, long, TimeUnit)} waits for the oldest not yet received message
+ * sent to the given exchange.
  *
  * Messages are not sent to the bus - but are handed over to a {@link SimpleMessageListenerContainer} which
- * allows us to test the full deserialization and listener invocation.
+ * allows us to test the full deserialization and listener invocation. If the message has a received routing key
+ * (the {@code amqp_receivedRoutingKey} header) only the listeners of the queues whose bindings match the routing key
+ * get the message, otherwise all the listeners of the queues bound to the exchange do.
  *
  * @author Mathias Düsterhöft
  * @since 1.0.2
  */
 public class SpringAmqpStubMessages implements
-		MessageVerifier<Message> {
+		BatchMessageVerifier<Message> {
 
 	private static final Logger log = LoggerFactory.getLogger(SpringAmqpStubMessages.class);
 
-	private final RabbitTemplate rabbitTemplate;
+	private final CapturedAmqpMessages capturedMessages;
 
 	private final MessageListenerAccessor messageListenerAccessor;
 
-	@Autowired
+	/**
+	 * @param rabbitTemplate - a Mockito mock or spy of the template used by the application.
+	 * The sent messages are read from its recorded invocations
+	 * @deprecated the messages sent by the {@link RabbitTemplate} beans are captured by the
+	 * auto configuration without the need of a spy
+	 */
+	@Deprecated
 	public SpringAmqpStubMessages(RabbitTemplate rabbitTemplate, MessageListenerAccessor messageListenerAccessor) {
-		Assert.notNull(rabbitTemplate);
-		Assert.isTrue(mockingDetails(rabbitTemplate).isSpy() || mockingDetails(rabbitTemplate).isMock()); //we get send messages by capturing arguments on the spy
-		this.rabbitTemplate = rabbitTemplate;
+		this(recordedMessages(rabbitTemplate), messageListenerAccessor);
+	}
+
+	@Autowired
+	SpringAmqpStubMessages(CapturedAmqpMessages capturedMessages, MessageListenerAccessor messageListenerAccessor) {
+		Assert.notNull(capturedMessages);
+		this.capturedMessages = capturedMessages;
 		this.messageListenerAccessor = messageListenerAccessor;
 	}
 
+	private static CapturedAmqpMessages recordedMessages(RabbitTemplate rabbitTemplate) {
+		Assert.notNull(rabbitTemplate);
+		Assert.isTrue(mockingDetails(rabbitTemplate).isMock(),
+				"The RabbitTemplate has to be a Mockito mock or spy so that the sent messages can be captured");
+		CapturedAmqpMessages capturedMessages = new CapturedAmqpMessages();
+		capturedMessages.captureRecorded(rabbitTemplate);
+		return capturedMessages;
+	}
+
 	@Override
 	public <T> void send(T payload, Map<String, Object> headers, String destination) {
+		send(create(payload, headers), destination);
+	}
+
+	@Override
+	public <T> Message create(T payload, Map<String, Object> headers) {
 		Message message = org.springframework.amqp.core.MessageBuilder
 				.withBody(((String) payload).getBytes())
 				.andProperties(
@@ -81,12 +107,16 @@ public class SpringAmqpStubMessages implements
 		if (headers.containsKey(DEFAULT_CLASSID_FIELD_NAME)) {
 			message.getMessageProperties().setHeader(DEFAULT_CLASSID_FIELD_NAME, headers.get(DEFAULT_CLASSID_FIELD_NAME));
 		}
-		send(message, destination);
+		if (headers.containsKey(AmqpHeaders.RECEIVED_ROUTING_KEY)) {
+			message.getMessageProperties().setReceivedRoutingKey((String) headers.get(AmqpHeaders.RECEIVED_ROUTING_KEY));
+		}
+		return message;
 	}
 
 	@Override
 	public void send(Message message, String destination) {
-		List<SimpleMessageListenerContainer> listenerContainers = this.messageListenerAccessor.getListenerContainersForDestination(destination);
+		List<SimpleMessageListenerContainer> listenerContainers = this.messageListenerAccessor
+				.getListenerContainersForDestination(destination, message.getMessageProperties().getReceivedRoutingKey());
 		if (listenerContainers.isEmpty()) {
 			throw new IllegalStateException("no listeners found for destination " + destination);
 		}
@@ -98,17 +128,11 @@ public class SpringAmqpStubMessages implements
 
 	@Override
 	public Message receive(String destination, long timeout, TimeUnit timeUnit) {
-		ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
-		verify(this.rabbitTemplate).send(eq(destination), anyString(), messageCaptor.capture(), any(CorrelationData.class));
-
-		if (messageCaptor.getAllValues().isEmpty()) {
+		Message message = this.capturedMessages.receive(destination, timeout, timeUnit);
+		if (message == null) {
 			log.info("no messages found on destination {}", destination);
-			return null;
-		} else if (messageCaptor.getAllValues().size() > 1) {
-			log.info("multiple messages found on destination {} returning last one - {}", destination);
-			return messageCaptor.getValue();
 		}
-		return messageCaptor.getValue();
+		return message;
 	}
 
 	@Override
@@ -116,4 +140,31 @@ public class SpringAmqpStubMessages implements
 		return receive(destination, 5, TimeUnit.SECONDS);
 	}
 
+	@Override
+	public void sendAll(Collection<? extends Message> messages, String destination) {
+		for (Message message : messages) {
+			send(message, destination);
+		}
+	}
+
+	/**
+	 * At most {@value CapturedAmqpMessages#DEFAULT_CAPACITY} (or the value of the
+	 * {@value CapturedAmqpMessages#CAPACITY_PROPERTY} property) messages sent to the
+	 * destination are kept until they get received. Sending more before calling this
+	 * method drops the oldest ones.
+	 */
+	@Override
+	public List<Message> receiveAll(String destination, int count, long timeout, TimeUnit timeUnit) {
+		List<Message> messages = this.capturedMessages.receiveAll(destination, count, timeout, timeUnit);
+		if (messages.size() < count) {
+			log.info("only {} of {} messages found on destination {}", messages.size(), count, destination);
+		}
+		return messages;
+	}
+
+	@Override
+	public int clear(String destination) {
+		return this.capturedMessages.clear(destination);
+	}
+
 }
@@ -16,32 +16,53 @@
 
 package org.springframework.cloud.contract.verifier.messaging.camel;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.ConsumerTemplate;
+import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.ProducerTemplate;
+import org.apache.camel.Service;
+import org.apache.camel.StatefulService;
 import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.CamelContextHelper;
+import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.contract.verifier.messaging.BatchMessageVerifier;
 import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
 import org.springframework.stereotype.Component;
 
 /**
+ * {@link MessageVerifier} sending and receiving the messages via a single producer and
+ * consumer template. The templates are thread safe, get created on first use and are
+ * registered as services of the {@link CamelContext} so that they are stopped together
+ * with it. The endpoints are resolved once per destination URI.
+ *
  * @author Marcin Grzejszczak
  */
 @Component
-public class CamelStubMessages implements MessageVerifier<Message> {
+public class CamelStubMessages implements BatchMessageVerifier<Message> {
 
 	private static final Logger log = LoggerFactory.getLogger(
 			CamelStubMessages.class);
 
 	private final CamelContext context;
 	private final ContractVerifierCamelMessageBuilder builder = new ContractVerifierCamelMessageBuilder();
+	private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+	private final Object monitor = new Object();
+	private volatile ProducerTemplate producerTemplate;
+	private volatile ConsumerTemplate consumerTemplate;
 
 	@Autowired
 	public CamelStubMessages(CamelContext context) {
@@ -51,10 +72,9 @@ public class CamelStubMessages implements MessageVerifier<Message> {
 	@Override
 	public void send(Message message, String destination) {
 		try {
-			ProducerTemplate producerTemplate = this.context.createProducerTemplate();
 			Exchange exchange = new DefaultExchange(this.context);
 			exchange.setIn(message);
-			producerTemplate.send(destination, exchange);
+			producerTemplate().send(endpoint(destination), exchange);
 		} catch (Exception e) {
 			log.error("Exception occurred while trying to send a message [" + message + "] " +
 					"to a channel with name [" + destination + "]", e);
@@ -64,14 +84,18 @@ public class CamelStubMessages implements MessageVerifier<Message> {
 
 	@Override
 	public <T> void send(T payload, Map<String, Object> headers, String destination) {
-		send(this.builder.create(payload, headers), destination);
+		send(create(payload, headers), destination);
+	}
+
+	@Override
+	public <T> Message create(T payload, Map<String, Object> headers) {
+		return this.builder.create(payload, headers);
 	}
 
 	@Override
 	public Message receive(String destination, long timeout, TimeUnit timeUnit) {
 		try {
-			ConsumerTemplate consumerTemplate = this.context.createConsumerTemplate();
-			Exchange exchange = consumerTemplate.receive(destination, timeUnit.toMillis(timeout));
+			Exchange exchange = consumerTemplate().receive(endpoint(destination), timeUnit.toMillis(timeout));
 			return exchange.getIn();
 		} catch (Exception e) {
 			log.error("Exception occurred while trying to read a message from " +
@@ -85,4 +109,113 @@ public class CamelStubMessages implements MessageVerifier<Message> {
 		return receive(destination, 5, TimeUnit.SECONDS);
 	}
 
+	@Override
+	public void sendAll(Collection<? extends Message> messages, String destination) {
+		try {
+			ProducerTemplate producerTemplate = producerTemplate();
+			Endpoint endpoint = endpoint(destination);
+			for (Message message : messages) {
+				Exchange exchange = new DefaultExchange(this.context);
+				exchange.setIn(message);
+				producerTemplate.send(endpoint, exchange);
+			}
+		} catch (Exception e) {
+			log.error("Exception occurred while trying to send [" + messages.size() + "] messages " +
+					"to a channel with name [" + destination + "]", e);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<Message> receiveAll(String destination, int count, long timeout, TimeUnit timeUnit) {
+		if (count <= 0) {
+			return Collections.emptyList();
+		}
+		try {
+			ConsumerTemplate consumerTemplate = consumerTemplate();
+			Endpoint endpoint = endpoint(destination);
+			List<Message> received = new ArrayList<>(count);
+			long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+			while (received.size() < count) {
+				Exchange exchange = consumerTemplate.receive(endpoint,
+						Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+				if (exchange == null) {
+					break;
+				}
+				received.add(exchange.getIn());
+			}
+			return received;
+		} catch (Exception e) {
+			log.error("Exception occurred while trying to read [" + count + "] messages from " +
+					" a channel with name [" + destination + "]", e);
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public int clear(String destination) {
+		ConsumerTemplate consumerTemplate = consumerTemplate();
+		Endpoint endpoint = endpoint(destination);
+		int cleared = 0;
+		while (consumerTemplate.receiveNoWait(endpoint) != null) {
+			cleared++;
+		}
+		return cleared;
+	}
+
+	private ProducerTemplate producerTemplate() {
+		ProducerTemplate producerTemplate = this.producerTemplate;
+		if (isRunning(producerTemplate)) {
+			return producerTemplate;
+		}
+		synchronized (this.monitor) {
+			if (!isRunning(this.producerTemplate)) {
+				this.producerTemplate = register(this.context.createProducerTemplate());
+			}
+			return this.producerTemplate;
+		}
+	}
+
+	private ConsumerTemplate consumerTemplate() {
+		ConsumerTemplate consumerTemplate = this.consumerTemplate;
+		if (isRunning(consumerTemplate)) {
+			return consumerTemplate;
+		}
+		synchronized (this.monitor) {
+			if (!isRunning(this.consumerTemplate)) {
+				this.consumerTemplate = register(this.context.createConsumerTemplate());
+			}
+			return this.consumerTemplate;
+		}
+	}
+
+	/**
+	 * Templates of a stopped context are stopped too - the templates and the endpoints
+	 * are then resolved again
+	 */
+	private boolean isRunning(Service template) {
+		return template != null && !(template instanceof StatefulService
+				&& ((StatefulService) template).isStopped());
+	}
+
+	private <T extends Service> T register(T template) {
+		this.endpoints.clear();
+		try {
+			this.context.addService(template, true);
+		}
+		catch (Exception e) {
+			throw ObjectHelper.wrapRuntimeCamelException(e);
+		}
+		return template;
+	}
+
+	private Endpoint endpoint(String destination) {
+		Endpoint endpoint = this.endpoints.get(destination);
+		if (endpoint == null) {
+			endpoint = CamelContextHelper.getMandatoryEndpoint(this.context, destination);
+			this.endpoints.put(destination, endpoint);
+		}
+		return endpoint;
+	}
+
 }
@@ -41,9 +41,16 @@ public class ContractVerifierIntegrationConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	public MessageVerifier<Message<?>> contractVerifierMessageExchange(
+	public DestinationChannelResolver destinationChannelResolver(
 			ApplicationContext applicationContext) {
-		return new SpringIntegrationStubMessages(applicationContext);
+		return new DestinationChannelResolver(applicationContext);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public MessageVerifier<Message<?>> contractVerifierMessageExchange(
+			DestinationChannelResolver destinationChannelResolver) {
+		return new SpringIntegrationStubMessages(destinationChannelResolver);
 	}
 
 	@Bean
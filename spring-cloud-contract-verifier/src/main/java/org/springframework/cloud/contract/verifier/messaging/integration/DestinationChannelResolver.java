@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging.integration;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanNotOfRequiredTypeException;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.messaging.MessageChannel;
+
+/**
+ * Resolves the destinations of the messages to the {@link MessageChannel} beans. The
+ * resolved channels are cached per destination, so that sending or receiving a message
+ * costs a single map lookup. The cache is cleared when the application context gets
+ * refreshed. Destinations that can't be resolved are looked up again on each call.
+ *
+ * By default the destination is the name of the channel bean.
+ *
+ * @since 1.0.3
+ */
+public class DestinationChannelResolver implements ApplicationListener<ContextRefreshedEvent> {
+
+	private final BeanFactory beanFactory;
+	private final ConcurrentMap<String, String> channelNames = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, MessageChannel> channels = new ConcurrentHashMap<>();
+
+	public DestinationChannelResolver(BeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+	/**
+	 * @return the name of the channel bean of the given destination
+	 */
+	public String resolveChannelName(String destination) {
+		String channelName = this.channelNames.get(destination);
+		if (channelName != null) {
+			return channelName;
+		}
+		channelName = channelName(destination);
+		if (channelName == null) {
+			return destination;
+		}
+		this.channelNames.put(destination, channelName);
+		return channelName;
+	}
+
+	public MessageChannel resolveChannel(String destination) {
+		MessageChannel channel = this.channels.get(destination);
+		if (channel == null) {
+			channel = this.beanFactory.getBean(resolveChannelName(destination), MessageChannel.class);
+			if (this.channelNames.containsKey(destination)) {
+				this.channels.put(destination, channel);
+			}
+		}
+		return channel;
+	}
+
+	/**
+	 * @throws BeanNotOfRequiredTypeException if the channel of the destination is not of
+	 * the required type
+	 */
+	public <T extends MessageChannel> T resolveChannel(String destination, Class<T> requiredType) {
+		MessageChannel channel = resolveChannel(destination);
+		if (!requiredType.isInstance(channel)) {
+			throw new BeanNotOfRequiredTypeException(resolveChannelName(destination), requiredType,
+					channel.getClass());
+		}
+		return requiredType.cast(channel);
+	}
+
+	/**
+	 * Removes all the resolved channels, so that they get resolved again on next use
+	 */
+	public void clear() {
+		this.channelNames.clear();
+		this.channels.clear();
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		clear();
+	}
+
+	/**
+	 * @return the name of the channel bean of the given destination. Called once per
+	 * destination until the cache gets cleared. {@code null} if the name can't be resolved
+	 * at the moment - the destination is then used as the name and it is resolved again
+	 * on next call
+	 */
+	protected String channelName(String destination) {
+		return destination;
+	}
+
+	protected BeanFactory getBeanFactory() {
+		return this.beanFactory;
+	}
+}
@@ -16,14 +16,19 @@
 
 package org.springframework.cloud.contract.verifier.messaging.integration;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
+import org.springframework.cloud.contract.verifier.messaging.BatchMessageVerifier;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.PollableChannel;
@@ -34,28 +39,51 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class SpringIntegrationStubMessages implements
-		MessageVerifier<Message<?>> {
+		BatchMessageVerifier<Message<?>> {
 
 	private static final Logger log = LoggerFactory.getLogger(
 			SpringIntegrationStubMessages.class);
 
-	private final ApplicationContext context;
+	private final DestinationChannelResolver channelResolver;
 	private final ContractVerifierIntegrationMessageBuilder builder = new ContractVerifierIntegrationMessageBuilder();
 
 	@Autowired
 	public SpringIntegrationStubMessages(ApplicationContext context) {
-		this.context = context;
+		this(channelResolver(context));
+	}
+
+	/**
+	 * @param channelResolver - resolves the destinations to the channel beans. Shared with
+	 * the other components resolving the destinations of the same context
+	 *
+	 * @since 1.0.3
+	 */
+	public SpringIntegrationStubMessages(DestinationChannelResolver channelResolver) {
+		this.channelResolver = channelResolver;
+	}
+
+	private static DestinationChannelResolver channelResolver(ApplicationContext context) {
+		DestinationChannelResolver channelResolver = new DestinationChannelResolver(context);
+		if (context instanceof ConfigurableApplicationContext) {
+			((ConfigurableApplicationContext) context).addApplicationListener(channelResolver);
+		}
+		return channelResolver;
 	}
 
 	@Override
 	public <T> void send(T payload, Map<String, Object> headers, String destination) {
-		send(this.builder.create(payload, headers), destination);
+		send(create(payload, headers), destination);
+	}
+
+	@Override
+	public <T> Message<?> create(T payload, Map<String, Object> headers) {
+		return this.builder.create(payload, headers);
 	}
 
 	@Override
 	public void send(Message<?> message, String destination) {
 		try {
-			MessageChannel messageChannel = this.context.getBean(destination, MessageChannel.class);
+			MessageChannel messageChannel = this.channelResolver.resolveChannel(destination);
 			messageChannel.send(message);
 		} catch (Exception e) {
 			log.error("Exception occurred while trying to send a message [" + message + "] " +
@@ -67,7 +95,7 @@ public class SpringIntegrationStubMessages implements
 	@Override
 	public Message<?> receive(String destination, long timeout, TimeUnit timeUnit) {
 		try {
-			PollableChannel messageChannel = this.context.getBean(destination, PollableChannel.class);
+			PollableChannel messageChannel = this.channelResolver.resolveChannel(destination, PollableChannel.class);
 			return messageChannel.receive(timeUnit.toMillis(timeout));
 		} catch (Exception e) {
 			log.error("Exception occurred while trying to read a message from " +
@@ -81,4 +109,53 @@ public class SpringIntegrationStubMessages implements
 		return receive(destination, 5, TimeUnit.SECONDS);
 	}
 
+	@Override
+	public void sendAll(Collection<? extends Message<?>> messages, String destination) {
+		try {
+			MessageChannel messageChannel = this.channelResolver.resolveChannel(destination);
+			for (Message<?> message : messages) {
+				messageChannel.send(message);
+			}
+		} catch (Exception e) {
+			log.error("Exception occurred while trying to send [" + messages.size() + "] messages " +
+					"to a channel with name [" + destination + "]", e);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<Message<?>> receiveAll(String destination, int count, long timeout, TimeUnit timeUnit) {
+		if (count <= 0) {
+			return Collections.emptyList();
+		}
+		try {
+			PollableChannel messageChannel = this.channelResolver.resolveChannel(destination, PollableChannel.class);
+			List<Message<?>> received = new ArrayList<>(count);
+			long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+			while (received.size() < count) {
+				Message<?> message = messageChannel.receive(
+						Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+				if (message == null) {
+					break;
+				}
+				received.add(message);
+			}
+			return received;
+		} catch (Exception e) {
+			log.error("Exception occurred while trying to read [" + count + "] messages from " +
+					" a channel with name [" + destination + "]", e);
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public int clear(String destination) {
+		PollableChannel messageChannel = this.channelResolver.resolveChannel(destination, PollableChannel.class);
+		int cleared = 0;
+		while (messageChannel.receive(0) != null) {
+			cleared++;
+		}
+		return cleared;
+	}
+
 }
@@ -16,8 +16,14 @@
 
 package org.springframework.cloud.contract.verifier.messaging.internal;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.cloud.contract.verifier.messaging.BatchMessageVerifier;
 import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
 
 /**
@@ -25,6 +31,12 @@ import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
  *
  */
 public class ContractVerifierMessaging<M> {
+
+	/**
+	 * Maximum number of messages discarded by a single {@link #clear(String)} call if the
+	 * exchange doesn't support batches
+	 */
+	static final int MAX_CLEARED_MESSAGES = 10000;
 	
 	private final MessageVerifier<M> exchange;
 	
@@ -40,6 +52,89 @@ public class ContractVerifierMessaging<M> {
 		return convert(this.exchange.receive(destination));
 	}
 
+	/**
+	 * Sends the messages to the given destination in the given order. Uses the batch send
+	 * of a {@link BatchMessageVerifier}.
+	 *
+	 * @since 1.0.3
+	 */
+	public void sendAll(Collection<ContractVerifierMessage> messages, String destination) {
+		BatchMessageVerifier<M> batchExchange = batchExchange();
+		if (batchExchange != null) {
+			List<M> converted = new ArrayList<>(messages.size());
+			for (ContractVerifierMessage message : messages) {
+				converted.add(batchExchange.create(message.getPayload(), message.getHeaders()));
+			}
+			batchExchange.sendAll(converted, destination);
+			return;
+		}
+		for (ContractVerifierMessage message : messages) {
+			send(message, destination);
+		}
+	}
+
+	/**
+	 * Receives up to {@code count} messages from the given destination, waiting at most
+	 * the given timeout for all of them. Uses the batch receive of a
+	 * {@link BatchMessageVerifier}.
+	 *
+	 * @return the received messages. Fewer than {@code count} if the timeout elapsed,
+	 * empty if {@code count} isn't positive
+	 *
+	 * @since 1.0.3
+	 */
+	public List<ContractVerifierMessage> receiveAll(String destination, int count, long timeout, TimeUnit timeUnit) {
+		if (count <= 0) {
+			return Collections.emptyList();
+		}
+		List<ContractVerifierMessage> messages = new ArrayList<>(count);
+		BatchMessageVerifier<M> batchExchange = batchExchange();
+		if (batchExchange != null) {
+			for (M received : batchExchange.receiveAll(destination, count, timeout, timeUnit)) {
+				messages.add(convert(received));
+			}
+			return messages;
+		}
+		long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+		while (messages.size() < count) {
+			M received = this.exchange.receive(destination,
+					Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			if (received == null) {
+				break;
+			}
+			messages.add(convert(received));
+		}
+		return messages;
+	}
+
+	/**
+	 * Discards the messages waiting to be received from the given destination. If the
+	 * exchange doesn't support batches the messages are received one by one, but at most
+	 * {@value #MAX_CLEARED_MESSAGES} of them, so that a destination that always has a
+	 * message ready doesn't block the call forever.
+	 *
+	 * @return the number of discarded messages
+	 *
+	 * @since 1.0.3
+	 */
+	public int clear(String destination) {
+		BatchMessageVerifier<M> batchExchange = batchExchange();
+		if (batchExchange != null) {
+			return batchExchange.clear(destination);
+		}
+		int cleared = 0;
+		while (cleared < MAX_CLEARED_MESSAGES
+				&& this.exchange.receive(destination, 0, TimeUnit.MILLISECONDS) != null) {
+			cleared++;
+		}
+		return cleared;
+	}
+
+	@SuppressWarnings("unchecked")
+	private BatchMessageVerifier<M> batchExchange() {
+		return this.exchange instanceof BatchMessageVerifier ? (BatchMessageVerifier<M>) this.exchange : null;
+	}
+
 	public <T> ContractVerifierMessage create(T payload, Map<String, Object> headers) {
 		return new ContractVerifierMessage(payload, headers);
 	}
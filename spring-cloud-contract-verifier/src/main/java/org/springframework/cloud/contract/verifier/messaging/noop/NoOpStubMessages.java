@@ -16,15 +16,18 @@
 
 package org.springframework.cloud.contract.verifier.messaging.noop;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
+import org.springframework.cloud.contract.verifier.messaging.BatchMessageVerifier;
 
 /**
  * @author Marcin Grzejszczak
  */
-public class NoOpStubMessages implements MessageVerifier<Object> {
+public class NoOpStubMessages implements BatchMessageVerifier<Object> {
 	@Override
 	public void send(Object message, String destination) {
 	}
@@ -43,4 +46,23 @@ public class NoOpStubMessages implements MessageVerifier<Object> {
 		return null;
 	}
 
+	@Override
+	public <T> Object create(T payload, Map<String, Object> headers) {
+		return payload;
+	}
+
+	@Override
+	public void sendAll(Collection<?> messages, String destination) {
+	}
+
+	@Override
+	public List<Object> receiveAll(String destination, int count, long timeout, TimeUnit timeUnit) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public int clear(String destination) {
+		return 0;
+	}
+
 }
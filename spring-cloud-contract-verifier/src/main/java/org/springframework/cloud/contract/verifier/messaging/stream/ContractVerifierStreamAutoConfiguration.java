@@ -42,9 +42,17 @@ public class ContractVerifierStreamAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	MessageVerifier<Message<?>> contractVerifierMessageExchange(
+	public StreamDestinationChannelResolver streamDestinationChannelResolver(
 			ApplicationContext applicationContext) {
-		return new StreamStubMessages(applicationContext);
+		return new StreamDestinationChannelResolver(applicationContext);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	MessageVerifier<Message<?>> contractVerifierMessageExchange(
+			MessageCollector messageCollector,
+			StreamDestinationChannelResolver streamDestinationChannelResolver) {
+		return new StreamStubMessages(messageCollector, streamDestinationChannelResolver);
 	}
 
 	@Bean
@@ -0,0 +1,72 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging.stream;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cloud.contract.verifier.messaging.integration.DestinationChannelResolver;
+import org.springframework.cloud.stream.config.BindingProperties;
+import org.springframework.cloud.stream.config.ChannelBindingServiceProperties;
+
+/**
+ * {@link DestinationChannelResolver} that resolves the destinations to the names of the
+ * channels bound to them via the {@link ChannelBindingServiceProperties}. If no channel is
+ * bound to the destination, the destination is assumed to be the name of the channel.
+ * If the bindings can't be read, the destination is used as the name of the channel
+ * without caching it, so that it gets resolved again on next use.
+ *
+ * @since 1.0.3
+ */
+public class StreamDestinationChannelResolver extends DestinationChannelResolver {
+
+	private static final Logger log = LoggerFactory.getLogger(StreamDestinationChannelResolver.class);
+
+	public StreamDestinationChannelResolver(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+	@Override
+	protected String channelName(String destination) {
+		try {
+			ChannelBindingServiceProperties channelBindingServiceProperties = getBeanFactory()
+					.getBean(ChannelBindingServiceProperties.class);
+			for (Map.Entry<String, BindingProperties> entry : channelBindingServiceProperties
+					.getBindings().entrySet()) {
+				if (destination.equals(entry.getValue().getDestination())) {
+					if (log.isDebugEnabled()) {
+						log.debug("Found a channel named [{}] with destination [{}]",
+								entry.getKey(), destination);
+					}
+					return entry.getKey();
+				}
+			}
+		} catch (Exception e) {
+			log.error("Exception took place while trying to resolve the destination. Will assume the name [" + destination + "]", e);
+			return null;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug(
+					"No destination named [{}] was found. Assuming that the destination equals the channel name",
+					destination);
+		}
+		return destination;
+	}
+}
@@ -16,47 +16,73 @@
 
 package org.springframework.cloud.contract.verifier.messaging.stream;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
-import org.springframework.cloud.stream.config.BindingProperties;
-import org.springframework.cloud.stream.config.ChannelBindingServiceProperties;
+import org.springframework.cloud.contract.verifier.messaging.BatchMessageVerifier;
 import org.springframework.cloud.stream.test.binder.MessageCollector;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 
 /**
  * @author Marcin Grzejszczak
  */
-public class StreamStubMessages implements MessageVerifier<Message<?>> {
+public class StreamStubMessages implements BatchMessageVerifier<Message<?>> {
 
 	private static final Logger log = LoggerFactory.getLogger(StreamStubMessages.class);
 
-	private final ApplicationContext context;
 	private final MessageCollector messageCollector;
+	private final StreamDestinationChannelResolver channelResolver;
 	private final ContractVerifierStreamMessageBuilder builder = new ContractVerifierStreamMessageBuilder();
 
 	@Autowired
 	public StreamStubMessages(ApplicationContext context) {
-		this.context = context;
-		this.messageCollector = context.getBean(MessageCollector.class);
+		this(context.getBean(MessageCollector.class), channelResolver(context));
+	}
+
+	/**
+	 * @param channelResolver - resolves the destinations to the bound channels. Shared with
+	 * the other components resolving the destinations of the same context
+	 *
+	 * @since 1.0.3
+	 */
+	public StreamStubMessages(MessageCollector messageCollector, StreamDestinationChannelResolver channelResolver) {
+		this.messageCollector = messageCollector;
+		this.channelResolver = channelResolver;
+	}
+
+	private static StreamDestinationChannelResolver channelResolver(ApplicationContext context) {
+		StreamDestinationChannelResolver channelResolver = new StreamDestinationChannelResolver(context);
+		if (context instanceof ConfigurableApplicationContext) {
+			((ConfigurableApplicationContext) context).addApplicationListener(channelResolver);
+		}
+		return channelResolver;
 	}
 
 	@Override
 	public <T> void send(T payload, Map<String, Object> headers, String destination) {
-		send(this.builder.create(payload, headers), destination);
+		send(create(payload, headers), destination);
+	}
+
+	@Override
+	public <T> Message<?> create(T payload, Map<String, Object> headers) {
+		return this.builder.create(payload, headers);
 	}
 
 	@Override
 	public void send(Message<?> message, String destination) {
 		try {
-			MessageChannel messageChannel = this.context
-					.getBean(resolvedDestination(destination), MessageChannel.class);
+			MessageChannel messageChannel = this.channelResolver.resolveChannel(destination);
 			messageChannel.send(message);
 		}
 		catch (Exception e) {
@@ -69,10 +95,14 @@ public class StreamStubMessages implements MessageVerifier<Message<?>> {
 	@Override
 	public Message<?> receive(String destination, long timeout, TimeUnit timeUnit) {
 		try {
-			MessageChannel messageChannel = this.context
-					.getBean(resolvedDestination(destination), MessageChannel.class);
+			MessageChannel messageChannel = this.channelResolver.resolveChannel(destination);
 			return this.messageCollector.forChannel(messageChannel).poll(timeout, timeUnit);
 		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while reading a message from a channel with name ["
+					+ destination + "]", e);
+		}
 		catch (Exception e) {
 			log.error("Exception occurred while trying to read a message from "
 					+ " a channel with name [" + destination + "]", e);
@@ -80,34 +110,64 @@ public class StreamStubMessages implements MessageVerifier<Message<?>> {
 		}
 	}
 
-	private String resolvedDestination(String destination) {
+	@Override
+	public Message<?> receive(String destination) {
+		return receive(destination, 5, TimeUnit.SECONDS);
+	}
+
+	@Override
+	public void sendAll(Collection<? extends Message<?>> messages, String destination) {
 		try {
-			ChannelBindingServiceProperties channelBindingServiceProperties = this.context
-					.getBean(ChannelBindingServiceProperties.class);
-			for (Map.Entry<String, BindingProperties> entry : channelBindingServiceProperties
-					.getBindings().entrySet()) {
-				if (entry.getValue().getDestination().equals(destination)) {
-					if (log.isDebugEnabled()) {
-						log.debug("Found a channel named [{}] with destination [{}]",
-								entry.getKey(), destination);
-					}
-					return entry.getKey();
+			MessageChannel messageChannel = this.channelResolver.resolveChannel(destination);
+			for (Message<?> message : messages) {
+				messageChannel.send(message);
+			}
+		}
+		catch (Exception e) {
+			log.error("Exception occurred while trying to send [" + messages.size() + "] messages "
+					+ "to a channel with name [" + destination + "]", e);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<Message<?>> receiveAll(String destination, int count, long timeout, TimeUnit timeUnit) {
+		if (count <= 0) {
+			return Collections.emptyList();
+		}
+		try {
+			BlockingQueue<Message<?>> messages = this.messageCollector
+					.forChannel(this.channelResolver.resolveChannel(destination));
+			List<Message<?>> received = new ArrayList<>(count);
+			messages.drainTo(received, count);
+			long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+			while (received.size() < count) {
+				Message<?> message = messages.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				if (message == null) {
+					break;
 				}
+				received.add(message);
+				messages.drainTo(received, count - received.size());
 			}
-		} catch (Exception e) {
-			log.error("Exception took place while trying to resolve the destination. Will assume the name [" + destination + "]", e);
+			return received;
 		}
-		if (log.isDebugEnabled()) {
-			log.debug(
-					"No destination named [" + destination + "] was found. Assuming that the destination equals the channel name",
-					destination);
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while reading [" + count + "] messages from a channel "
+					+ "with name [" + destination + "]", e);
+		}
+		catch (Exception e) {
+			log.error("Exception occurred while trying to read [" + count + "] messages from "
+					+ " a channel with name [" + destination + "]", e);
+			throw new IllegalStateException(e);
 		}
-		return destination;
 	}
 
 	@Override
-	public Message<?> receive(String destination) {
-		return receive(destination, 5, TimeUnit.SECONDS);
+	public int clear(String destination) {
+		BlockingQueue<Message<?>> messages = this.messageCollector
+				.forChannel(this.channelResolver.resolveChannel(destination));
+		return messages.drainTo(new ArrayList<Message<?>>());
 	}
 
 }
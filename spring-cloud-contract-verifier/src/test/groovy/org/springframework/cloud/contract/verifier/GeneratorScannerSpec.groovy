@@ -16,13 +16,19 @@
 
 package org.springframework.cloud.contract.verifier
 
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
 import org.springframework.cloud.contract.verifier.builder.SingleTestGenerator
 import org.springframework.cloud.contract.verifier.config.ContractVerifierConfigProperties
 import org.springframework.cloud.contract.verifier.config.TestFramework
+import org.springframework.util.FileSystemUtils
 import spock.lang.Specification
 
 class GeneratorScannerSpec extends Specification {
 
+	@Rule
+	TemporaryFolder tmpFolder = new TemporaryFolder()
+
 	private SingleTestGenerator classGenerator = Mock(SingleTestGenerator)
 
 	def "should find all .json files and generate 6 classes for them"() {
@@ -50,4 +56,113 @@ class GeneratorScannerSpec extends Specification {
 			1 * classGenerator.buildClass(_, 'exceptionsSpec', 'org.springframework.cloud.contract.verifier.v2', _) >> "spec2"
 	}
 
+	def "should generate the same classes in parallel as sequentially"() {
+		given:
+			File contractsDir = new File(this.getClass().getResource("/directory/with/stubs/stubsRepositoryIndicator").toURI()).parentFile
+			File sequentialDir = tmpFolder.newFolder('sequential')
+			File parallelDir = tmpFolder.newFolder('parallel')
+		when:
+			int sequentialClasses = generateTests(contractsDir, sequentialDir, 1)
+			int parallelClasses = generateTests(contractsDir, parallelDir, 4)
+		then:
+			sequentialClasses == 6
+			parallelClasses == sequentialClasses
+			generatedFiles(parallelDir) == generatedFiles(sequentialDir)
+	}
+
+	def "should not regenerate test classes whose contracts did not change"() {
+		given:
+			File contractsDir = tmpFolder.newFolder('contracts')
+			FileSystemUtils.copyRecursively(new File(this.getClass().getResource("/directory/with/stubs/package").toURI()), contractsDir)
+			File outputDir = tmpFolder.newFolder('output')
+			ContractVerifierConfigProperties properties = new ContractVerifierConfigProperties(
+					contractsDslDir: contractsDir, generatedTestSourcesDir: outputDir,
+					basePackageForTests: 'org.springframework.cloud.contract.verifier',
+					contractFingerprintsDir: tmpFolder.newFolder('fingerprints'))
+		when:
+			TestGenerator first = new TestGenerator(properties)
+			TestGenerator second = new TestGenerator(properties)
+		then:
+			first.generate() == 3
+			first.upToDateClasses == 0
+			second.generate() == 3
+			second.upToDateClasses == 3
+		when:
+			new File(contractsDir, 'v1/exceptions').deleteDir()
+			TestGenerator third = new TestGenerator(properties)
+		then:
+			third.generate() == 2
+			third.upToDateClasses == 2
+			generatedFiles(outputDir).size() == 2
+	}
+
+	def "should regenerate a test class written from more than one directory when any of them changes"() {
+		given:
+			File packageDir = new File(this.getClass().getResource("/directory/with/stubs/package").toURI())
+			File contractsDir = tmpFolder.newFolder('contracts')
+			FileSystemUtils.copyRecursively(new File(packageDir, 'v1/exceptions'), new File(contractsDir, 'foo-bar/exceptions'))
+			FileSystemUtils.copyRecursively(new File(packageDir, 'v2/exceptions'), new File(contractsDir, 'foo_bar/exceptions'))
+			File outputDir = tmpFolder.newFolder('output')
+			ContractVerifierConfigProperties properties = new ContractVerifierConfigProperties(
+					contractsDslDir: contractsDir, generatedTestSourcesDir: outputDir,
+					basePackageForTests: 'org.springframework.cloud.contract.verifier',
+					contractFingerprintsDir: tmpFolder.newFolder('fingerprints'))
+		when:
+			new TestGenerator(properties).generate()
+			new File(contractsDir, 'foo-bar/exceptions/testv1.groovy').text = new File(packageDir, 'exceptions/test.groovy').text
+			TestGenerator second = new TestGenerator(properties)
+			second.generate()
+		then:
+			second.upToDateClasses == 0
+			generatedFiles(outputDir) == generatedFiles(generateTestsInto(contractsDir))
+		when:
+			TestGenerator third = new TestGenerator(properties)
+			third.generate()
+		then:
+			third.upToDateClasses == 2
+			generatedFiles(outputDir) == generatedFiles(generateTestsInto(contractsDir))
+	}
+
+	def "should not remove the test classes of another generation sharing the fingerprints directory"() {
+		given:
+			File packageDir = new File(this.getClass().getResource("/directory/with/stubs/package").toURI())
+			File fingerprintsDir = tmpFolder.newFolder('fingerprints')
+			ContractVerifierConfigProperties first = new ContractVerifierConfigProperties(
+					contractsDslDir: new File(packageDir, 'v1'), generatedTestSourcesDir: tmpFolder.newFolder('first'),
+					basePackageForTests: 'org.springframework.cloud.contract.verifier', contractFingerprintsDir: fingerprintsDir)
+			ContractVerifierConfigProperties second = new ContractVerifierConfigProperties(
+					contractsDslDir: new File(packageDir, 'v2'), generatedTestSourcesDir: tmpFolder.newFolder('second'),
+					basePackageForTests: 'org.springframework.cloud.contract.verifier', contractFingerprintsDir: fingerprintsDir)
+		when:
+			new TestGenerator(first).generate()
+			new TestGenerator(second).generate()
+			TestGenerator firstAgain = new TestGenerator(first)
+			firstAgain.generate()
+		then:
+			firstAgain.upToDateClasses == 1
+			generatedFiles(first.generatedTestSourcesDir).size() == 1
+			generatedFiles(second.generatedTestSourcesDir).size() == 1
+	}
+
+	private File generateTestsInto(File contractsDir) {
+		File outputDir = tmpFolder.newFolder()
+		generateTests(contractsDir, outputDir, 1)
+		return outputDir
+	}
+
+	private int generateTests(File contractsDir, File outputDir, int threads) {
+		ContractVerifierConfigProperties properties = new ContractVerifierConfigProperties(
+				contractsDslDir: contractsDir, generatedTestSourcesDir: outputDir,
+				basePackageForTests: 'org.springframework.cloud.contract.verifier', testGenerationThreads: threads)
+		return new TestGenerator(properties).generate()
+	}
+
+	private Map<String, String> generatedFiles(File dir) {
+		Map<String, String> files = new TreeMap<>()
+		dir.eachFileRecurse(groovy.io.FileType.FILES) {
+			files[dir.toPath().relativize(it.toPath()).toString()] = it.text
+		}
+		return files
+	}
+
 }
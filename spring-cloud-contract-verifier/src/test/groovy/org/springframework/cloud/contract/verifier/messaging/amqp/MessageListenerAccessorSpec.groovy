@@ -3,7 +3,9 @@ package org.springframework.cloud.contract.verifier.messaging.amqp
 import org.springframework.amqp.core.Binding
 import org.springframework.amqp.core.BindingBuilder
 import org.springframework.amqp.core.DirectExchange
+import org.springframework.amqp.core.FanoutExchange
 import org.springframework.amqp.core.Queue
+import org.springframework.amqp.core.TopicExchange
 import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer
 import spock.lang.Specification
@@ -60,6 +62,59 @@ class MessageListenerAccessorSpec extends Specification {
             listenerContainersForDestination.get(0) == this.listenerContainer
     }
 
+    def "should reuse the routing table until the containers of the RabbitListenerEndpointRegistry change"(){
+        given:
+            givenSimpleMessageListenerContainer()
+            SimpleMessageListenerContainer otherContainer = listenerContainer("test.queue")
+            List<SimpleMessageListenerContainer> registeredContainers = [this.listenerContainer]
+            RabbitListenerEndpointRegistry rabbitListenerEndpointRegistryMock = Mock(RabbitListenerEndpointRegistry)
+            rabbitListenerEndpointRegistryMock.getListenerContainers() >> { registeredContainers }
+            MessageListenerAccessor messageListenerAccessor = new MessageListenerAccessor(rabbitListenerEndpointRegistryMock, [], [this.binding])
+        when:
+            List<SimpleMessageListenerContainer> first = messageListenerAccessor.getListenerContainersForDestination(this.exchange)
+        then:
+            messageListenerAccessor.getListenerContainersForDestination(this.exchange).is(first)
+        when:
+            registeredContainers = [this.listenerContainer, otherContainer]
+        then:
+            messageListenerAccessor.getListenerContainersForDestination(this.exchange) == [this.listenerContainer, otherContainer]
+    }
+
+    def "should get the listener containers of the queues whose bindings match the routing key"(){
+        given:
+            SimpleMessageListenerContainer orders = listenerContainer("orders")
+            SimpleMessageListenerContainer allOrders = listenerContainer("all.orders")
+            SimpleMessageListenerContainer audit = listenerContainer("audit")
+            SimpleMessageListenerContainer created = listenerContainer("created")
+            TopicExchange topic = new TopicExchange("topic-exchange")
+            DirectExchange direct = new DirectExchange("direct-exchange")
+            FanoutExchange fanout = new FanoutExchange("fanout-exchange")
+            List<Binding> bindings = [
+                    BindingBuilder.bind(new Queue("orders")).to(topic).with("order.*"),
+                    BindingBuilder.bind(new Queue("all.orders")).to(topic).with("order.#"),
+                    BindingBuilder.bind(new Queue("created")).to(direct).with("order.created"),
+                    BindingBuilder.bind(new Queue("audit")).to(fanout)]
+            MessageListenerAccessor messageListenerAccessor = new MessageListenerAccessor(null,
+                    [orders, allOrders, audit, created], bindings, [topic, direct, fanout])
+        expect:
+            messageListenerAccessor.getListenerContainersForDestination("topic-exchange", "order.created") == [orders, allOrders]
+            messageListenerAccessor.getListenerContainersForDestination("topic-exchange", "order.created.eu") == [allOrders]
+            messageListenerAccessor.getListenerContainersForDestination("topic-exchange", "order") == [allOrders]
+            messageListenerAccessor.getListenerContainersForDestination("topic-exchange", "invoice.created").isEmpty()
+            messageListenerAccessor.getListenerContainersForDestination("topic-exchange", null) == [orders, allOrders]
+            messageListenerAccessor.getListenerContainersForDestination("direct-exchange", "order.created") == [created]
+            messageListenerAccessor.getListenerContainersForDestination("direct-exchange", "order.deleted").isEmpty()
+            messageListenerAccessor.getListenerContainersForDestination("fanout-exchange", "anything") == [audit]
+            messageListenerAccessor.getListenerContainersForDestination("topic-exchange", "order.created")
+                    .is(messageListenerAccessor.getListenerContainersForDestination("topic-exchange", "order.created"))
+    }
+
+    SimpleMessageListenerContainer listenerContainer(String queueName) {
+        SimpleMessageListenerContainer listenerContainer = new SimpleMessageListenerContainer()
+        listenerContainer.setQueueNames(queueName)
+        return listenerContainer
+    }
+
     def givenSimpleMessageListenerContainer() {
         this.listenerContainer = new SimpleMessageListenerContainer()
         this.listenerContainer.setQueueNames(this.queueName)
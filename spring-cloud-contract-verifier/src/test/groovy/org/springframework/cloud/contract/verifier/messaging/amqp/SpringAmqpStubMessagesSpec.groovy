@@ -5,12 +5,27 @@ import org.springframework.amqp.core.Binding
 import org.springframework.amqp.core.BindingBuilder
 import org.springframework.amqp.core.DirectExchange
 import org.springframework.amqp.core.Queue
+import org.springframework.amqp.core.TopicExchange
+import org.springframework.amqp.core.Message
+import org.springframework.amqp.core.MessageProperties
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory
 import org.springframework.amqp.rabbit.core.RabbitTemplate
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer
 import org.springframework.amqp.rabbit.listener.adapter.MessageListenerAdapter
+import org.springframework.amqp.support.AmqpHeaders
 import spock.lang.Specification
 
+import com.rabbitmq.client.Channel
+import com.rabbitmq.client.Connection
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.TimeUnit
+
 import static org.mockito.Mockito.mock
+import static org.mockito.Mockito.reset
+import static org.mockito.Mockito.spy
+import static org.mockito.Mockito.verify
+import static org.mockito.Mockito.when
 import static org.springframework.amqp.core.MessageProperties.CONTENT_TYPE_JSON
 import static org.springframework.amqp.support.converter.DefaultClassMapper.DEFAULT_CLASSID_FIELD_NAME
 /**
@@ -18,7 +33,6 @@ import static org.springframework.amqp.support.converter.DefaultClassMapper.DEFA
  */
 class SpringAmqpStubMessagesSpec extends Specification {
 
-    RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class)
     SimpleMessageListenerContainer listenerContainer = new SimpleMessageListenerContainer()
     MessageListenerAdapter messageListenerAdapter = Mock(MessageListenerAdapter.class)
 
@@ -32,7 +46,7 @@ class SpringAmqpStubMessagesSpec extends Specification {
             listenerContainer.setQueueNames(queueName)
             Binding binding = BindingBuilder.bind(new Queue(queueName)).to(new DirectExchange(exchange)).with("#")
             MessageListenerAccessor messageListenerAccessor = new MessageListenerAccessor(null, [listenerContainer], [binding])
-            SpringAmqpStubMessages messageVerifier = new SpringAmqpStubMessages(rabbitTemplate, messageListenerAccessor)
+            SpringAmqpStubMessages messageVerifier = new SpringAmqpStubMessages(new CapturedAmqpMessages(), messageListenerAccessor)
 
         when:
             messageVerifier.send(payload,
@@ -47,4 +61,157 @@ class SpringAmqpStubMessagesSpec extends Specification {
                 it.getMessageProperties().getHeaders().get(DEFAULT_CLASSID_FIELD_NAME) == "org.example.Some"
             })
     }
+
+    def "should send amqp message only to the listeners of the queues bound with the received routing key"() {
+        given:
+            MessageListenerAdapter otherListenerAdapter = Mock(MessageListenerAdapter.class)
+            SimpleMessageListenerContainer otherContainer = new SimpleMessageListenerContainer()
+            otherContainer.setMessageListener(otherListenerAdapter)
+            otherContainer.setQueueNames("other.queue")
+            listenerContainer.setMessageListener(messageListenerAdapter)
+            listenerContainer.setQueueNames(queueName)
+            TopicExchange topicExchange = new TopicExchange(exchange)
+            MessageListenerAccessor messageListenerAccessor = new MessageListenerAccessor(null, [listenerContainer, otherContainer],
+                    [BindingBuilder.bind(new Queue(queueName)).to(topicExchange).with("order.*"),
+                     BindingBuilder.bind(new Queue("other.queue")).to(topicExchange).with("invoice.*")],
+                    [topicExchange])
+            SpringAmqpStubMessages messageVerifier = new SpringAmqpStubMessages(new CapturedAmqpMessages(), messageListenerAccessor)
+        when:
+            messageVerifier.send(payload,
+                    ImmutableMap.builder()
+                            .put(AmqpHeaders.RECEIVED_ROUTING_KEY, "order.created")
+                            .put("contentType", CONTENT_TYPE_JSON)
+                            .build(),
+                    exchange)
+        then:
+            1 * messageListenerAdapter.onMessage({ it.getMessageProperties().getReceivedRoutingKey() == "order.created" })
+            0 * otherListenerAdapter.onMessage(_)
+    }
+
+    def "should receive the messages sent via the rabbit template in the order they were sent"() {
+        given:
+            RabbitTemplateCapturingPostProcessor postProcessor = new RabbitTemplateCapturingPostProcessor()
+            RabbitTemplate rabbitTemplate = postProcessor.postProcessAfterInitialization(new RabbitTemplate(mockConnectionFactory()), "rabbitTemplate") as RabbitTemplate
+            SpringAmqpStubMessages messageVerifier = new SpringAmqpStubMessages(postProcessor.capturedMessages,
+                    new MessageListenerAccessor(null, [], []))
+        when:
+            rabbitTemplate.convertAndSend(exchange, "#", "first")
+            rabbitTemplate.send(exchange, "#", new Message("second".bytes, new MessageProperties()))
+            rabbitTemplate.convertAndSend("other-exchange", "#", "other")
+        then:
+            new String(messageVerifier.receive(exchange).body) == "first"
+            new String(messageVerifier.receive(exchange).body) == "second"
+            new String(messageVerifier.receive("other-exchange").body) == "other"
+    }
+
+    def "should receive the messages sent via a rabbit template spy and keep it verifiable"() {
+        given:
+            RabbitTemplateCapturingPostProcessor postProcessor = new RabbitTemplateCapturingPostProcessor()
+            RabbitTemplate spiedTemplate = spy(new RabbitTemplate(mockConnectionFactory()))
+            RabbitTemplate rabbitTemplate = postProcessor.postProcessAfterInitialization(spiedTemplate, "rabbitTemplate") as RabbitTemplate
+            SpringAmqpStubMessages messageVerifier = new SpringAmqpStubMessages(postProcessor.capturedMessages,
+                    new MessageListenerAccessor(null, [], []))
+        when:
+            rabbitTemplate.convertAndSend(exchange, "#", "first")
+            rabbitTemplate.convertAndSend(exchange, "#", "second")
+        then:
+            rabbitTemplate.is(spiedTemplate)
+            messageVerifier.receiveAll(exchange, 2, 1, TimeUnit.SECONDS).collect { new String(it.body) } == ["first", "second"]
+            messageVerifier.receive(exchange, 100, TimeUnit.MILLISECONDS) == null
+        and:
+            verify(spiedTemplate).convertAndSend(exchange, "#", "first")
+        when:
+            reset(spiedTemplate)
+            Thread.start {
+                Thread.sleep(100)
+                rabbitTemplate.convertAndSend(exchange, "#", "after reset")
+            }
+        then:
+            new String(messageVerifier.receive(exchange, 5, TimeUnit.SECONDS).body) == "after reset"
+    }
+
+    def "should receive the messages sent via the rabbit template spy passed to the deprecated constructor"() {
+        given:
+            RabbitTemplate rabbitTemplate = spy(new RabbitTemplate(mockConnectionFactory()))
+            SpringAmqpStubMessages messageVerifier = new SpringAmqpStubMessages(rabbitTemplate,
+                    new MessageListenerAccessor(null, [], []))
+        when:
+            rabbitTemplate.convertAndSend(exchange, "#", "sent")
+        then:
+            new String(messageVerifier.receive(exchange).body) == "sent"
+    }
+
+    def "should fail when the rabbit template passed to the deprecated constructor is not a spy"() {
+        when:
+            new SpringAmqpStubMessages(new RabbitTemplate(mockConnectionFactory()), new MessageListenerAccessor(null, [], []))
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+    def "should wait for a message until the timeout"() {
+        given:
+            CapturedAmqpMessages capturedMessages = new CapturedAmqpMessages()
+            SpringAmqpStubMessages messageVerifier = new SpringAmqpStubMessages(capturedMessages,
+                    new MessageListenerAccessor(null, [], []))
+        when:
+            long start = System.nanoTime()
+            Message message = messageVerifier.receive(exchange, 200, TimeUnit.MILLISECONDS)
+        then:
+            message == null
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190
+        when:
+            Thread.start {
+                Thread.sleep(100)
+                capturedMessages.capture(exchange, new Message("late".bytes, new MessageProperties()))
+            }
+            message = messageVerifier.receive(exchange, 5, TimeUnit.SECONDS)
+        then:
+            new String(message.body) == "late"
+    }
+
+    def "should drop the oldest messages when too many were not received"() {
+        given:
+            CapturedAmqpMessages capturedMessages = new CapturedAmqpMessages(2)
+        when:
+            ["first", "second", "third"].each {
+                capturedMessages.capture(exchange, new Message(it.bytes, new MessageProperties()))
+            }
+        then:
+            new String(capturedMessages.receive(exchange, 0, TimeUnit.SECONDS).body) == "second"
+            new String(capturedMessages.receive(exchange, 0, TimeUnit.SECONDS).body) == "third"
+            capturedMessages.receive(exchange, 0, TimeUnit.SECONDS) == null
+    }
+
+    def "should reject a capacity that is not positive"() {
+        when:
+            new CapturedAmqpMessages(0)
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+    def "should receive and clear the captured messages in batches"() {
+        given:
+            CapturedAmqpMessages capturedMessages = new CapturedAmqpMessages()
+            SpringAmqpStubMessages messageVerifier = new SpringAmqpStubMessages(capturedMessages,
+                    new MessageListenerAccessor(null, [], []))
+            (1..10).each {
+                capturedMessages.capture(exchange, new Message("${it}".bytes, new MessageProperties()))
+            }
+        when:
+            List<Message> messages = messageVerifier.receiveAll(exchange, 4, 1, TimeUnit.SECONDS)
+        then:
+            messages.collect { new String(it.body) } == ["1", "2", "3", "4"]
+            messageVerifier.clear(exchange) == 6
+            messageVerifier.receiveAll(exchange, 4, 100, TimeUnit.MILLISECONDS).isEmpty()
+    }
+
+    private CachingConnectionFactory mockConnectionFactory() {
+        com.rabbitmq.client.ConnectionFactory mockConnectionFactory = mock(com.rabbitmq.client.ConnectionFactory.class)
+        Connection mockConnection = mock(Connection.class)
+        Channel mockChannel = mock(Channel.class)
+        when(mockConnectionFactory.newConnection((ExecutorService) null)).thenReturn(mockConnection)
+        when(mockConnection.isOpen()).thenReturn(true)
+        when(mockConnection.createChannel()).thenReturn(mockChannel)
+        return new CachingConnectionFactory(mockConnectionFactory)
+    }
 }
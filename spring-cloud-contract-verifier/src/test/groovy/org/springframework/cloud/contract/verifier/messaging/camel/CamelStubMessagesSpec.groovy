@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging.camel
+
+import org.apache.camel.Message
+import org.apache.camel.ProducerTemplate
+import org.apache.camel.impl.DefaultCamelContext
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class CamelStubMessagesSpec extends Specification {
+
+	DefaultCamelContext context = new DefaultCamelContext()
+	CamelStubMessages messages = new CamelStubMessages(context)
+
+	def setup() {
+		context.start()
+	}
+
+	def cleanup() {
+		context.stop()
+	}
+
+	def 'should send and receive the messages via the same templates and endpoints'() {
+		when:
+			messages.send('first', [foo: 'bar'], 'seda:books')
+			ProducerTemplate producerTemplate = messages.@producerTemplate
+			messages.send('second', [:], 'seda:books')
+		then:
+			messages.@producerTemplate.is(producerTemplate)
+			messages.@endpoints.size() == 1
+		when:
+			Message first = messages.receive('seda:books', 1, TimeUnit.SECONDS)
+			Message second = messages.receive('seda:books')
+		then:
+			first.body == 'first'
+			first.getHeader('foo') == 'bar'
+			second.body == 'second'
+			messages.@endpoints.size() == 1
+	}
+
+	def 'should stop the templates together with the context and recreate them afterwards'() {
+		given:
+			messages.send('first', [:], 'seda:books')
+			ProducerTemplate producerTemplate = messages.@producerTemplate
+		when:
+			context.stop()
+		then:
+			producerTemplate.isStopped()
+		when:
+			context.start()
+			messages.send('second', [:], 'seda:books')
+		then:
+			!messages.@producerTemplate.is(producerTemplate)
+			messages.receive('seda:books').body == 'second'
+	}
+
+	def 'should send and receive the messages in batches'() {
+		given:
+			List<Message> sent = (1..20).collect {
+				new ContractVerifierCamelMessageBuilder().create("message ${it}".toString(), [:])
+			}
+		when:
+			messages.sendAll(sent, 'seda:books')
+		then:
+			messages.receiveAll('seda:books', 15, 1, TimeUnit.SECONDS)*.body == (1..15).collect { "message ${it}".toString() }
+			messages.receiveAll('seda:books', 10, 100, TimeUnit.MILLISECONDS).size() == 5
+		when:
+			messages.sendAll(sent, 'seda:books')
+		then:
+			messages.clear('seda:books') == 20
+			messages.receiveAll('seda:books', 1, 0, TimeUnit.SECONDS).isEmpty()
+	}
+}
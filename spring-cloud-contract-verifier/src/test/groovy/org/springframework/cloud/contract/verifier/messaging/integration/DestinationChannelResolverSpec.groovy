@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging.integration
+
+import org.springframework.beans.factory.BeanNotOfRequiredTypeException
+import org.springframework.context.event.ContextRefreshedEvent
+import org.springframework.context.support.StaticApplicationContext
+import org.springframework.integration.channel.DirectChannel
+import org.springframework.integration.channel.QueueChannel
+import org.springframework.messaging.PollableChannel
+import org.springframework.messaging.support.MessageBuilder
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class DestinationChannelResolverSpec extends Specification {
+
+	StaticApplicationContext context = new StaticApplicationContext()
+	DestinationChannelResolver resolver = new DestinationChannelResolver(context)
+
+	def setup() {
+		context.registerSingleton('books', QueueChannel)
+		context.registerSingleton('direct', DirectChannel)
+		context.refresh()
+	}
+
+	def 'should resolve the channel of a destination once'() {
+		when:
+			PollableChannel channel = resolver.resolveChannel('books', PollableChannel)
+		then:
+			channel.is(context.getBean('books'))
+		when:
+			context.removeBeanDefinition('books')
+		then:
+			resolver.resolveChannel('books').is(channel)
+	}
+
+	def 'should resolve the channels again after the context got refreshed'() {
+		given:
+			resolver.resolveChannel('books')
+			context.removeBeanDefinition('books')
+		when:
+			resolver.onApplicationEvent(new ContextRefreshedEvent(context))
+			resolver.resolveChannel('books')
+		then:
+			thrown(Exception)
+	}
+
+	def 'should fail to resolve a channel of other than the required type'() {
+		when:
+			resolver.resolveChannel('direct', PollableChannel)
+		then:
+			thrown(BeanNotOfRequiredTypeException)
+	}
+
+	def 'should send and receive the messages via the resolved channels'() {
+		given:
+			SpringIntegrationStubMessages messages = new SpringIntegrationStubMessages(resolver)
+		when:
+			messages.send('foo', [bar: 'baz'], 'books')
+		then:
+			messages.receive('books').payload == 'foo'
+	}
+
+	def 'should send and receive the messages in batches via the resolved channels'() {
+		given:
+			SpringIntegrationStubMessages messages = new SpringIntegrationStubMessages(resolver)
+		when:
+			messages.sendAll((1..10).collect { MessageBuilder.withPayload(it).build() }, 'books')
+		then:
+			messages.receiveAll('books', 8, 1, TimeUnit.SECONDS)*.payload == (1..8).toList()
+			messages.clear('books') == 2
+			messages.receiveAll('books', 1, 0, TimeUnit.SECONDS).isEmpty()
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging.internal
+
+import org.springframework.cloud.contract.verifier.messaging.BatchMessageVerifier
+import org.springframework.cloud.contract.verifier.messaging.MessageVerifier
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class ContractVerifierMessagingSpec extends Specification {
+
+	List<ContractVerifierMessage> messages = ['first', 'second'].collect { new ContractVerifierMessage(it, [foo: 'bar']) }
+
+	def 'should convert the messages and send them in a single batch'() {
+		given:
+			BatchMessageVerifier<String> exchange = Mock(BatchMessageVerifier)
+			ContractVerifierMessaging<String> messaging = new ContractVerifierMessaging<>(exchange)
+		when:
+			messaging.sendAll(messages, 'books')
+		then:
+			1 * exchange.create('first', [foo: 'bar']) >> 'converted first'
+			1 * exchange.create('second', [foo: 'bar']) >> 'converted second'
+		then:
+			1 * exchange.sendAll(['converted first', 'converted second'], 'books')
+			0 * exchange.send(_, _, _)
+	}
+
+	def 'should send the messages one by one if the exchange does not support batches'() {
+		given:
+			MessageVerifier<String> exchange = Mock(MessageVerifier)
+			ContractVerifierMessaging<String> messaging = new ContractVerifierMessaging<>(exchange)
+		when:
+			messaging.sendAll(messages, 'books')
+		then:
+			1 * exchange.send('first', [foo: 'bar'], 'books')
+		then:
+			1 * exchange.send('second', [foo: 'bar'], 'books')
+	}
+
+	def 'should receive and clear the messages one by one if the exchange does not support batches'() {
+		given:
+			Queue<String> received = new LinkedList<>(['1', '2', '3'])
+			MessageVerifier<String> exchange = Stub(MessageVerifier) {
+				receive('books', _ as Long, _ as TimeUnit) >> { received.poll() }
+			}
+			ContractVerifierMessaging<String> messaging = new ContractVerifierMessaging<>(exchange)
+		expect:
+			messaging.receiveAll('books', 2, 1, TimeUnit.SECONDS)*.payload == ['1', '2']
+			messaging.clear('books') == 1
+			messaging.receiveAll('books', 2, 0, TimeUnit.SECONDS).isEmpty()
+	}
+
+	def 'should stop clearing a destination that never runs out of messages'() {
+		given:
+			MessageVerifier<String> exchange = Stub(MessageVerifier) {
+				receive('books', _ as Long, _ as TimeUnit) >> 'message'
+			}
+			ContractVerifierMessaging<String> messaging = new ContractVerifierMessaging<>(exchange)
+		expect:
+			messaging.clear('books') == ContractVerifierMessaging.MAX_CLEARED_MESSAGES
+	}
+
+	def 'should not receive any message when asked for less than one'() {
+		given:
+			MessageVerifier<String> exchange = Mock(MessageVerifier)
+			ContractVerifierMessaging<String> messaging = new ContractVerifierMessaging<>(exchange)
+		when:
+			List<ContractVerifierMessage> received = messaging.receiveAll('books', count, 1, TimeUnit.SECONDS)
+		then:
+			received.isEmpty()
+			0 * exchange._
+		where:
+			count << [0, -1]
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging.stream
+
+import org.springframework.cloud.stream.config.BindingProperties
+import org.springframework.cloud.stream.config.ChannelBindingServiceProperties
+import org.springframework.context.support.StaticApplicationContext
+import spock.lang.Specification
+
+class StreamDestinationChannelResolverSpec extends Specification {
+
+	def 'should resolve the destinations to the names of the bound channels'() {
+		given:
+			StaticApplicationContext context = new StaticApplicationContext()
+			ChannelBindingServiceProperties properties = new ChannelBindingServiceProperties()
+			properties.bindings = [output: new BindingProperties(destination: 'books')]
+			context.beanFactory.registerSingleton('channelBindingServiceProperties', properties)
+			context.refresh()
+			StreamDestinationChannelResolver resolver = new StreamDestinationChannelResolver(context)
+		expect:
+			resolver.resolveChannelName('books') == 'output'
+			resolver.resolveChannelName('unbound') == 'unbound'
+		when:
+			properties.bindings = [input: new BindingProperties(destination: 'books')]
+		then:
+			resolver.resolveChannelName('books') == 'output'
+		when:
+			resolver.clear()
+		then:
+			resolver.resolveChannelName('books') == 'input'
+	}
+
+	def 'should not cache the destination as the channel name when the bindings could not be read'() {
+		given:
+			StaticApplicationContext context = new StaticApplicationContext()
+			context.refresh()
+			StreamDestinationChannelResolver resolver = new StreamDestinationChannelResolver(context)
+		expect:
+			resolver.resolveChannelName('books') == 'books'
+		when:
+			ChannelBindingServiceProperties properties = new ChannelBindingServiceProperties()
+			properties.bindings = [output: new BindingProperties(destination: 'books')]
+			context.beanFactory.registerSingleton('channelBindingServiceProperties', properties)
+		then:
+			resolver.resolveChannelName('books') == 'output'
+	}
+}
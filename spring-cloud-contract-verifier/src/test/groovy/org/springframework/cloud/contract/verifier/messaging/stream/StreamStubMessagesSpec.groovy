@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.springframework.cloud.contract.verifier.messaging.stream
+
+import org.springframework.cloud.stream.test.binder.MessageCollector
+import org.springframework.context.support.StaticApplicationContext
+import org.springframework.integration.channel.DirectChannel
+import org.springframework.messaging.Message
+import org.springframework.messaging.MessageChannel
+import org.springframework.messaging.MessageHandler
+import org.springframework.messaging.support.MessageBuilder
+import spock.lang.Specification
+
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+class StreamStubMessagesSpec extends Specification {
+
+	StaticApplicationContext context = new StaticApplicationContext()
+	BlockingQueue<Message<?>> collected = new LinkedBlockingQueue<>()
+
+	def setup() {
+		DirectChannel output = new DirectChannel()
+		output.subscribe({ Message<?> message -> collected.add(message) } as MessageHandler)
+		context.beanFactory.registerSingleton('output', output)
+		context.beanFactory.registerSingleton('messageCollector', { MessageChannel channel -> collected } as MessageCollector)
+		context.refresh()
+	}
+
+	def 'should send and receive the messages in batches'() {
+		given:
+			StreamStubMessages messages = new StreamStubMessages(context)
+		when:
+			messages.sendAll((1..10).collect { MessageBuilder.withPayload(it).build() }, 'output')
+		then:
+			messages.receiveAll('output', 8, 1, TimeUnit.SECONDS)*.payload == (1..8).toList()
+			messages.clear('output') == 2
+			messages.receiveAll('output', 1, 0, TimeUnit.SECONDS).isEmpty()
+	}
+
+	def 'should return no messages when asked for less than one'() {
+		given:
+			StreamStubMessages messages = new StreamStubMessages(context)
+			messages.send('foo', [:], 'output')
+		expect:
+			messages.receiveAll('output', count, 1, TimeUnit.SECONDS).isEmpty()
+			collected.size() == 1
+		where:
+			count << [0, -1]
+	}
+
+	def 'should restore the interrupt flag when interrupted while waiting for the messages'() {
+		given:
+			StreamStubMessages messages = new StreamStubMessages(context)
+		when:
+			Thread.currentThread().interrupt()
+			messages.receiveAll('output', 1, 1, TimeUnit.SECONDS)
+		then:
+			thrown(IllegalStateException)
+			Thread.interrupted()
+	}
+}
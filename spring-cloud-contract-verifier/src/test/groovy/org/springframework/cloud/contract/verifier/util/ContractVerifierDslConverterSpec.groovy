@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2013-2016 the original author or authors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.util
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+
+class ContractVerifierDslConverterSpec extends Specification {
+
+	@Rule
+	TemporaryFolder tmpFolder = new TemporaryFolder()
+
+	String dsl = '''
+		org.springframework.cloud.contract.spec.Contract.make {
+			request {
+				method 'GET'
+				url '/foo'
+			}
+			response {
+				status 200
+				body([bar: 'baz'])
+			}
+		}
+	'''
+
+	def setup() {
+		ContractVerifierDslConverter.clearCache()
+	}
+
+	def cleanup() {
+		ContractVerifierDslConverter.clearCache()
+	}
+
+	def 'should return a new contract each time the same dsl gets converted'() {
+		when:
+			Contract first = ContractVerifierDslConverter.convert(dsl)
+			Contract second = ContractVerifierDslConverter.convert(dsl)
+		then:
+			!first.is(second)
+			first == second
+			first.request.url.clientValue == '/foo'
+	}
+
+	def 'should convert a file with the same content as a string'() {
+		given:
+			File file = tmpFolder.newFile('contract.groovy')
+			file.text = dsl
+		expect:
+			ContractVerifierDslConverter.convert(file) == ContractVerifierDslConverter.convert(dsl)
+	}
+
+	def 'should store the compiled contract on disk and reuse it after the in memory cache got cleared'() {
+		given:
+			File cacheDir = tmpFolder.newFolder('cache')
+		when:
+			Contract compiled = ContractVerifierDslConverter.convert(dsl, cacheDir)
+		then:
+			File[] entries = cacheDir.listFiles()
+			entries.length == 1
+			entries[0].listFiles().any { it.name.endsWith('.class') }
+		when:
+			ContractVerifierDslConverter.clearCache()
+			Contract loaded = ContractVerifierDslConverter.convert(dsl, cacheDir)
+		then:
+			loaded == compiled
+			cacheDir.listFiles().length == 1
+	}
+
+	def 'should compile the contract again when the cached entry is broken'() {
+		given:
+			File cacheDir = tmpFolder.newFolder('cache')
+			ContractVerifierDslConverter.convert(dsl, cacheDir)
+			ContractVerifierDslConverter.clearCache()
+		and:
+			cacheDir.listFiles()[0].listFiles().each { it.bytes = [1, 2, 3] as byte[] }
+		when:
+			Contract contract = ContractVerifierDslConverter.convert(dsl, cacheDir)
+		then:
+			contract.request.url.clientValue == '/foo'
+	}
+
+	def 'should store the compiled contract only in the cache directory passed to the conversion'() {
+		given:
+			File cacheDir = tmpFolder.newFolder('cache')
+			File otherCacheDir = tmpFolder.newFolder('other-cache')
+		when:
+			ContractVerifierDslConverter.convert(dsl, cacheDir)
+			ContractVerifierDslConverter.convert(dsl.replace('/foo', '/bar'), otherCacheDir)
+			ContractVerifierDslConverter.convert(dsl.replace('/foo', '/baz'))
+		then:
+			cacheDir.listFiles().length == 1
+			otherCacheDir.listFiles().length == 1
+	}
+}
@@ -27,7 +27,8 @@ class StubRunnerCamelProcessorSpec extends Specification {
 
 	def 'should not process the message if there is no output message'() {
 		given:
-			StubRunnerCamelProcessor processor = new StubRunnerCamelProcessor(noOutputMessageContract)
+			StubRunnerCamelProcessor processor = new StubRunnerCamelProcessor([noOutputMessageContract])
+			message.setProperty(StubRunnerCamelPredicate.CONTRACT, noOutputMessageContract)
 		when:
 			processor.process(message)
 		then:
@@ -58,11 +59,28 @@ class StubRunnerCamelProcessorSpec extends Specification {
 
 	def 'should process message when it has an output message section'() {
 		given:
-			StubRunnerCamelProcessor processor = new StubRunnerCamelProcessor(dsl)
+			StubRunnerCamelProcessor processor = new StubRunnerCamelProcessor([dsl])
+			message.setProperty(StubRunnerCamelPredicate.CONTRACT, dsl)
 		when:
 			processor.process(message)
 		then:
 			message.getIn().getBody(String) == '{"responseId":"123"}'
+			message.getIn().getHeader('BOOK-NAME') == 'foo'
+			message.getIn().getHeader('sample') == null
+			message.getProperty(StubRunnerCamelProcessor.SENT_TO) == 'returnBook'
+	}
+
+	def 'should reuse the once rendered message for every processed message'() {
+		given:
+			StubRunnerCamelProcessor processor = new StubRunnerCamelProcessor([dsl])
+			Exchange other = ExchangeBuilder.anExchange(camelContext).build()
+			message.setProperty(StubRunnerCamelPredicate.CONTRACT, dsl)
+			other.setProperty(StubRunnerCamelPredicate.CONTRACT, dsl)
+		when:
+			processor.process(message)
+			processor.process(other)
+		then:
+			message.getIn().getBody(String).is(other.getIn().getBody(String))
 	}
 
 	def dslWithRegexInGString = Contract.make {
@@ -89,7 +107,8 @@ class StubRunnerCamelProcessorSpec extends Specification {
 
 	def 'should convert dsl into message with regex in GString'() {
 		given:
-			StubRunnerCamelProcessor processor = new StubRunnerCamelProcessor(dslWithRegexInGString)
+			StubRunnerCamelProcessor processor = new StubRunnerCamelProcessor([dslWithRegexInGString])
+			message.setProperty(StubRunnerCamelPredicate.CONTRACT, dslWithRegexInGString)
 		when:
 			processor.process(message)
 		then: